@@ -0,0 +1,146 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares <code>CustomBTreeMap</code> with <code>CustomTreeMap</code>. Both maps hold keys
+ * <code>0, 2, 4, ...</code> put in random order.
+ *
+ * <code>removeAndPut</code> removes a random key and puts it back, so nodes of the B-tree
+ * are split and merged. <code>rangeScan</code> visits <code>scanLength</code> entries starting from
+ * a random key and <code>scan</code> visits all the entries in order. Other node sizes of the B-tree
+ * may be measured with <code>-p fanout=...</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BTreeMapBenchmark {
+
+    private static final int RANDOM_KEYS_COUNT = 1024;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"64"})
+    public int fanout;
+
+    @Param({"100"})
+    public int scanLength;
+
+    private CustomTreeMap<Integer, Integer> treeMap;
+    private CustomBTreeMap<Integer, Integer> bTreeMap;
+    private int[] randomKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = 2 * i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+
+        treeMap = new CustomTreeMap<>();
+        bTreeMap = new CustomBTreeMap<>(fanout);
+        for (int key : keys) {
+            treeMap.put(key, key);
+            bTreeMap.put(key, key);
+        }
+
+        randomKeys = new int[RANDOM_KEYS_COUNT];
+        for (int i = 0; i < RANDOM_KEYS_COUNT; i++) {
+            randomKeys[i] = 2 * random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Integer treeMapGet() {
+        return treeMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer bTreeMapGet() {
+        return bTreeMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer treeMapRemoveAndPut() {
+        Integer key = nextKey();
+        Integer value = treeMap.remove(key);
+        return treeMap.put(key, value);
+    }
+
+    @Benchmark
+    public Integer bTreeMapRemoveAndPut() {
+        Integer key = nextKey();
+        Integer value = bTreeMap.remove(key);
+        return bTreeMap.put(key, value);
+    }
+
+    @Benchmark
+    public long treeMapRangeScan() {
+        int from = nextKey();
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> entry : treeMap.subMap(from, true, from + 2 * scanLength, false).entrySet()) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long bTreeMapRangeScan() {
+        int from = nextKey();
+        long[] sum = new long[1];
+        bTreeMap.forEachInRange(from, from + 2 * scanLength, (key, value) -> sum[0] += value);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long treeMapScan() {
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> entry : treeMap.entrySet()) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long bTreeMapScan() {
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> entry : bTreeMap.entrySet()) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    private int nextKey() {
+        int key = randomKeys[cursor];
+        cursor = (cursor + 1) & (RANDOM_KEYS_COUNT - 1);
+        return key;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.epam.training;
+
+/**
+ * Key used by the map benchmarks.
+ *
+ * <code>BenchmarkKey</code> keeps its hash code separately from its value so the same class
+ * can be used both for well distributed keys and for keys with colliding hash codes
+ * (see <code>ClassWithConstHashCode</code> in <code>CustomHashMapTest</code>).
+ * Keys are <code>Comparable</code> so they can be used with the tree maps as well.
+ */
+public final class BenchmarkKey implements Comparable<BenchmarkKey> {
+
+    private final int value;
+    private final int hash;
+
+    public BenchmarkKey(int value, int hash) {
+        this.value = value;
+        this.hash = hash;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return value == ((BenchmarkKey) o).value;
+    }
+
+    @Override
+    public int compareTo(BenchmarkKey o) {
+        return Integer.compare(value, o.value);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,182 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares bulk operations of the custom collections with their <code>java.util</code> counterparts
+ * and with adding the elements one by one. <code>removeAll</code> removes every second element
+ * given as a list, so it is looked up through a hash set. Sorted keys are put to
+ * <code>CustomTreeMap</code> one by one against its bottom-up builder and merge.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BulkOperationsBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private List<Integer> source;
+    private List<Integer> evenElements;
+    private Map<Integer, Integer> sourceMap;
+    private CustomTreeMap<Integer, Integer> evenKeysTreeMap;
+    private CustomTreeMap<Integer, Integer> oddKeysTreeMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = new ArrayList<>(size);
+        evenElements = new ArrayList<>(size / 2);
+        sourceMap = new HashMap<>();
+        evenKeysTreeMap = new CustomTreeMap<>();
+        oddKeysTreeMap = new CustomTreeMap<>();
+        for (int i = 0; i < size; i++) {
+            source.add(i);
+            sourceMap.put(i, i);
+            if (i % 2 == 0) {
+                evenElements.add(i);
+                evenKeysTreeMap.put(i, i);
+            } else {
+                oddKeysTreeMap.put(i, i);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Integer> customArrayListAddOneByOne() {
+        List<Integer> list = new CustomArrayList<>();
+        for (Integer element : source) {
+            list.add(element);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> customArrayListAddAll() {
+        List<Integer> list = new CustomArrayList<>();
+        list.addAll(source);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> arrayListAddAll() {
+        List<Integer> list = new ArrayList<>();
+        list.addAll(source);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> customLinkedListAddAll() {
+        List<Integer> list = new CustomLinkedList<>();
+        list.addAll(source);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> linkedListAddAll() {
+        List<Integer> list = new LinkedList<>();
+        list.addAll(source);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> customArrayListRemoveAll() {
+        List<Integer> list = new CustomArrayList<>();
+        list.addAll(source);
+        list.removeAll(evenElements);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> arrayListRemoveAll() {
+        List<Integer> list = new ArrayList<>(source);
+        list.removeAll(evenElements);
+        return list;
+    }
+
+    @Benchmark
+    public List<Integer> customLinkedListRemoveAll() {
+        List<Integer> list = new CustomLinkedList<>();
+        list.addAll(source);
+        list.removeAll(evenElements);
+        return list;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> customHashMapPutOneByOne() {
+        Map<Integer, Integer> map = new CustomHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : sourceMap.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> customHashMapPutAll() {
+        Map<Integer, Integer> map = new CustomHashMap<>();
+        map.putAll(sourceMap);
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> hashMapPutAll() {
+        Map<Integer, Integer> map = new HashMap<>();
+        map.putAll(sourceMap);
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> customTreeMapPutSortedOneByOne() {
+        Map<Integer, Integer> map = new CustomTreeMap<>();
+        for (Integer element : source) {
+            map.put(element, element);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> customTreeMapBuildSorted() {
+        CustomTreeMap.Builder<Integer, Integer> builder = CustomTreeMap.builder();
+        for (Integer element : source) {
+            builder.put(element, element);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> customTreeMapMergeOneByOne() {
+        Map<Integer, Integer> map = new CustomTreeMap<>();
+        for (Map.Entry<Integer, Integer> entry : evenKeysTreeMap.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<Integer, Integer> entry : oddKeysTreeMap.entrySet()) {
+            map.put(entry.getKey(), entry.getValue());
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> customTreeMapMerge() {
+        return CustomTreeMap.merge(evenKeysTreeMap, oddKeysTreeMap, (v1, v2) -> v2);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of the thread-safe maps accessed by all available cores at once.
+ *
+ * <code>mixed</code> does nine reads per one write. Run with <code>-t</code> to change
+ * the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Threads(Threads.MAX)
+public class ConcurrentMapBenchmark {
+
+    @Param
+    public ConcurrentMapType type;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private Integer[] keys;
+    private Map<Integer, Integer> map;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new Integer[size];
+        map = type.create();
+        for (int i = 0; i < size; i++) {
+            keys[i] = i;
+            map.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(randomKey());
+    }
+
+    @Benchmark
+    public Integer put() {
+        Integer key = randomKey();
+        return map.put(key, key);
+    }
+
+    @Benchmark
+    public Integer mixed() {
+        Integer key = randomKey();
+        if (key % 10 == 0) {
+            return map.put(key, key);
+        }
+        return map.get(key);
+    }
+
+    private Integer randomKey() {
+        return keys[ThreadLocalRandom.current().nextInt(size)];
+    }
+}
@@ -0,0 +1,34 @@
+package ru.epam.training;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe map implementations compared by the concurrent benchmarks.
+ */
+public enum ConcurrentMapType {
+
+    CUSTOM_CONCURRENT_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new CustomConcurrentHashMap<>();
+        }
+    },
+
+    CONCURRENT_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return new ConcurrentHashMap<>();
+        }
+    },
+
+    SYNCHRONIZED_CUSTOM_HASH_MAP {
+        @Override
+        <K, V> Map<K, V> create() {
+            return Collections.synchronizedMap(new CustomHashMap<>());
+        }
+    };
+
+    abstract <K, V> Map<K, V> create();
+}
@@ -0,0 +1,49 @@
+package ru.epam.training;
+
+/**
+ * Distributions of the keys used by the map benchmarks.
+ */
+public enum KeyDistribution {
+
+    /**
+     * Keys <code>0, 1, 2, ...</code> with their natural hash codes.
+     */
+    SEQUENTIAL {
+        @Override
+        BenchmarkKey key(int i) {
+            return new BenchmarkKey(i, i);
+        }
+    },
+
+    /**
+     * Distinct pseudo random keys. Multiplication by an odd constant is a bijection
+     * so keys never repeat.
+     */
+    RANDOM {
+        @Override
+        BenchmarkKey key(int i) {
+            int value = i * 0x9E3779B9;
+            return new BenchmarkKey(value, value);
+        }
+    },
+
+    /**
+     * Distinct keys which all have the same hash code.
+     */
+    COLLIDING {
+        @Override
+        BenchmarkKey key(int i) {
+            return new BenchmarkKey(i, 5);
+        }
+    };
+
+    abstract BenchmarkKey key(int i);
+
+    public BenchmarkKey[] keys(int size) {
+        BenchmarkKey[] keys = new BenchmarkKey[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = key(i);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares <code>add</code>, <code>get</code> and <code>add(int, T)</code>/<code>remove(int)</code>
+ * of the custom lists with the <code>java.util</code> ones.
+ *
+ * <code>fill</code> measures building a list of <code>size</code> elements from scratch, other
+ * benchmarks measure a single operation on a list which already holds <code>size</code> elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ListBenchmark {
+
+    private static final Integer ELEMENT = 42;
+    private static final int RANDOM_INDEXES_COUNT = 1024;
+
+    @Param
+    public ListType type;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    private List<Integer> list;
+    private int[] randomIndexes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = type.create();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+
+        Random random = new Random(42);
+        randomIndexes = new int[RANDOM_INDEXES_COUNT];
+        for (int i = 0; i < RANDOM_INDEXES_COUNT; i++) {
+            randomIndexes[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> fill() {
+        List<Integer> l = type.create();
+        for (int i = 0; i < size; i++) {
+            l.add(ELEMENT);
+        }
+        return l;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return list.get(nextIndex());
+    }
+
+    @Benchmark
+    public Integer addAndRemoveInTheMiddle() {
+        int index = size / 2;
+        list.add(index, ELEMENT);
+        return list.remove(index);
+    }
+
+    @Benchmark
+    public Integer addAndRemoveAtTheHead() {
+        list.add(0, ELEMENT);
+        return list.remove(0);
+    }
+
+    @Benchmark
+    public Integer addAndRemoveAtTheTail() {
+        list.add(ELEMENT);
+        return list.remove(size);
+    }
+
+    private int nextIndex() {
+        int index = randomIndexes[cursor];
+        cursor = (cursor + 1) & (RANDOM_INDEXES_COUNT - 1);
+        return index;
+    }
+}
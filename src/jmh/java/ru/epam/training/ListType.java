@@ -0,0 +1,56 @@
+package ru.epam.training;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * List implementations compared by the benchmarks. Each custom list goes next to
+ * its <code>java.util</code> counterpart which is used as a baseline.
+ */
+public enum ListType {
+
+    CUSTOM_ARRAY_LIST {
+        @Override
+        <T> List<T> create() {
+            return new CustomArrayList<>();
+        }
+    },
+
+    CUSTOM_CIRCULAR_ARRAY_LIST {
+        @Override
+        <T> List<T> create() {
+            return new CustomCircularArrayList<>();
+        }
+    },
+
+    ARRAY_LIST {
+        @Override
+        <T> List<T> create() {
+            return new ArrayList<>();
+        }
+    },
+
+    CUSTOM_LINKED_LIST {
+        @Override
+        <T> List<T> create() {
+            return new CustomLinkedList<>();
+        }
+    },
+
+    CUSTOM_UNROLLED_LINKED_LIST {
+        @Override
+        <T> List<T> create() {
+            return new CustomUnrolledLinkedList<>();
+        }
+    },
+
+    LINKED_LIST {
+        @Override
+        <T> List<T> create() {
+            return new LinkedList<>();
+        }
+    };
+
+    abstract <T> List<T> create();
+}
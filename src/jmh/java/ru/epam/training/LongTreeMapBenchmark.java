@@ -0,0 +1,94 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares lookups by <code>long</code> timestamps in <code>CustomLongTreeMap</code> with the maps
+ * of boxed <code>Long</code> keys: <code>CustomTreeMap</code> with natural ordering and with
+ * a comparator, and <code>java.util.TreeMap</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LongTreeMapBenchmark {
+
+    private static final int RANDOM_KEYS_COUNT = 1024;
+    private static final long START = 1_500_000_000_000L;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    private CustomLongTreeMap<Integer> longTreeMap;
+    private NavigableMap<Long, Integer> customTreeMap;
+    private NavigableMap<Long, Integer> comparatorTreeMap;
+    private NavigableMap<Long, Integer> treeMap;
+    private long[] randomKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        longTreeMap = new CustomLongTreeMap<>();
+        customTreeMap = new CustomTreeMap<>();
+        comparatorTreeMap = new CustomTreeMap<>(Comparator.<Long>naturalOrder());
+        treeMap = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            long key = START + 1000L * i;
+            longTreeMap.put(key, i);
+            customTreeMap.put(key, i);
+            comparatorTreeMap.put(key, i);
+            treeMap.put(key, i);
+        }
+
+        Random random = new Random(42);
+        randomKeys = new long[RANDOM_KEYS_COUNT];
+        for (int i = 0; i < RANDOM_KEYS_COUNT; i++) {
+            randomKeys[i] = START + 1000L * random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Integer customLongTreeMapGet() {
+        return longTreeMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer customTreeMapGet() {
+        return customTreeMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer customTreeMapWithComparatorGet() {
+        return comparatorTreeMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer treeMapGet() {
+        return treeMap.get(nextKey());
+    }
+
+    private long nextKey() {
+        long key = randomKeys[cursor];
+        cursor = (cursor + 1) & (RANDOM_KEYS_COUNT - 1);
+        return key;
+    }
+}
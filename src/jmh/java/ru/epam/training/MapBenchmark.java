@@ -0,0 +1,115 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+/**
+ * Compares <code>put</code>, <code>get</code> and <code>remove</code> of the custom maps
+ * with the <code>java.util</code> ones.
+ *
+ * <code>fill</code> measures building a map of <code>size</code> keys from scratch, other
+ * benchmarks measure a single operation on a map which already holds <code>size</code> keys.
+ *
+ * Filling a linear probing map with {@link KeyDistribution#COLLIDING} keys is quadratic, so such
+ * trials of more than {@value #MAX_COLLIDING_PROBING_SIZE} keys fail at once in the setup instead
+ * of never finishing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MapBenchmark {
+
+    private static final int MAX_COLLIDING_PROBING_SIZE = 1000;
+
+    @Param
+    public MapType type;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param
+    public KeyDistribution distribution;
+
+    private BenchmarkKey[] keys;
+    private BenchmarkKey[] lookupOrder;
+    private Map<BenchmarkKey, Integer> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (distribution == KeyDistribution.COLLIDING && type.probesLinearly() && size > MAX_COLLIDING_PROBING_SIZE) {
+            throw new IllegalStateException(type + " isn't benchmarked with more than "
+                    + MAX_COLLIDING_PROBING_SIZE + " colliding keys");
+        }
+        keys = distribution.keys(size);
+
+        List<BenchmarkKey> shuffled = asList(keys.clone());
+        Collections.shuffle(shuffled, new Random(42));
+        lookupOrder = shuffled.toArray(new BenchmarkKey[size]);
+
+        map = type.create();
+        for (int i = 0; i < size; i++) {
+            map.put(keys[i], i);
+        }
+    }
+
+    @Benchmark
+    public Map<BenchmarkKey, Integer> fill() {
+        Map<BenchmarkKey, Integer> m = type.create();
+        for (int i = 0; i < size; i++) {
+            m.put(keys[i], i);
+        }
+        return m;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(nextKey());
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return map.containsKey(nextKey());
+    }
+
+    @Benchmark
+    public Integer update() {
+        BenchmarkKey key = nextKey();
+        return map.put(key, key.getValue());
+    }
+
+    @Benchmark
+    public Integer removeAndPut() {
+        BenchmarkKey key = nextKey();
+        Integer value = map.remove(key);
+        map.put(key, value);
+        return value;
+    }
+
+    private BenchmarkKey nextKey() {
+        BenchmarkKey key = lookupOrder[cursor];
+        cursor = cursor + 1 == size ? 0 : cursor + 1;
+        return key;
+    }
+}
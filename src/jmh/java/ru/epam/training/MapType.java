@@ -0,0 +1,79 @@
+package ru.epam.training;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Map implementations compared by the benchmarks. Each custom map goes next to
+ * its <code>java.util</code> counterpart which is used as a baseline.
+ */
+public enum MapType {
+
+    CUSTOM_HASH_MAP {
+        @Override
+        <K extends Comparable<K>, V> Map<K, V> create() {
+            return new CustomHashMap<>();
+        }
+    },
+
+    CUSTOM_OPEN_HASH_MAP {
+        @Override
+        <K extends Comparable<K>, V> Map<K, V> create() {
+            return new CustomOpenHashMap<>();
+        }
+
+        @Override
+        boolean probesLinearly() {
+            return true;
+        }
+    },
+
+    HASH_MAP {
+        @Override
+        <K extends Comparable<K>, V> Map<K, V> create() {
+            return new HashMap<>();
+        }
+    },
+
+    CUSTOM_TREE_MAP {
+        @Override
+        <K extends Comparable<K>, V> Map<K, V> create() {
+            return new CustomTreeMap<>();
+        }
+    },
+
+    CUSTOM_B_TREE_MAP {
+        @Override
+        <K extends Comparable<K>, V> Map<K, V> create() {
+            return new CustomBTreeMap<>();
+        }
+    },
+
+    /**
+     * Recursive <code>CustomTreeMap</code> operations, the baseline for the iterative ones.
+     */
+    RECURSIVE_TREE_MAP {
+        @Override
+        <K extends Comparable<K>, V> Map<K, V> create() {
+            return new RecursiveTreeMap<>();
+        }
+    },
+
+    TREE_MAP {
+        @Override
+        <K extends Comparable<K>, V> Map<K, V> create() {
+            return new TreeMap<>();
+        }
+    };
+
+    abstract <K extends Comparable<K>, V> Map<K, V> create();
+
+    /**
+     * Whether keys of the same hash code are placed to the adjacent slots of an open addressing
+     * table, so filling the map with <code>n</code> such keys takes <code>n^2</code> probes.
+     */
+    boolean probesLinearly() {
+        return false;
+    }
+}
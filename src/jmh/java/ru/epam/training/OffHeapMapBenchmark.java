@@ -0,0 +1,91 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares <code>OffHeapHashMap</code> of <code>long</code> keys and values with
+ * <code>CustomHashMap</code> which keeps an entry object per key. Run with <code>-prof gc</code>
+ * to see the time spent by garbage collector on the heap of entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OffHeapMapBenchmark {
+
+    private static final int RANDOM_KEYS_COUNT = 1024;
+
+    @Param({"1000", "1000000", "10000000"})
+    public int size;
+
+    private OffHeapHashMap<Long, Long> offHeapMap;
+    private CustomHashMap<Long, Long> hashMap;
+    private Long[] randomKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        offHeapMap = new OffHeapHashMap<>(Serializer.LONG, Serializer.LONG, size);
+        hashMap = new CustomHashMap<>();
+        for (long i = 0; i < size; i++) {
+            offHeapMap.put(i, i);
+            hashMap.put(i, i);
+        }
+
+        Random random = new Random(42);
+        randomKeys = new Long[RANDOM_KEYS_COUNT];
+        for (int i = 0; i < RANDOM_KEYS_COUNT; i++) {
+            randomKeys[i] = (long) random.nextInt(size);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offHeapMap.close();
+    }
+
+    @Benchmark
+    public Long offHeapGet() {
+        return offHeapMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Long hashMapGet() {
+        return hashMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Long offHeapPut() {
+        Long key = nextKey();
+        return offHeapMap.put(key, key);
+    }
+
+    @Benchmark
+    public Long hashMapPut() {
+        Long key = nextKey();
+        return hashMap.put(key, key);
+    }
+
+    private Long nextKey() {
+        Long key = randomKeys[cursor];
+        cursor = (cursor + 1) & (RANDOM_KEYS_COUNT - 1);
+        return key;
+    }
+}
@@ -0,0 +1,145 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways to get a new version of a map with one changed entry: copying
+ * <code>CustomHashMap</code> and updating the copy against <code>plus</code> of the persistent maps.
+ *
+ * <code>*Build</code> benchmarks fill a persistent map of <code>size</code> entries
+ * by <code>plus</code> calls and by a transient builder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistentMapBenchmark {
+
+    private static final int RANDOM_KEYS_COUNT = 1024;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private CustomHashMap<Integer, Integer> hashMap;
+    private PersistentHashMap<Integer, Integer> persistentHashMap;
+    private PersistentTreeMap<Integer, Integer> persistentTreeMap;
+    private Integer[] randomKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hashMap = new CustomHashMap<>();
+        PersistentMap.Builder<Integer, Integer> hashBuilder = PersistentHashMap.<Integer, Integer>empty().toBuilder();
+        PersistentMap.Builder<Integer, Integer> treeBuilder = PersistentTreeMap.<Integer, Integer>empty().toBuilder();
+        for (int i = 0; i < size; i++) {
+            hashMap.put(i, i);
+            hashBuilder.put(i, i);
+            treeBuilder.put(i, i);
+        }
+        persistentHashMap = (PersistentHashMap<Integer, Integer>) hashBuilder.build();
+        persistentTreeMap = (PersistentTreeMap<Integer, Integer>) treeBuilder.build();
+
+        Random random = new Random(42);
+        randomKeys = new Integer[RANDOM_KEYS_COUNT];
+        for (int i = 0; i < RANDOM_KEYS_COUNT; i++) {
+            randomKeys[i] = random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> copyHashMapAndPut() {
+        Map<Integer, Integer> copy = new CustomHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : hashMap.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue());
+        }
+        Integer key = nextKey();
+        copy.put(key, -key);
+        return copy;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> persistentHashMapPlus() {
+        Integer key = nextKey();
+        return persistentHashMap.plus(key, -key);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> persistentTreeMapPlus() {
+        Integer key = nextKey();
+        return persistentTreeMap.plus(key, -key);
+    }
+
+    @Benchmark
+    public Integer hashMapGet() {
+        return hashMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer persistentHashMapGet() {
+        return persistentHashMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer persistentTreeMapGet() {
+        return persistentTreeMap.get(nextKey());
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> persistentHashMapBuildByPlus() {
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < size; i++) {
+            map = map.plus(i, i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> persistentHashMapBuildByBuilder() {
+        PersistentMap.Builder<Integer, Integer> builder = PersistentHashMap.<Integer, Integer>empty().toBuilder();
+        for (int i = 0; i < size; i++) {
+            builder.put(i, i);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> persistentTreeMapBuildByPlus() {
+        PersistentTreeMap<Integer, Integer> map = PersistentTreeMap.empty();
+        for (int i = 0; i < size; i++) {
+            map = map.plus(i, i);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> persistentTreeMapBuildByBuilder() {
+        PersistentMap.Builder<Integer, Integer> builder = PersistentTreeMap.<Integer, Integer>empty().toBuilder();
+        for (int i = 0; i < size; i++) {
+            builder.put(i, i);
+        }
+        return builder.build();
+    }
+
+    private Integer nextKey() {
+        Integer key = randomKeys[cursor];
+        cursor = (cursor + 1) & (RANDOM_KEYS_COUNT - 1);
+        return key;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binary snapshots of the custom collections with Java serialization of their
+ * <code>java.util</code> counterparts (the custom ones aren't <code>Serializable</code>).
+ * Both write to and read from byte arrays, so the numbers don't include any I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SnapshotBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private CustomArrayList<Long> arrayList;
+    private CustomHashMap<Long, Long> hashMap;
+    private CustomTreeMap<Long, Long> treeMap;
+    private ArrayList<Long> javaArrayList;
+    private HashMap<Long, Long> javaHashMap;
+    private TreeMap<Long, Long> javaTreeMap;
+
+    private byte[] arrayListSnapshot;
+    private byte[] hashMapSnapshot;
+    private byte[] treeMapSnapshot;
+    private byte[] javaArrayListBytes;
+    private byte[] javaHashMapBytes;
+    private byte[] javaTreeMapBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        arrayList = new CustomArrayList<>();
+        hashMap = new CustomHashMap<>();
+        treeMap = new CustomTreeMap<>();
+        javaArrayList = new ArrayList<>();
+        javaHashMap = new HashMap<>();
+        javaTreeMap = new TreeMap<>();
+        for (long i = 0; i < size; i++) {
+            arrayList.add(i);
+            hashMap.put(i, i);
+            treeMap.put(i, i);
+            javaArrayList.add(i);
+            javaHashMap.put(i, i);
+            javaTreeMap.put(i, i);
+        }
+
+        arrayListSnapshot = snapshotArrayList();
+        hashMapSnapshot = snapshotHashMap();
+        treeMapSnapshot = snapshotTreeMap();
+        javaArrayListBytes = serialize(javaArrayList);
+        javaHashMapBytes = serialize(javaHashMap);
+        javaTreeMapBytes = serialize(javaTreeMap);
+    }
+
+    @Benchmark
+    public byte[] snapshotArrayList() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Snapshots.writeList(arrayList, Serializer.LONG, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeArrayList() throws IOException {
+        return serialize(javaArrayList);
+    }
+
+    @Benchmark
+    public byte[] snapshotHashMap() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Snapshots.writeMap(hashMap, Serializer.LONG, Serializer.LONG, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeHashMap() throws IOException {
+        return serialize(javaHashMap);
+    }
+
+    @Benchmark
+    public byte[] snapshotTreeMap() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Snapshots.writeMap(treeMap, Serializer.LONG, Serializer.LONG, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeTreeMap() throws IOException {
+        return serialize(javaTreeMap);
+    }
+
+    @Benchmark
+    public Object loadArrayList() throws IOException {
+        return Snapshots.readArrayList(Channels.newChannel(new ByteArrayInputStream(arrayListSnapshot)),
+                Serializer.LONG);
+    }
+
+    @Benchmark
+    public Object deserializeArrayList() throws IOException, ClassNotFoundException {
+        return deserialize(javaArrayListBytes);
+    }
+
+    @Benchmark
+    public Object loadHashMap() throws IOException {
+        return Snapshots.readHashMap(Channels.newChannel(new ByteArrayInputStream(hashMapSnapshot)),
+                Serializer.LONG, Serializer.LONG);
+    }
+
+    @Benchmark
+    public Object deserializeHashMap() throws IOException, ClassNotFoundException {
+        return deserialize(javaHashMapBytes);
+    }
+
+    @Benchmark
+    public Object loadTreeMap() throws IOException {
+        return Snapshots.readTreeMap(Channels.newChannel(new ByteArrayInputStream(treeMapSnapshot)),
+                Serializer.LONG, Serializer.LONG);
+    }
+
+    @Benchmark
+    public Object deserializeTreeMap() throws IOException, ClassNotFoundException {
+        return deserialize(javaTreeMapBytes);
+    }
+
+    private static byte[] serialize(Object collection) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+            objectOut.writeObject(collection);
+        }
+        return out.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return objectIn.readObject();
+        }
+    }
+}
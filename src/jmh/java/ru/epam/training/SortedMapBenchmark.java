@@ -0,0 +1,104 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ordered operations of the sorted maps. The map holds keys <code>0, 2, 4, ...</code>
+ * put in random order, so half of the lookups of <code>floorKey</code> miss the exact key.
+ *
+ * <code>rangeScan</code> iterates over <code>scanLength</code> entries of a <code>subMap</code>
+ * starting from a random key. <code>rangeSize</code> counts a quarter of the keys in average,
+ * which <code>CustomTreeMap</code> does by subtree sizes and <code>TreeMap</code> by iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortedMapBenchmark {
+
+    private static final int RANDOM_KEYS_COUNT = 1024;
+
+    @Param
+    public SortedMapType type;
+
+    @Param({"1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"100"})
+    public int scanLength;
+
+    private NavigableMap<Integer, Integer> map;
+    private int[] randomKeys;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = 2 * i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+        }
+
+        map = type.create();
+        for (int key : keys) {
+            map.put(key, key);
+        }
+
+        randomKeys = new int[RANDOM_KEYS_COUNT];
+        for (int i = 0; i < RANDOM_KEYS_COUNT; i++) {
+            randomKeys[i] = random.nextInt(2 * size);
+        }
+    }
+
+    @Benchmark
+    public Integer floorKey() {
+        return map.floorKey(nextKey());
+    }
+
+    @Benchmark
+    public long rangeScan() {
+        int from = nextKey();
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> entry : map.subMap(from, true, from + 2 * scanLength, false).entrySet()) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int rangeSize() {
+        int from = nextKey();
+        return map.subMap(from, true, from + size, false).size();
+    }
+
+    private int nextKey() {
+        int key = randomKeys[cursor];
+        cursor = (cursor + 1) & (RANDOM_KEYS_COUNT - 1);
+        return key;
+    }
+}
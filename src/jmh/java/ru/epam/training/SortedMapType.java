@@ -0,0 +1,27 @@
+package ru.epam.training;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Sorted map implementations compared by the benchmarks of the ordered operations.
+ * <code>java.util.TreeMap</code> is used as a baseline.
+ */
+public enum SortedMapType {
+
+    CUSTOM_TREE_MAP {
+        @Override
+        <V> NavigableMap<Integer, V> create() {
+            return new CustomTreeMap<>();
+        }
+    },
+
+    TREE_MAP {
+        @Override
+        <V> NavigableMap<Integer, V> create() {
+            return new TreeMap<>();
+        }
+    };
+
+    abstract <V> NavigableMap<Integer, V> create();
+}
@@ -0,0 +1,80 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert/delete cycles on the tree maps: every operation removes the oldest key and puts
+ * a new one, so the map keeps <code>size</code> keys and the tree is rebuilt many times.
+ * Trees without balanced deletion degenerate under this workload.
+ *
+ * After each iteration the height of <code>CustomTreeMap</code> is checked to be at most
+ * <code>2 * log2(size)</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TreeMapChurnBenchmark {
+
+    @Param({"CUSTOM_TREE_MAP", "RECURSIVE_TREE_MAP", "TREE_MAP"})
+    public MapType type;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private Map<Integer, Integer> map;
+    private int oldest;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        map = type.create();
+        for (int i = 0; i < size; i++) {
+            map.put(scramble(i), i);
+        }
+        oldest = 0;
+        next = size;
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkHeight() {
+        if (map instanceof CustomTreeMap) {
+            CustomTreeMap<Integer, Integer> tree = (CustomTreeMap<Integer, Integer>) map;
+            int maxHeight = 2 * (32 - Integer.numberOfLeadingZeros(tree.size()));
+            if (!tree.isValidRedBlackTree() || tree.height() > maxHeight) {
+                throw new IllegalStateException("Tree of height " + tree.height() + " is not balanced");
+            }
+        }
+    }
+
+    @Benchmark
+    public Integer churn() {
+        map.remove(scramble(oldest++));
+        return map.put(scramble(next), next++);
+    }
+
+    /**
+     * Spreads consecutive numbers over the whole <code>int</code> range, so removed and
+     * inserted keys land in different parts of the tree.
+     */
+    private static int scramble(int i) {
+        return i * 0x9E3779B9;
+    }
+}
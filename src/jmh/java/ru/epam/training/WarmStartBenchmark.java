@@ -0,0 +1,83 @@
+package ru.epam.training;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to get a map and a list of <code>size</code> elements ready after restart: opening the files
+ * of the mapped collections against filling the collections in memory again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class WarmStartBenchmark {
+
+    @Param({"1000000"})
+    public int size;
+
+    private Path mapFile;
+    private Path listFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path directory = Files.createTempDirectory("warm-start");
+        mapFile = directory.resolve("map");
+        listFile = directory.resolve("list");
+
+        try (OffHeapHashMap<Long, Long> map = OffHeapHashMap.open(mapFile, Serializer.LONG, Serializer.LONG);
+             MappedArrayList<Long> list = MappedArrayList.open(listFile, Serializer.LONG)) {
+            List<Long> elements = new ArrayList<>(size);
+            for (long i = 0; i < size; i++) {
+                map.put(i, i);
+                elements.add(i);
+            }
+            list.addAll(elements);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(mapFile);
+        Files.deleteIfExists(listFile);
+    }
+
+    @Benchmark
+    public long mappedOpen() throws IOException {
+        try (OffHeapHashMap<Long, Long> map = OffHeapHashMap.open(mapFile, Serializer.LONG, Serializer.LONG);
+             MappedArrayList<Long> list = MappedArrayList.open(listFile, Serializer.LONG)) {
+            return map.get(size - 1L) + list.get(size - 1);
+        }
+    }
+
+    @Benchmark
+    public long rebuild() {
+        CustomHashMap<Long, Long> map = new CustomHashMap<>();
+        CustomArrayList<Long> list = new CustomArrayList<>();
+        for (long i = 0; i < size; i++) {
+            map.put(i, i);
+            list.add(i);
+        }
+        return map.get(size - 1L) + list.get(size - 1);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.epam.training;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Operations on ranges of direct and mapped buffers used by the off-heap collections.
+ */
+final class ByteBuffers {
+
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            invokeCleaner = null;
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private ByteBuffers() {
+    }
+
+    static boolean bytesEqual(ByteBuffer buffer1, int offset1, ByteBuffer buffer2, int offset2, int length) {
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            if (buffer1.getLong(offset1 + i) != buffer2.getLong(offset2 + i)) {
+                return false;
+            }
+        }
+        for (; i < length; i++) {
+            if (buffer1.get(offset1 + i) != buffer2.get(offset2 + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the bytes by 8 at a time. Overlapping ranges are copied correctly
+     * only if <code>toOffset &lt; fromOffset</code>.
+     */
+    static void copyBytes(ByteBuffer from, int fromOffset, ByteBuffer to, int toOffset, int length) {
+        int i = 0;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            to.putLong(toOffset + i, from.getLong(fromOffset + i));
+        }
+        for (; i < length; i++) {
+            to.put(toOffset + i, from.get(fromOffset + i));
+        }
+    }
+
+    /**
+     * Frees the memory of the direct or mapped buffer by <code>Unsafe.invokeCleaner</code> on Java 9+.
+     * On Java 8 the memory is freed once the buffer is collected. The buffer can't be used after it.
+     */
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || buffer == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
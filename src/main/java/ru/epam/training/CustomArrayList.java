@@ -1,6 +1,9 @@
 package ru.epam.training;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 /**
  * <i>Array</i> implementation of the <code>List</code> interface.
@@ -9,8 +12,18 @@ import java.util.*;
  * Every time list size is getting equals to capacity it multiplies by <code>3/2</code>.
  *
  * The <code>get</code>, <code>set</code> methods run in constant time (exclude the situation
- * then <code></code>size == capacity</code>). The <code>add</code>, <code>remove</code> methods
- * create new array. So this operations time based on <code>System.arrayCopy</code> native implementation.
+ * then <code></code>size == capacity</code>). The <code>add(int, T)</code>, <code>remove(int)</code> methods
+ * shift the tail of the list by <code>System.arrayCopy</code>, so they are cheap only near the end of the list.
+ * <code>CustomCircularArrayList</code> is better for inserts at the head.
+ *
+ * Bulk operations grow the array once to the final size. <code>removeAll</code>, <code>retainAll</code>
+ * compact the array in a single pass and look the elements up in a <code>HashSet</code> copy of a big
+ * argument collection.
+ *
+ * Iterators and {@link #spliterator()} read the inner array directly. Iterators are <i>fail-fast</i>:
+ * structural modification of the list out of the iterator makes it throw
+ * <code>ConcurrentModificationException</code>. Spliterator splits the array range exactly
+ * in halves, so parallel streams over the list are balanced.
  *
  * <code>CustomArrayList</code> supports <code>null</code> values.
  *
@@ -19,9 +32,25 @@ import java.util.*;
 public class CustomArrayList<T> implements List<T> {
 
     private static final int DEFAULT_CAPACITY = 10;
+    private static final int HASH_LOOKUP_THRESHOLD = 16;
 
-    private Object[] data = new Object[DEFAULT_CAPACITY];
+    private Object[] data;
     private int size = 0;
+    private int modCount = 0;
+
+    public CustomArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates list which holds <code>initialCapacity</code> elements without growing.
+     */
+    public CustomArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        data = new Object[initialCapacity];
+    }
 
     @Override
     public int size() {
@@ -49,17 +78,24 @@ public class CustomArrayList<T> implements List<T> {
 
     @Override
     public Iterator<T> iterator() {
-        throw new UnsupportedOperationException();
+        return new Itr(0);
     }
 
     @Override
     public Object[] toArray() {
-        throw new UnsupportedOperationException();
+        return Arrays.copyOf(data, size);
     }
 
     @Override
     public <T1> T1[] toArray(T1[] a) {
-        throw new UnsupportedOperationException();
+        if (a.length < size) {
+            return (T1[]) Arrays.copyOf(data, size, a.getClass());
+        }
+        System.arraycopy(data, 0, a, 0, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
     }
 
     @Override
@@ -67,6 +103,7 @@ public class CustomArrayList<T> implements List<T> {
         ensureCapacity();
 
         data[size++] = t;
+        modCount++;
         return false;
     }
 
@@ -81,35 +118,75 @@ public class CustomArrayList<T> implements List<T> {
         return false;
     }
 
+    /**
+     * Looks up the elements of a big collection in a <code>HashSet</code> of this list,
+     * so it runs in <code>size + c.size()</code> time instead of <code>size * c.size()</code>.
+     */
     @Override
     public boolean containsAll(Collection<?> c) {
-        throw new UnsupportedOperationException();
+        Collection<?> elements = c.size() > HASH_LOOKUP_THRESHOLD ? new HashSet<>(this) : this;
+        for (Object o : c) {
+            if (!elements.contains(o)) {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * Copies the elements of the collection by a single <code>System.arraycopy</code>
+     * from its <code>toArray</code>, the array grows at most once.
+     */
     @Override
     public boolean addAll(Collection<? extends T> c) {
-        throw new UnsupportedOperationException();
+        Object[] elements = c.toArray();
+        int count = elements.length;
+        if (count == 0) {
+            return false;
+        }
+
+        ensureCapacity(size + count);
+        System.arraycopy(elements, 0, data, size, count);
+        size += count;
+        modCount++;
+        return true;
     }
 
     @Override
     public boolean addAll(int index, Collection<? extends T> c) {
-        throw new UnsupportedOperationException();
+        checkIfIndexIsAppropriateToAdd(index);
+
+        Object[] elements = c.toArray();
+        int count = elements.length;
+        if (count == 0) {
+            return false;
+        }
+
+        ensureCapacity(size + count);
+        System.arraycopy(data, index, data, index + count, size - index);
+        System.arraycopy(elements, 0, data, index, count);
+        size += count;
+        modCount++;
+        return true;
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
-        throw new UnsupportedOperationException();
+        Collection<?> elements = lookupCollection(c);
+        return removeIf(elements::contains);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
-        throw new UnsupportedOperationException();
+        Collection<?> elements = lookupCollection(c);
+        return removeIf((element) -> !elements.contains(element));
     }
 
     @Override
     public void clear() {
         data = new Object[DEFAULT_CAPACITY];
         size = 0;
+        modCount++;
     }
 
     @Override
@@ -134,10 +211,10 @@ public class CustomArrayList<T> implements List<T> {
         ensureCapacity();
         checkIfIndexIsAppropriateToAdd(index);
 
-        int arrayTailLength = data.length - index;
-        System.arraycopy(data, index, data, index + 1, arrayTailLength-1);
+        System.arraycopy(data, index, data, index + 1, size - index);
         data[index] = element;
         size++;
+        modCount++;
     }
 
     @Override
@@ -146,9 +223,9 @@ public class CustomArrayList<T> implements List<T> {
 
         T oldValue = (T) data[index];
 
-        int arrayTailLength = data.length - index;
-        System.arraycopy(data, index + 1, data, index, arrayTailLength-1);
-        size--;
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        data[--size] = null;
+        modCount++;
 
         return oldValue;
     }
@@ -171,12 +248,14 @@ public class CustomArrayList<T> implements List<T> {
 
     @Override
     public ListIterator<T> listIterator() {
-        throw new UnsupportedOperationException();
+        return new Itr(0);
     }
 
     @Override
     public ListIterator<T> listIterator(int index) {
-        throw new UnsupportedOperationException();
+        checkIfIndexIsAppropriateToAdd(index);
+
+        return new Itr(index);
     }
 
     @Override
@@ -184,6 +263,89 @@ public class CustomArrayList<T> implements List<T> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ArraySpliterator(0, -1, 0);
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+
+        int expectedModCount = modCount;
+        Object[] data = this.data;
+        int size = this.size;
+        for (int i = 0; i < size && modCount == expectedModCount; i++) {
+            action.accept((T) data[i]);
+        }
+        checkForComodification(expectedModCount);
+    }
+
+    /**
+     * Removes matching elements in a single pass: kept elements are moved to the head
+     * of the array and the tail is cleared. If the filter throws an exception, the elements
+     * removed before it stay removed and the rest are kept.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+
+        int expectedModCount = modCount;
+        int oldSize = size;
+        int i = 0;
+        int kept = 0;
+        boolean comodified;
+        try {
+            for (; i < size; i++) {
+                T element = (T) data[i];
+                if (!filter.test(element)) {
+                    data[kept++] = element;
+                }
+            }
+        } finally {
+            comodified = modCount != expectedModCount;
+            if (i < size) {
+                System.arraycopy(data, i, data, kept, size - i);
+                kept += size - i;
+            }
+            if (kept != size) {
+                Arrays.fill(data, kept, size, null);
+                size = kept;
+                modCount++;
+            }
+        }
+        if (comodified) {
+            throw new ConcurrentModificationException();
+        }
+        return size != oldSize;
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+
+        int expectedModCount = modCount;
+        for (int i = 0; i < size && modCount == expectedModCount; i++) {
+            data[i] = operator.apply((T) data[i]);
+        }
+        checkForComodification(expectedModCount);
+        modCount++;
+    }
+
+    @Override
+    public void sort(Comparator<? super T> c) {
+        int expectedModCount = modCount;
+        Arrays.sort((T[]) data, 0, size, c);
+        checkForComodification(expectedModCount);
+        modCount++;
+    }
+
+    private void checkForComodification(int expectedModCount) {
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
     private void checkIfIndexIsAppropriateToAdd(int index) {
         if (index < 0 || index > size) {
             throw new IndexOutOfBoundsException();
@@ -197,9 +359,185 @@ public class CustomArrayList<T> implements List<T> {
     }
 
     private void ensureCapacity() {
-        if (size == data.length) {
-            int newLength = data.length * 3 / 2 + 1;
+        ensureCapacity(size + 1);
+    }
+
+    /**
+     * Grows the array by <code>3/2</code> or right up to <code>minCapacity</code> if it is bigger.
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            int newLength = Math.max(data.length * 3 / 2 + 1, minCapacity);
             data = Arrays.copyOf(data, newLength);
         }
     }
+
+    /**
+     * Returns a <code>HashSet</code> copy of a big collection which lookups are slow,
+     * the collection itself otherwise.
+     */
+    private static Collection<?> lookupCollection(Collection<?> c) {
+        if (c instanceof Set || c.size() <= HASH_LOOKUP_THRESHOLD) {
+            return c;
+        }
+        return new HashSet<>(c);
+    }
+
+    private class Itr implements ListIterator<T> {
+
+        private int cursor;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        Itr(int index) {
+            cursor = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification(expectedModCount);
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor++;
+            return (T) data[lastReturned];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        public T previous() {
+            checkForComodification(expectedModCount);
+            if (cursor <= 0) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = --cursor;
+            return (T) data[lastReturned];
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification(expectedModCount);
+
+            CustomArrayList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(T t) {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification(expectedModCount);
+
+            data[lastReturned] = t;
+        }
+
+        @Override
+        public void add(T t) {
+            checkForComodification(expectedModCount);
+
+            CustomArrayList.this.add(cursor++, t);
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Spliterator over the range <code>[index, fence)</code> of the inner array. The fence is bound
+     * to the list size at the first traversal or split, so the spliterator can be created before
+     * the list is filled (as <code>stream()</code> does).
+     */
+    private class ArraySpliterator implements Spliterator<T> {
+
+        private int index;
+        private int fence;
+        private int expectedModCount;
+
+        ArraySpliterator(int index, int fence, int expectedModCount) {
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) {
+                return null;
+            }
+            index = mid;
+            return new ArraySpliterator(lo, mid, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+
+            int hi = getFence();
+            if (index >= hi) {
+                return false;
+            }
+            T element = (T) data[index++];
+            action.accept(element);
+            checkForComodification(expectedModCount);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+
+            int hi = getFence();
+            Object[] data = CustomArrayList.this.data;
+            for (int i = index; i < hi; i++) {
+                action.accept((T) data[i]);
+            }
+            index = hi;
+            checkForComodification(expectedModCount);
+        }
+
+        @Override
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
@@ -0,0 +1,802 @@
+package ru.epam.training;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * <i>B+ tree</i> implementation of the <code>Map</code> interface.
+ *
+ * Each node keeps up to <code>fanout</code> keys in an array. Inner nodes keep only keys which
+ * separate their children, all the entries are kept in the leaves and the leaves are linked
+ * in ascending order of the keys. So a lookup in a map of <code>n</code> entries reads
+ * <code>log(n)/log(fanout)</code> nodes and searches each of them by binary search in an array,
+ * and an ordered scan just walks the linked leaves.
+ *
+ * A full node is split in halves on <code>put</code>. <code>putAll</code> of a sorted map to the empty
+ * map fills the leaves in order and builds the inner levels bottom-up without splits. A node which is less than half full after
+ * <code>remove</code> borrows a key from its sibling or is merged with it.
+ *
+ * <code>CustomBTreeMap</code> is sorted according to the <code>compareTo</code> methods of the keys
+ * or by the <code>Comparator</code> provided to the constructor. Iterators walk the keys in order
+ * and are <i>fail-fast</i>.
+ *
+ * <code>CustomBTreeMap</code> support null values and doesn't support null keys.
+ *
+ * @param <K> type of keys maintained by map.
+ * @param <V> type of values maintained by map.
+ */
+public class CustomBTreeMap<K, V> implements Map<K, V> {
+
+    private static final int DEFAULT_FANOUT = 64;
+    private static final int MIN_FANOUT = 4;
+
+    private final int fanout;
+    private final int minCount;
+    private final Comparator<? super K> comparator;
+
+    private Node root;
+    private int size;
+    private int modCount;
+
+    private K splitKey;
+    private Node splitNode;
+    private V oldValue;
+
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
+
+    public CustomBTreeMap() {
+        this(DEFAULT_FANOUT);
+    }
+
+    /**
+     * @param fanout maximum number of keys in a leaf and of children of an inner node.
+     */
+    public CustomBTreeMap(int fanout) {
+        this(fanout, null);
+    }
+
+    /**
+     * @param fanout maximum number of keys in a leaf and of children of an inner node.
+     * @param comparator comparator of the keys, natural ordering is used if it is <code>null</code>.
+     */
+    public CustomBTreeMap(int fanout, Comparator<? super K> comparator) {
+        if (fanout < MIN_FANOUT) {
+            throw new IllegalArgumentException("fanout < " + MIN_FANOUT);
+        }
+        this.fanout = fanout;
+        this.minCount = fanout / 2;
+        this.comparator = comparator;
+        this.root = new Leaf(fanout);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Objects.requireNonNull(key);
+
+        Leaf leaf = findLeaf(key);
+        return indexOf(leaf, key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                if (Objects.equals(leaf.values[i], value)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        Objects.requireNonNull(key);
+
+        Leaf leaf = findLeaf(key);
+        int index = indexOf(leaf, key);
+        return index < 0 ? null : (V) leaf.values[index];
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+
+        oldValue = null;
+        if (insert(root, key, value)) {
+            Inner newRoot = new Inner(fanout);
+            newRoot.children[0] = root;
+            newRoot.children[1] = splitNode;
+            newRoot.keys[0] = splitKey;
+            newRoot.count = 2;
+            root = newRoot;
+            splitNode = null;
+            splitKey = null;
+        }
+
+        V result = oldValue;
+        oldValue = null;
+        return result;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Objects.requireNonNull(key);
+
+        oldValue = null;
+        if (!delete(root, key)) {
+            return null;
+        }
+
+        if (root instanceof Inner && root.count == 1) {
+            root = ((Inner) root).children[0];
+        }
+
+        V result = oldValue;
+        oldValue = null;
+        return result;
+    }
+
+    /**
+     * Entries of a sorted map of the same ordering are linked into the empty map bottom-up in
+     * linear time by {@link #buildFromSorted(Iterator, int)}, other maps are put entry by entry.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        if (size == 0 && !m.isEmpty() && isSortedLikeThis(m)) {
+            buildFromSorted(m.entrySet().iterator(), m.size());
+            return;
+        }
+
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        root = new Leaf(fanout);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) {
+            keySet = new AbstractSet<K>() {
+                @Override
+                public Iterator<K> iterator() {
+                    Iterator<Entry<K, V>> iterator = new EntryIterator();
+                    return new Iterator<K>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public K next() {
+                            return iterator.next().getKey();
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    int oldSize = size;
+                    CustomBTreeMap.this.remove(o);
+                    return size != oldSize;
+                }
+
+                @Override
+                public void clear() {
+                    CustomBTreeMap.this.clear();
+                }
+            };
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (values == null) {
+            values = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    Iterator<Entry<K, V>> iterator = new EntryIterator();
+                    return new Iterator<V>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public V next() {
+                            return iterator.next().getValue();
+                        }
+
+                        @Override
+                        public void remove() {
+                            iterator.remove();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsValue(o);
+                }
+
+                @Override
+                public void clear() {
+                    CustomBTreeMap.this.clear();
+                }
+            };
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public void clear() {
+                    CustomBTreeMap.this.clear();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    public K firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return (K) firstLeaf().keys[0];
+    }
+
+    public K lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[node.count - 1];
+        }
+        return (K) node.keys[node.count - 1];
+    }
+
+    /**
+     * Performs the action for each entry with the key in <code>[fromKey, toKey)</code>
+     * in ascending order of the keys. Only the first leaf of the range is searched from the root.
+     */
+    public void forEachInRange(K fromKey, K toKey, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(fromKey);
+        Objects.requireNonNull(toKey);
+        Objects.requireNonNull(action);
+
+        Leaf leaf = findLeaf(fromKey);
+        int index = ceilingIndex(leaf, fromKey);
+        for (; leaf != null; leaf = leaf.next, index = 0) {
+            for (; index < leaf.count; index++) {
+                K key = (K) leaf.keys[index];
+                if (compare(key, toKey) >= 0) {
+                    return;
+                }
+                action.accept(key, (V) leaf.values[index]);
+            }
+        }
+    }
+
+    private boolean isSortedLikeThis(Map<?, ?> m) {
+        if (m instanceof SortedMap) {
+            return Objects.equals(((SortedMap<?, ?>) m).comparator(), comparator);
+        }
+        return m instanceof CustomBTreeMap && Objects.equals(((CustomBTreeMap<?, ?>) m).comparator, comparator);
+    }
+
+    /**
+     * Fills the leaves with the ascending entries evenly, so every leaf is at least half full,
+     * then links the nodes of each level to the parents the same way up to the single root.
+     * The first key of every node is kept to be the separator in its parent.
+     */
+    private void buildFromSorted(Iterator<? extends Entry<? extends K, ? extends V>> entries, int count) {
+        int leafCount = (count + fanout - 1) / fanout;
+        Node[] level = new Node[leafCount];
+        Object[] firstKeys = new Object[leafCount];
+
+        Leaf previous = null;
+        for (int i = 0; i < leafCount; i++) {
+            Leaf leaf = new Leaf(fanout);
+            leaf.count = count / leafCount + (i < count % leafCount ? 1 : 0);
+            for (int j = 0; j < leaf.count; j++) {
+                Entry<? extends K, ? extends V> entry = entries.next();
+                leaf.keys[j] = Objects.requireNonNull(entry.getKey());
+                leaf.values[j] = entry.getValue();
+            }
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[i] = leaf;
+            firstKeys[i] = leaf.keys[0];
+        }
+
+        while (level.length > 1) {
+            int parentCount = (level.length + fanout - 1) / fanout;
+            Node[] parents = new Node[parentCount];
+            Object[] parentFirstKeys = new Object[parentCount];
+
+            int from = 0;
+            for (int i = 0; i < parentCount; i++) {
+                Inner inner = new Inner(fanout);
+                inner.count = level.length / parentCount + (i < level.length % parentCount ? 1 : 0);
+                System.arraycopy(level, from, inner.children, 0, inner.count);
+                System.arraycopy(firstKeys, from + 1, inner.keys, 0, inner.count - 1);
+                parents[i] = inner;
+                parentFirstKeys[i] = firstKeys[from];
+                from += inner.count;
+            }
+            level = parents;
+            firstKeys = parentFirstKeys;
+        }
+
+        root = level[0];
+        size = count;
+        modCount++;
+    }
+
+    private int compare(Object key1, Object key2) {
+        return comparator == null
+                ? ((Comparable<Object>) key1).compareTo(key2)
+                : comparator.compare((K) key1, (K) key2);
+    }
+
+    /**
+     * Binary search of the key.
+     *
+     * @return index of the key or <code>-(insertion point) - 1</code>.
+     */
+    private int search(Leaf leaf, Object key) {
+        int low = 0;
+        int high = leaf.count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(leaf.keys[mid], key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int indexOf(Leaf leaf, Object key) {
+        int index = search(leaf, key);
+        return index >= 0 ? index : -1;
+    }
+
+    private int ceilingIndex(Leaf leaf, Object key) {
+        int index = search(leaf, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return index of the child which subtree may contain the key.
+     */
+    private int childIndex(Inner inner, Object key) {
+        int low = 0;
+        int high = inner.count - 2;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(inner.keys[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private Leaf findLeaf(Object key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    private Leaf firstLeaf() {
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Puts the key to the subtree. If the node overflows it is split, the new right node
+     * and its first key are left in <code>splitNode</code> and <code>splitKey</code>.
+     *
+     * @return <code>true</code> if the node was split.
+     */
+    private boolean insert(Node node, K key, V value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = search(leaf, key);
+            if (index >= 0) {
+                oldValue = (V) leaf.values[index];
+                leaf.values[index] = value;
+                return false;
+            }
+            leaf.insert(-index - 1, key, value);
+            size++;
+            modCount++;
+            return leaf.count > fanout && splitLeaf(leaf);
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        if (!insert(inner.children[index], key, value)) {
+            return false;
+        }
+
+        inner.insertChild(index + 1, splitKey, splitNode);
+        splitNode = null;
+        splitKey = null;
+        return inner.count > fanout && splitInner(inner);
+    }
+
+    private boolean splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf(fanout);
+        int mid = leaf.count / 2;
+        int rightCount = leaf.count - mid;
+
+        System.arraycopy(leaf.keys, mid, right.keys, 0, rightCount);
+        System.arraycopy(leaf.values, mid, right.values, 0, rightCount);
+        Arrays.fill(leaf.keys, mid, leaf.count, null);
+        Arrays.fill(leaf.values, mid, leaf.count, null);
+        right.count = rightCount;
+        leaf.count = mid;
+
+        right.next = leaf.next;
+        leaf.next = right;
+
+        splitKey = (K) right.keys[0];
+        splitNode = right;
+        return true;
+    }
+
+    /**
+     * Inner node of <code>n</code> children is split in the middle, the separator between
+     * the halves goes up to the parent.
+     */
+    private boolean splitInner(Inner inner) {
+        Inner right = new Inner(fanout);
+        int mid = inner.count / 2;
+        int rightCount = inner.count - mid;
+
+        System.arraycopy(inner.children, mid, right.children, 0, rightCount);
+        System.arraycopy(inner.keys, mid, right.keys, 0, rightCount - 1);
+        splitKey = (K) inner.keys[mid - 1];
+        splitNode = right;
+
+        Arrays.fill(inner.children, mid, inner.count, null);
+        Arrays.fill(inner.keys, mid - 1, inner.count - 1, null);
+        right.count = rightCount;
+        inner.count = mid;
+        return true;
+    }
+
+    /**
+     * Removes the key from the subtree and fixes children which got less than half full.
+     *
+     * @return <code>true</code> if the key was found.
+     */
+    private boolean delete(Node node, Object key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int index = indexOf(leaf, key);
+            if (index < 0) {
+                return false;
+            }
+            oldValue = (V) leaf.values[index];
+            leaf.remove(index);
+            size--;
+            modCount++;
+            return true;
+        }
+
+        Inner inner = (Inner) node;
+        int index = childIndex(inner, key);
+        if (!delete(inner.children[index], key)) {
+            return false;
+        }
+        if (inner.children[index].count < minCount) {
+            fixUnderflow(inner, index);
+        }
+        return true;
+    }
+
+    private void fixUnderflow(Inner parent, int index) {
+        Node left = index > 0 ? parent.children[index - 1] : null;
+        Node right = index + 1 < parent.count ? parent.children[index + 1] : null;
+
+        if (left != null && left.count > minCount) {
+            borrowFromLeft(parent, index);
+        } else if (right != null && right.count > minCount) {
+            borrowFromRight(parent, index);
+        } else if (left != null) {
+            merge(parent, index - 1);
+        } else {
+            merge(parent, index);
+        }
+    }
+
+    private void borrowFromLeft(Inner parent, int index) {
+        Node node = parent.children[index];
+        Node left = parent.children[index - 1];
+
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            Leaf leftLeaf = (Leaf) left;
+            int last = leftLeaf.count - 1;
+            leaf.insert(0, leftLeaf.keys[last], leftLeaf.values[last]);
+            leftLeaf.remove(last);
+            parent.keys[index - 1] = leaf.keys[0];
+        } else {
+            Inner inner = (Inner) node;
+            Inner leftInner = (Inner) left;
+            System.arraycopy(inner.children, 0, inner.children, 1, inner.count);
+            System.arraycopy(inner.keys, 0, inner.keys, 1, inner.count - 1);
+            inner.children[0] = leftInner.children[leftInner.count - 1];
+            inner.keys[0] = parent.keys[index - 1];
+            inner.count++;
+
+            parent.keys[index - 1] = leftInner.keys[leftInner.count - 2];
+            leftInner.children[leftInner.count - 1] = null;
+            leftInner.keys[leftInner.count - 2] = null;
+            leftInner.count--;
+        }
+    }
+
+    private void borrowFromRight(Inner parent, int index) {
+        Node node = parent.children[index];
+        Node right = parent.children[index + 1];
+
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            Leaf rightLeaf = (Leaf) right;
+            leaf.insert(leaf.count, rightLeaf.keys[0], rightLeaf.values[0]);
+            rightLeaf.remove(0);
+            parent.keys[index] = rightLeaf.keys[0];
+        } else {
+            Inner inner = (Inner) node;
+            Inner rightInner = (Inner) right;
+            inner.keys[inner.count - 1] = parent.keys[index];
+            inner.children[inner.count] = rightInner.children[0];
+            inner.count++;
+
+            parent.keys[index] = rightInner.keys[0];
+            System.arraycopy(rightInner.children, 1, rightInner.children, 0, rightInner.count - 1);
+            System.arraycopy(rightInner.keys, 1, rightInner.keys, 0, rightInner.count - 2);
+            rightInner.children[rightInner.count - 1] = null;
+            rightInner.keys[rightInner.count - 2] = null;
+            rightInner.count--;
+        }
+    }
+
+    /**
+     * Merges the child <code>index + 1</code> into the child <code>index</code>
+     * and removes their separator from the parent.
+     */
+    private void merge(Inner parent, int index) {
+        Node left = parent.children[index];
+        Node right = parent.children[index + 1];
+
+        if (left instanceof Leaf) {
+            Leaf leftLeaf = (Leaf) left;
+            Leaf rightLeaf = (Leaf) right;
+            System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.count, rightLeaf.count);
+            System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.count, rightLeaf.count);
+            leftLeaf.count += rightLeaf.count;
+            leftLeaf.next = rightLeaf.next;
+        } else {
+            Inner leftInner = (Inner) left;
+            Inner rightInner = (Inner) right;
+            leftInner.keys[leftInner.count - 1] = parent.keys[index];
+            System.arraycopy(rightInner.keys, 0, leftInner.keys, leftInner.count, rightInner.count - 1);
+            System.arraycopy(rightInner.children, 0, leftInner.children, leftInner.count, rightInner.count);
+            leftInner.count += rightInner.count;
+        }
+
+        parent.removeChild(index + 1);
+    }
+
+    private abstract static class Node {
+        final Object[] keys;
+        int count;
+
+        Node(int keysLength) {
+            keys = new Object[keysLength];
+        }
+    }
+
+    /**
+     * Leaf keeps <code>count</code> entries. Arrays have one extra slot, so the entry can be inserted
+     * to a full leaf before it is split.
+     */
+    private static final class Leaf extends Node {
+        final Object[] values;
+        Leaf next;
+
+        Leaf(int fanout) {
+            super(fanout + 1);
+            values = new Object[fanout + 1];
+        }
+
+        void insert(int index, Object key, Object value) {
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(values, index, values, index + 1, count - index);
+            keys[index] = key;
+            values[index] = value;
+            count++;
+        }
+
+        void remove(int index) {
+            System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+            System.arraycopy(values, index + 1, values, index, count - index - 1);
+            count--;
+            keys[count] = null;
+            values[count] = null;
+        }
+    }
+
+    /**
+     * Inner node keeps <code>count</code> children and <code>count - 1</code> keys,
+     * <code>keys[i]</code> is the least key of the subtree <code>children[i + 1]</code>.
+     */
+    private static final class Inner extends Node {
+        final Node[] children;
+
+        Inner(int fanout) {
+            super(fanout);
+            children = new Node[fanout + 1];
+        }
+
+        void insertChild(int index, Object key, Node child) {
+            System.arraycopy(children, index, children, index + 1, count - index);
+            System.arraycopy(keys, index - 1, keys, index, count - index);
+            children[index] = child;
+            keys[index - 1] = key;
+            count++;
+        }
+
+        void removeChild(int index) {
+            System.arraycopy(children, index + 1, children, index, count - index - 1);
+            System.arraycopy(keys, index, keys, index - 1, count - index - 1);
+            count--;
+            children[count] = null;
+            keys[count - 1] = null;
+        }
+    }
+
+    /**
+     * Iterator walks the linked leaves. Entries write their values through to the map.
+     * After <code>remove</code> leaves may be merged, so the position is searched again from the root.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private Leaf leaf = firstLeaf();
+        private int index;
+        private K lastReturned;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            skipExhaustedLeaves();
+            return leaf != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = (K) leaf.keys[index];
+            V value = (V) leaf.values[index];
+            index++;
+            lastReturned = key;
+            return new WriteThroughEntry(key, value);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            CustomBTreeMap.this.remove(lastReturned);
+            leaf = findLeaf(lastReturned);
+            index = ceilingIndex(leaf, lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        private void skipExhaustedLeaves() {
+            while (leaf != null && index >= leaf.count) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+    }
+
+    private class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+
+        WriteThroughEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            put(getKey(), value);
+            return super.setValue(value);
+        }
+    }
+}
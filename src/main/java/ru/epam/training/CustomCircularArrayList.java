@@ -0,0 +1,498 @@
+package ru.epam.training;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * <i>Circular buffer</i> implementation of the <code>List</code> interface.
+ *
+ * Elements are kept in an array starting from the <code>head</code> slot and wrap around
+ * the end of the array. Capacity of the array is always a power of two, so the slot of
+ * element is <code>(head + index) &amp; (capacity - 1)</code>. Capacity doubles each time
+ * the array is full.
+ *
+ * The <code>add(int, T)</code>, <code>remove(int)</code> methods shift the shorter side of the
+ * list: the elements before the index move towards the head or the elements after it move towards
+ * the tail. So adding and removing at both ends run in constant time and at most half of the list
+ * moves for the middle of it. Elements are moved by <code>System.arraycopy</code> of the ranges which
+ * don't cross the end of the array, at most three calls per move. The <code>get</code>, <code>set</code>
+ * methods run in constant time.
+ *
+ * Bulk operations copy elements the same way: <code>toArray</code> and <code>addAll</code> copy
+ * the ranges before and after the end of the array, <code>addAll</code> grows the array at most once,
+ * <code>removeAll</code>, <code>retainAll</code> and <code>removeIf</code> compact the list in a single pass.
+ *
+ * <code>CustomCircularArrayList</code> supports <code>null</code> values.
+ *
+ * @param <T> type of values maintained by list.
+ */
+public class CustomCircularArrayList<T> implements List<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int HASH_LOOKUP_THRESHOLD = 16;
+
+    private Object[] data = new Object[DEFAULT_CAPACITY];
+    private int head = 0;
+    private int size = 0;
+    private int modCount = 0;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr(0);
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        copyOut(head, array, size);
+        return array;
+    }
+
+    @Override
+    public <T1> T1[] toArray(T1[] a) {
+        if (a.length < size) {
+            a = (T1[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        copyOut(head, a, size);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean add(T t) {
+        ensureCapacity();
+
+        data[slot(size)] = t;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Looks up the elements of a big collection in a <code>HashSet</code> of this list,
+     * so it runs in <code>size + c.size()</code> time instead of <code>size * c.size()</code>.
+     */
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        Collection<?> elements = c.size() > HASH_LOOKUP_THRESHOLD ? new HashSet<>(this) : this;
+        for (Object o : c) {
+            if (!elements.contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        return addAll(size, c);
+    }
+
+    /**
+     * Grows the array at most once, shifts the shorter side of the list by <code>count</code> slots
+     * and copies the elements of the collection, at most two <code>System.arraycopy</code> calls
+     * for each range because of the wrap point.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        checkIfIndexIsAppropriateToAdd(index);
+
+        Object[] elements = c.toArray();
+        int count = elements.length;
+        if (count == 0) {
+            return false;
+        }
+
+        ensureCapacity(size + count);
+        if (index < size - index) {
+            int oldHead = head;
+            head = (head - count) & (data.length - 1);
+            moveTowardsHead(oldHead, head, index);
+        } else {
+            moveTowardsTail(slot(index), slot(index + count), size - index);
+        }
+        copyIn(elements, slot(index), count);
+        size += count;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Collection<?> elements = lookupCollection(c);
+        return removeIf(elements::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Collection<?> elements = lookupCollection(c);
+        return removeIf((element) -> !elements.contains(element));
+    }
+
+    /**
+     * Removes matching elements in a single pass: kept elements are moved towards the head
+     * and the freed slots are cleared. If the filter throws an exception, the elements
+     * removed before it stay removed and the rest are kept.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+
+        int expectedModCount = modCount;
+        int oldSize = size;
+        int i = 0;
+        int kept = 0;
+        boolean comodified;
+        try {
+            for (; i < size; i++) {
+                Object element = data[slot(i)];
+                if (!filter.test((T) element)) {
+                    data[slot(kept++)] = element;
+                }
+            }
+        } finally {
+            comodified = modCount != expectedModCount;
+            if (i < size) {
+                moveTowardsHead(slot(i), slot(kept), size - i);
+                kept += size - i;
+            }
+            if (kept != size) {
+                clear(slot(kept), size - kept);
+                size = kept;
+                modCount++;
+            }
+        }
+        if (comodified) {
+            throw new ConcurrentModificationException();
+        }
+        return size != oldSize;
+    }
+
+    @Override
+    public void clear() {
+        data = new Object[DEFAULT_CAPACITY];
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public T get(int index) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        return (T) data[slot(index)];
+    }
+
+    @Override
+    public T set(int index, T element) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        int slot = slot(index);
+        T oldValue = (T) data[slot];
+        data[slot] = element;
+
+        return oldValue;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        checkIfIndexIsAppropriateToAdd(index);
+        ensureCapacity();
+
+        if (index < size - index) {
+            int oldHead = head;
+            head = (head - 1) & (data.length - 1);
+            moveTowardsHead(oldHead, head, index);
+        } else {
+            moveTowardsTail(slot(index), slot(index + 1), size - index);
+        }
+        data[slot(index)] = element;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        T oldValue = (T) data[slot(index)];
+        if (index < size - index - 1) {
+            moveTowardsTail(head, slot(1), index);
+            data[head] = null;
+            head = slot(1);
+        } else {
+            moveTowardsHead(slot(index + 1), slot(index), size - index - 1);
+            data[slot(size - 1)] = null;
+        }
+        size--;
+        modCount++;
+
+        return oldValue;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(data[slot(i)], o)) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.equals(data[slot(i)], o)) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public ListIterator<T> listIterator() {
+        return new Itr(0);
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        checkIfIndexIsAppropriateToAdd(index);
+
+        return new Itr(index);
+    }
+
+    @Override
+    public List<T> subList(int fromIndex, int toIndex) {
+        return new SubList<>(this, () -> modCount, fromIndex, toIndex);
+    }
+
+    private int slot(int index) {
+        return (head + index) & (data.length - 1);
+    }
+
+    private void ensureCapacity() {
+        ensureCapacity(size + 1);
+    }
+
+    /**
+     * Doubles the array until it holds <code>minCapacity</code> elements. Elements are unwrapped,
+     * so the head of the new array is the slot <code>0</code>.
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            int newLength = data.length;
+            while (newLength < minCapacity) {
+                newLength <<= 1;
+            }
+            Object[] newData = new Object[newLength];
+            copyOut(head, newData, size);
+            data = newData;
+            head = 0;
+        }
+    }
+
+    /**
+     * Moves <code>length</code> elements from the slot <code>from</code> back to the slot <code>to</code>
+     * by <code>System.arraycopy</code> of the ranges which don't cross the end of the array. The ranges
+     * are copied from the first one, so the overlapping elements are read before they are overwritten.
+     */
+    private void moveTowardsHead(int from, int to, int length) {
+        int mask = data.length - 1;
+        while (length > 0) {
+            int count = Math.min(length, data.length - Math.max(from, to));
+            System.arraycopy(data, from, data, to, count);
+            from = (from + count) & mask;
+            to = (to + count) & mask;
+            length -= count;
+        }
+    }
+
+    /**
+     * Moves <code>length</code> elements from the slot <code>from</code> forward to the slot <code>to</code>
+     * the same way as {@link #moveTowardsHead(int, int, int)}, but from the last range.
+     */
+    private void moveTowardsTail(int from, int to, int length) {
+        int mask = data.length - 1;
+        int fromEnd = (from + length) & mask;
+        int toEnd = (to + length) & mask;
+        while (length > 0) {
+            int fromLimit = fromEnd == 0 ? data.length : fromEnd;
+            int toLimit = toEnd == 0 ? data.length : toEnd;
+            int count = Math.min(length, Math.min(fromLimit, toLimit));
+            System.arraycopy(data, fromLimit - count, data, toLimit - count, count);
+            fromEnd = (fromLimit - count) & mask;
+            toEnd = (toLimit - count) & mask;
+            length -= count;
+        }
+    }
+
+    /**
+     * Copies <code>length</code> elements starting from the slot to the head of the array.
+     */
+    private void copyOut(int from, Object[] array, int length) {
+        int headLength = Math.min(length, data.length - from);
+        System.arraycopy(data, from, array, 0, headLength);
+        System.arraycopy(data, 0, array, headLength, length - headLength);
+    }
+
+    /**
+     * Copies <code>length</code> elements of the array starting from the slot.
+     */
+    private void copyIn(Object[] array, int to, int length) {
+        int headLength = Math.min(length, data.length - to);
+        System.arraycopy(array, 0, data, to, headLength);
+        System.arraycopy(array, headLength, data, 0, length - headLength);
+    }
+
+    private void clear(int from, int length) {
+        int headLength = Math.min(length, data.length - from);
+        Arrays.fill(data, from, from + headLength, null);
+        Arrays.fill(data, 0, length - headLength, null);
+    }
+
+    /**
+     * Returns a <code>HashSet</code> copy of a big collection which lookups are slow,
+     * the collection itself otherwise.
+     */
+    private static Collection<?> lookupCollection(Collection<?> c) {
+        if (c instanceof Set || c.size() <= HASH_LOOKUP_THRESHOLD) {
+            return c;
+        }
+        return new HashSet<>(c);
+    }
+
+    private void checkIfIndexIsAppropriateToAdd(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void checkIfIndexIsAppropriateToGet(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private class Itr implements ListIterator<T> {
+
+        private int cursor;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        Itr(int index) {
+            cursor = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification();
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor++;
+            return (T) data[slot(lastReturned)];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        public T previous() {
+            checkForComodification();
+            if (cursor <= 0) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = --cursor;
+            return (T) data[slot(lastReturned)];
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            CustomCircularArrayList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(T t) {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            data[slot(lastReturned)] = t;
+        }
+
+        @Override
+        public void add(T t) {
+            checkForComodification();
+
+            CustomCircularArrayList.this.add(cursor++, t);
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,540 @@
+package ru.epam.training;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe <i>hash table</i> implementation of the <code>ConcurrentMap</code> interface.
+ *
+ * Keys are split between a fixed number of <i>segments</i> (<code>concurrencyLevel</code>,
+ * <code>16</code> by default) by the upper bits of their hashcodes. Each segment is a small
+ * hash table with buckets of linked entries, like <code>CustomHashMap</code>, guarded by its own lock.
+ * So writers lock only one segment and writers of different segments don't wait for each other.
+ * Each segment resizes on its own when its <i>load factor</i> is getting bigger than <code>0.75</code>.
+ *
+ * Readers don't lock at all. Entries are never changed after they are put to the bucket, except of
+ * their values, which are <code>volatile</code>. <code>put</code> adds a new entry to the head of
+ * the bucket, <code>remove</code> and resize copy the entries which precede the changed ones instead
+ * of relinking them. So a reader always walks a consistent chain: either the old one or the new one.
+ *
+ * Size is kept in the <code>LongAdder</code>, so writers don't contend on the single counter.
+ * <code>size</code>, <code>containsValue</code> and iterators of the views don't lock segments and
+ * reflect some state of the map at or since their start.
+ *
+ * <code>CustomConcurrentHashMap</code> supports neither null keys nor null values, like
+ * <code>ConcurrentHashMap</code>. So <code>null</code> returned by <code>get</code> always means that
+ * there is no such key, and <code>putIfAbsent</code> can't be confused by a key mapped to null.
+ *
+ * @param <K> type of keys maintained by map.
+ * @param <V> type of values maintained by map.
+ */
+public class CustomConcurrentHashMap<K, V> implements ConcurrentMap<K, V> {
+
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private static final int MAX_CONCURRENCY_LEVEL = 1 << 16;
+    private static final int SEGMENT_DEFAULT_CAPACITY = 2;
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    private final Segment<K, V>[] segments;
+    private final int segmentShift;
+    private final int segmentMask;
+    private final LongAdder size = new LongAdder();
+
+    public CustomConcurrentHashMap() {
+        this(DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * @param concurrencyLevel expected number of concurrently writing threads. It is rounded
+     *                         up to a power of two.
+     */
+    public CustomConcurrentHashMap(int concurrencyLevel) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        int segmentsCount = 1;
+        int shift = 0;
+        while (segmentsCount < Math.min(concurrencyLevel, MAX_CONCURRENCY_LEVEL)) {
+            segmentsCount <<= 1;
+            shift++;
+        }
+
+        segments = new Segment[segmentsCount];
+        for (int i = 0; i < segmentsCount; i++) {
+            segments[i] = new Segment<>(size);
+        }
+        segmentShift = 32 - shift;
+        segmentMask = segmentsCount - 1;
+    }
+
+    @Override
+    public int size() {
+        long sum = size.sum();
+        return sum < 0 ? 0 : (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Objects.requireNonNull(key);
+
+        int hash = hash(key);
+        return segmentFor(hash).find(hash, key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Segment<K, V> segment : segments) {
+            AtomicReferenceArray<Node<K, V>> table = segment.table;
+            for (int i = 0; i < table.length(); i++) {
+                for (Node<K, V> node = table.get(i); node != null; node = node.next) {
+                    if (Objects.equals(node.value, value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        Objects.requireNonNull(key);
+
+        int hash = hash(key);
+        Node<K, V> node = segmentFor(hash).find(hash, key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        int hash = hash(key);
+        return segmentFor(hash).put(hash, key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        int hash = hash(key);
+        return segmentFor(hash).put(hash, key, value, true);
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<K, V> removed = removeNode(key);
+        return removed == null ? null : removed.value;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Objects.requireNonNull(key);
+
+        int hash = hash(key);
+        return segmentFor(hash).remove(hash, key, value, true) != null;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+
+        int hash = hash(key);
+        return segmentFor(hash).replace(hash, key, oldValue, newValue);
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+
+        int hash = hash(key);
+        return segmentFor(hash).replace(hash, key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+            @Override
+            public Iterator<K> iterator() {
+                return new NodeIterator<K>() {
+                    @Override
+                    K extract(Node<K, V> node) {
+                        return node.key;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CustomConcurrentHashMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return removeNode(o) != null;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new NodeIterator<V>() {
+                    @Override
+                    V extract(Node<K, V> node) {
+                        return node.value;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CustomConcurrentHashMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new NodeIterator<Entry<K, V>>() {
+                    @Override
+                    Entry<K, V> extract(Node<K, V> node) {
+                        return new WriteThroughEntry(node.key, node.value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return CustomConcurrentHashMap.this.size();
+            }
+        };
+    }
+
+    private Node<K, V> removeNode(Object key) {
+        Objects.requireNonNull(key);
+
+        int hash = hash(key);
+        return segmentFor(hash).remove(hash, key, null, false);
+    }
+
+    private Segment<K, V> segmentFor(int hash) {
+        return segments[(hash >>> segmentShift) & segmentMask];
+    }
+
+    /**
+     * Mixes all bits of the key hashcode. Upper bits choose the segment and lower
+     * bits choose the bucket, so both of them must depend on the whole hashcode.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Node<K, V> {
+
+        final int hash;
+        final K key;
+        final Node<K, V> next;
+        volatile V value;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    private static final class Segment<K, V> extends ReentrantLock {
+
+        private final LongAdder size;
+        private volatile AtomicReferenceArray<Node<K, V>> table =
+                new AtomicReferenceArray<>(SEGMENT_DEFAULT_CAPACITY);
+
+        /**
+         * Number of entries in the segment. It's read and written only under the lock.
+         */
+        private int count;
+        private int threshold = threshold(SEGMENT_DEFAULT_CAPACITY);
+
+        Segment(LongAdder size) {
+            this.size = size;
+        }
+
+        Node<K, V> find(int hash, Object key) {
+            AtomicReferenceArray<Node<K, V>> currentTable = table;
+
+            Node<K, V> node = currentTable.get(hash & (currentTable.length() - 1));
+            while (node != null) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    return node;
+                }
+                node = node.next;
+            }
+            return null;
+        }
+
+        V put(int hash, K key, V value, boolean onlyIfAbsent) {
+            lock();
+            try {
+                Node<K, V> existing = find(hash, key);
+                if (existing != null) {
+                    V oldValue = existing.value;
+                    if (!onlyIfAbsent) {
+                        existing.value = value;
+                    }
+                    return oldValue;
+                }
+
+                if (count + 1 > threshold) {
+                    rehash();
+                }
+
+                AtomicReferenceArray<Node<K, V>> currentTable = table;
+                int index = hash & (currentTable.length() - 1);
+                currentTable.set(index, new Node<>(hash, key, value, currentTable.get(index)));
+                count++;
+                size.increment();
+
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        Node<K, V> remove(int hash, Object key, Object expectedValue, boolean matchValue) {
+            lock();
+            try {
+                AtomicReferenceArray<Node<K, V>> currentTable = table;
+                int index = hash & (currentTable.length() - 1);
+                Node<K, V> first = currentTable.get(index);
+
+                Node<K, V> node = first;
+                while (node != null && !(node.hash == hash && node.key.equals(key))) {
+                    node = node.next;
+                }
+                if (node == null || (matchValue && !Objects.equals(node.value, expectedValue))) {
+                    return null;
+                }
+
+                Node<K, V> newFirst = node.next;
+                for (Node<K, V> p = first; p != node; p = p.next) {
+                    newFirst = new Node<>(p.hash, p.key, p.value, newFirst);
+                }
+                currentTable.set(index, newFirst);
+                count--;
+                size.decrement();
+
+                return node;
+            } finally {
+                unlock();
+            }
+        }
+
+        V replace(int hash, K key, V value) {
+            lock();
+            try {
+                Node<K, V> node = find(hash, key);
+                if (node == null) {
+                    return null;
+                }
+
+                V oldValue = node.value;
+                node.value = value;
+                return oldValue;
+            } finally {
+                unlock();
+            }
+        }
+
+        boolean replace(int hash, K key, V expectedValue, V newValue) {
+            lock();
+            try {
+                Node<K, V> node = find(hash, key);
+                if (node == null || !Objects.equals(node.value, expectedValue)) {
+                    return false;
+                }
+
+                node.value = newValue;
+                return true;
+            } finally {
+                unlock();
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                table = new AtomicReferenceArray<>(SEGMENT_DEFAULT_CAPACITY);
+                threshold = threshold(SEGMENT_DEFAULT_CAPACITY);
+                size.add(-count);
+                count = 0;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Doubles the table of the segment. Entries of the old bucket go to two buckets of the new
+         * table. The longest tail of the old chain which goes to the same new bucket is reused as is,
+         * the entries before it are copied. Old table is left untouched for concurrent readers.
+         */
+        private void rehash() {
+            AtomicReferenceArray<Node<K, V>> oldTable = table;
+            int oldCapacity = oldTable.length();
+            int newCapacity = oldCapacity << 1;
+            int mask = newCapacity - 1;
+
+            AtomicReferenceArray<Node<K, V>> newTable = new AtomicReferenceArray<>(newCapacity);
+
+            for (int i = 0; i < oldCapacity; i++) {
+                Node<K, V> first = oldTable.get(i);
+                if (first == null) {
+                    continue;
+                }
+
+                Node<K, V> lastRun = first;
+                int lastRunIndex = first.hash & mask;
+                for (Node<K, V> node = first.next; node != null; node = node.next) {
+                    int index = node.hash & mask;
+                    if (index != lastRunIndex) {
+                        lastRunIndex = index;
+                        lastRun = node;
+                    }
+                }
+                newTable.set(lastRunIndex, lastRun);
+
+                for (Node<K, V> node = first; node != lastRun; node = node.next) {
+                    int index = node.hash & mask;
+                    newTable.set(index, new Node<>(node.hash, node.key, node.value, newTable.get(index)));
+                }
+            }
+
+            table = newTable;
+            threshold = threshold(newCapacity);
+        }
+    }
+
+    private static int threshold(int capacity) {
+        return (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Weakly consistent iterator. It walks the segments and their tables as they are at the moment
+     * of visiting, never throws <code>ConcurrentModificationException</code> and may or may not
+     * reflect changes made after it was created.
+     */
+    private abstract class NodeIterator<E> implements Iterator<E> {
+
+        private int segmentIndex = 0;
+        private AtomicReferenceArray<Node<K, V>> currentTable;
+        private int bucketIndex = 0;
+        private Node<K, V> nextNode;
+        private Node<K, V> lastReturned;
+
+        NodeIterator() {
+            advance();
+        }
+
+        abstract E extract(Node<K, V> node);
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        public E next() {
+            if (nextNode == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = nextNode;
+            nextNode = nextNode.next;
+            if (nextNode == null) {
+                advance();
+            }
+            return extract(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            CustomConcurrentHashMap.this.remove(lastReturned.key);
+            lastReturned = null;
+        }
+
+        private void advance() {
+            while (true) {
+                if (currentTable != null) {
+                    while (bucketIndex < currentTable.length()) {
+                        nextNode = currentTable.get(bucketIndex++);
+                        if (nextNode != null) {
+                            return;
+                        }
+                    }
+                }
+                if (segmentIndex >= segments.length) {
+                    return;
+                }
+                currentTable = segments[segmentIndex++].table;
+                bucketIndex = 0;
+            }
+        }
+    }
+
+    private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+
+        WriteThroughEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            Objects.requireNonNull(value);
+            V oldValue = super.setValue(value);
+            put(getKey(), value);
+            return oldValue;
+        }
+    }
+}
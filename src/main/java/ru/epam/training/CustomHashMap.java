@@ -5,17 +5,35 @@ import java.util.*;
 /**
  * <i>Hash table</i> implementation of the <code>Map</code> interface.
  *
- * <code>CustomHashMap</code> has inner array of buckets. Each time the map <i>load factor</i>
- * (<code>size/capacity</code>) is getting bigger than <code>0.75</code> capacity multiplies
- * by <code>3/2</code> and array of buckets is getting replaced to the bigger array.
+ * <code>CustomHashMap</code> has inner array of buckets. Capacity of the array is always a power
+ * of two. Each time the map <i>load factor</i> (<code>size/capacity</code>) is getting bigger
+ * than <code>0.75</code> capacity doubles and array of buckets is getting replaced to the bigger array.
+ *
+ * Resize is incremental. The bigger array is allocated at once, but entries are moved to it
+ * by a few buckets on each <code>put</code> and <code>remove</code>, so no single operation pays
+ * for the whole rehash. Entries are moved as is, without copying. Until all buckets are moved
+ * lookups check the bucket in the old array if it isn't moved yet, and in the new one otherwise.
  *
  * The performance of the <code>CustomHashMap</code> based on the hashcode realisation
- * of the keys.
+ * of the keys. High bits of the hashcode are spread to the lower ones, so keys which hashcodes
+ * differ only in upper bits (small <code>Integer</code>s, strings with common prefixes) don't
+ * fall into the same bucket. Bucket index is taken by the bit mask, not by the division.
+ *
+ * Bucket is a linked list of entries while it is short. Once it grows to <code>8</code> entries
+ * it is converted to a <i>red-black tree</i> ordered by hashcodes and, for <code>Comparable</code>
+ * keys, by <code>compareTo</code>. The tree is converted back to the list when it shrinks to
+ * <code>6</code> entries. So even if a lot of keys have the same hashcode (e.g. an attacker chooses
+ * them) operations on <code>Comparable</code> keys run in <code>log(n)</code> time.
  *
  * The <code>get</code>, <code>put</code>, <code>containsKey</code> operations runs in
  * constant time (exclude the situation then <code>size/capacity >= MAX_LOAD_FACTOR</code>).
  * The <code>containsValue</code> method runs throw all the keys in the map.
  *
+ * <code>keySet</code>, <code>values</code> and <code>entrySet</code> are views backed by the map.
+ * Their iterators walk the buckets directly and support <code>remove</code>. They are <i>fail-fast</i>:
+ * if the map is structurally changed not through the iterator, the iterator throws
+ * <code>ConcurrentModificationException</code>.
+ *
  * <code>CustomHastMap</code> support null values and doesn't support null keys.
  *
  * @param <K> type of keys maintained by map.
@@ -25,10 +43,40 @@ public class CustomHashMap<K, V> implements Map<K, V> {
 
     private static final int DEFAULT_CAPACITY = 16;
     private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final int TRANSFER_STEP = 8;
+    private static final int TREEIFY_THRESHOLD = 8;
+    private static final int UNTREEIFY_THRESHOLD = 6;
 
-    private CustomEntry<K, V>[] buckets = new CustomEntry[DEFAULT_CAPACITY];
+    private CustomEntry<K, V>[] buckets;
     private int size = 0;
-    private int capacity = DEFAULT_CAPACITY;
+    private int capacity;
+    private int threshold;
+
+    private CustomEntry<K, V>[] oldBuckets;
+    private int transferIndex;
+
+    private int modCount = 0;
+
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
+
+    public CustomHashMap() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of entries the map holds without resize.
+     */
+    public CustomHashMap(int expectedSize) {
+        int initialCapacity = DEFAULT_CAPACITY;
+        while (initialCapacity < 1 << 30 && threshold(initialCapacity) < expectedSize) {
+            initialCapacity <<= 1;
+        }
+        buckets = new CustomEntry[initialCapacity];
+        capacity = initialCapacity;
+        threshold = threshold(initialCapacity);
+    }
 
     @Override
     public int size() {
@@ -44,52 +92,23 @@ public class CustomHashMap<K, V> implements Map<K, V> {
     public boolean containsKey(Object key) {
         Objects.requireNonNull(key);
 
-        int index = hash(key);
-
-        CustomEntry<K, V> currentEntry = buckets[index];
-        while (currentEntry != null) {
-            if (currentEntry.key.equals(key)) {
-                return true;
-            }
-            currentEntry = currentEntry.next;
-        }
-
-        return false;
+        return findEntry(key) != null;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        for (int i = 0; i < capacity; i++) {
-            CustomEntry<K, V> currentEntry = buckets[i];
-            while (currentEntry != null) {
-                if (currentEntry.value == null) {
-                    if (value == null) {
-                        return true;
-                    }
-                } else if (currentEntry.value.equals(value)) {
-                    return true;
-                }
-                currentEntry = currentEntry.next;
-            }
+        if (oldBuckets != null && containsValue(oldBuckets, transferIndex, value)) {
+            return true;
         }
-
-        return false;
+        return containsValue(buckets, 0, value);
     }
 
     @Override
     public V get(Object key) {
         Objects.requireNonNull(key);
 
-        int index = hash(key);
-
-        CustomEntry<K, V> currentEntry = buckets[index];
-        while (currentEntry != null) {
-            if (currentEntry.key.equals(key)) {
-                return currentEntry.value;
-            }
-            currentEntry = currentEntry.next;
-        }
-        return null;
+        CustomEntry<K, V> entry = findEntry(key);
+        return entry == null ? null : entry.value;
     }
 
     @Override
@@ -98,146 +117,881 @@ public class CustomHashMap<K, V> implements Map<K, V> {
 
         ensureCapacity();
 
-        int index = hash(key);
-        CustomEntry<K, V> bucket = buckets[index];
+        int hash = hash(key);
+        CustomEntry<K, V>[] table = tableFor(hash);
+        int index = indexFor(hash, table.length);
 
-        if (buckets[index] == null) {
-            buckets[index] = new CustomEntry<>(key, value);
+        CustomEntry<K, V> bucket = table[index];
+        if (bucket == null) {
+            table[index] = new CustomEntry<>(hash, key, value);
             size++;
-        } else {
-            while (bucket != null) {
-                if (bucket.key.equals(key)) {
-                    V returnedValue = bucket.value;
-                    bucket.value = value;
-                    return returnedValue;
-                }
-                if (bucket.next == null) {
-                    bucket.next = new CustomEntry<>(key, value);
-                    size++;
-                }
-                bucket = bucket.next;
-            }
+            modCount++;
+            return null;
         }
 
-        return null;
-    }
-
-    @Override
-    public V remove(Object key) {
-        int index = hash(key);
-
-        CustomEntry<K, V> currentEntry = buckets[index];
+        if (bucket instanceof TreeBin) {
+            TreeBin<K, V> bin = (TreeBin<K, V>) bucket;
 
-        if (currentEntry != null) {
-            if (currentEntry.key.equals(key)) {
-                size--;
+            TreeNode<K, V> node = bin.find(hash, key);
+            if (node != null) {
+                V returnedValue = node.value;
+                node.value = value;
+                return returnedValue;
+            }
 
-                V returnedValue = currentEntry.value;
-                buckets[index] = currentEntry.next;
+            bin.insert(new TreeNode<>(hash, key, value));
+            size++;
+            modCount++;
+            return null;
+        }
 
+        int bucketSize = 1;
+        while (true) {
+            if (bucket.hash == hash && bucket.key.equals(key)) {
+                V returnedValue = bucket.value;
+                bucket.value = value;
                 return returnedValue;
             }
-            while (currentEntry.next != null) {
-                if (currentEntry.next.key.equals(key)) {
-                    size--;
+            if (bucket.next == null) {
+                bucket.next = new CustomEntry<>(hash, key, value);
+                size++;
+                modCount++;
 
-                    V returnedValue = currentEntry.next.value;
-                    currentEntry.next = currentEntry.next.next;
-
-                    return returnedValue;
+                if (bucketSize + 1 >= TREEIFY_THRESHOLD) {
+                    table[index] = new TreeBin<>(table[index]);
                 }
-                currentEntry = currentEntry.next;
+                return null;
             }
+            bucket = bucket.next;
+            bucketSize++;
         }
-        return null;
     }
 
+    @Override
+    public V remove(Object key) {
+        int hash = hash(key);
+
+        if (oldBuckets != null) {
+            transferBuckets(TRANSFER_STEP);
+        }
+
+        CustomEntry<K, V> removed = removeEntry(hash, key, true);
+        return removed == null ? null : removed.value;
+    }
+
+    /**
+     * Grows the array of buckets at once to the capacity of the final size,
+     * so the entries are moved at most once instead of on every doubling.
+     */
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
-        throw new UnsupportedOperationException();
+        int expectedSize = size + m.size();
+        if (expectedSize > threshold) {
+            int newCapacity = capacity;
+            while (threshold(newCapacity) < expectedSize) {
+                newCapacity <<= 1;
+            }
+            resize(newCapacity);
+        }
+
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
     }
 
     @Override
     public void clear() {
+        modCount++;
         buckets = new CustomEntry[DEFAULT_CAPACITY];
         capacity = DEFAULT_CAPACITY;
+        threshold = threshold(DEFAULT_CAPACITY);
+        oldBuckets = null;
+        transferIndex = 0;
         size = 0;
     }
 
     @Override
     public Set<K> keySet() {
-        throw new UnsupportedOperationException();
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
     }
 
     @Override
     public Collection<V> values() {
-        throw new UnsupportedOperationException();
+        if (values == null) {
+            values = new Values();
+        }
+        return values;
     }
 
     @Override
     public Set<Entry<K, V>> entrySet() {
-        throw new UnsupportedOperationException();
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
     }
 
-    private void ensureCapacity() {
-        if ((double) size / capacity > MAX_LOAD_FACTOR) {
-            int newCapacity = capacity * 3 / 2 + 1;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> that = (Map<?, ?>) o;
+        if (that.size() != size) {
+            return false;
+        }
+        for (Entry<K, V> entry : entrySet()) {
+            K key = entry.getKey();
+            V value = entry.getValue();
+            if (value == null ? that.get(key) != null || !that.containsKey(key) : !value.equals(that.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (Entry<K, V> entry : entrySet()) {
+            hashCode += entry.hashCode();
+        }
+        return hashCode;
+    }
+
+    /**
+     * Removes the entry of the key from its bucket.
+     *
+     * @param untreeify whether a tree bucket may be turned back into a list. Iterators pass
+     *                  <code>false</code>, so the bucket they walk keeps its entries.
+     * @return removed entry or <code>null</code> if there is no such key.
+     */
+    private CustomEntry<K, V> removeEntry(int hash, Object key, boolean untreeify) {
+        CustomEntry<K, V>[] table = tableFor(hash);
+        int index = indexFor(hash, table.length);
+
+        CustomEntry<K, V> currentEntry = table[index];
+
+        if (currentEntry instanceof TreeBin) {
+            TreeBin<K, V> bin = (TreeBin<K, V>) currentEntry;
+
+            TreeNode<K, V> node = bin.find(hash, key);
+            if (node == null) {
+                return null;
+            }
+
+            bin.delete(node);
+            size--;
+            modCount++;
+
+            if (untreeify && bin.count <= UNTREEIFY_THRESHOLD) {
+                table[index] = bin.first;
+            }
+            return node;
+        }
+
+        if (currentEntry != null) {
+            if (currentEntry.hash == hash && currentEntry.key.equals(key)) {
+                size--;
+                modCount++;
+
+                table[index] = currentEntry.next;
 
-            CustomEntry[] newBuckets = new CustomEntry[newCapacity];
+                return currentEntry;
+            }
+            while (currentEntry.next != null) {
+                CustomEntry<K, V> next = currentEntry.next;
+                if (next.hash == hash && next.key.equals(key)) {
+                    size--;
+                    modCount++;
 
-            for (int i = 0; i < capacity; i++) {
-                CustomEntry<K, V> currentEntry = buckets[i];
-                while (currentEntry != null) {
-                    putEntryInBucketsArray(newBuckets, new CustomEntry<>(currentEntry));
-                    currentEntry = currentEntry.next;
+                    currentEntry.next = next.next;
+
+                    return next;
                 }
+                currentEntry = next;
             }
+        }
+        return null;
+    }
+
+    private boolean containsValue(CustomEntry<K, V>[] table, int fromIndex, Object value) {
+        for (int i = fromIndex; i < table.length; i++) {
+            CustomEntry<K, V> currentEntry = firstEntry(table[i]);
+            while (currentEntry != null) {
+                if (currentEntry.value == null) {
+                    if (value == null) {
+                        return true;
+                    }
+                } else if (currentEntry.value.equals(value)) {
+                    return true;
+                }
+                currentEntry = currentEntry.next;
+            }
+        }
+        return false;
+    }
+
+    private CustomEntry<K, V> findEntry(Object key) {
+        int hash = hash(key);
+        CustomEntry<K, V>[] table = tableFor(hash);
+
+        CustomEntry<K, V> currentEntry = table[indexFor(hash, table.length)];
+        if (currentEntry instanceof TreeBin) {
+            return ((TreeBin<K, V>) currentEntry).find(hash, key);
+        }
 
-            buckets = newBuckets;
+        while (currentEntry != null) {
+            if (currentEntry.hash == hash && currentEntry.key.equals(key)) {
+                return currentEntry;
+            }
+            currentEntry = currentEntry.next;
+        }
+        return null;
+    }
+
+    /**
+     * Whether the bucket of the key is converted to a tree. Used by tests.
+     */
+    boolean isTreeBucket(Object key) {
+        int hash = hash(key);
+        CustomEntry<K, V>[] table = tableFor(hash);
+
+        return table[indexFor(hash, table.length)] instanceof TreeBin;
+    }
+
+    /**
+     * Returns array which holds the bucket of the hash: the old one if resize is in progress
+     * and the bucket isn't moved yet, the current one otherwise.
+     */
+    private CustomEntry<K, V>[] tableFor(int hash) {
+        if (oldBuckets != null && indexFor(hash, oldBuckets.length) >= transferIndex) {
+            return oldBuckets;
+        }
+        return buckets;
+    }
+
+    private void ensureCapacity() {
+        if (oldBuckets != null) {
+            transferBuckets(TRANSFER_STEP);
+        }
+        if (size > threshold) {
+            if (oldBuckets != null) {
+                transferBuckets(oldBuckets.length);
+            }
+
+            int newCapacity = capacity << 1;
+
+            oldBuckets = buckets;
+            transferIndex = 0;
+            buckets = new CustomEntry[newCapacity];
             capacity = newCapacity;
+            threshold = threshold(newCapacity);
+        }
+    }
+
+    /**
+     * Moves all the entries to the new array of buckets at once. Long buckets become trees.
+     */
+    private void resize(int newCapacity) {
+        if (oldBuckets != null) {
+            transferBuckets(oldBuckets.length);
+        }
+
+        CustomEntry<K, V>[] newBuckets = new CustomEntry[newCapacity];
+        for (CustomEntry<K, V> bucket : buckets) {
+            CustomEntry<K, V> currentEntry = firstEntry(bucket);
+            while (currentEntry != null) {
+                CustomEntry<K, V> next = currentEntry.next;
+                int index = indexFor(currentEntry.hash, newCapacity);
+                currentEntry.next = newBuckets[index];
+                newBuckets[index] = currentEntry;
+                currentEntry = next;
+            }
+        }
+        for (int i = 0; i < newCapacity; i++) {
+            if (bucketSize(newBuckets[i]) >= TREEIFY_THRESHOLD) {
+                newBuckets[i] = new TreeBin<>(newBuckets[i]);
+            }
         }
+
+        buckets = newBuckets;
+        capacity = newCapacity;
+        threshold = threshold(newCapacity);
+        modCount++;
     }
 
-    private void putEntryInBucketsArray(CustomEntry[] bucketsToPutIn, CustomEntry<K, V> entry) {
-        int index = hash(entry.key, bucketsToPutIn.length);
+    /**
+     * Counts entries of the list bucket up to <code>TREEIFY_THRESHOLD</code>.
+     */
+    private static int bucketSize(CustomEntry<?, ?> bucket) {
+        int bucketSize = 0;
+        for (CustomEntry<?, ?> entry = bucket; entry != null && bucketSize < TREEIFY_THRESHOLD; entry = entry.next) {
+            bucketSize++;
+        }
+        return bucketSize;
+    }
 
-        CustomEntry<K, V> bucket = bucketsToPutIn[index];
-        if (bucket == null) {
-            bucketsToPutIn[index] = entry;
-        } else {
-            while (bucket.hasNext()) {
-                bucket = bucket.next;
+    /**
+     * Moves up to <code>count</code> buckets from the old array to the current one.
+     *
+     * As capacity doubles, entries of the old bucket <code>i</code> go either to the bucket
+     * <code>i</code> or to the bucket <code>i + oldCapacity</code> of the current array. Both
+     * of them are empty until the old bucket is moved, because entries of not yet moved buckets
+     * are put to the old array. Entries keep their relative order. A half of a tree bucket
+     * which is still long enough becomes a tree again, otherwise it stays a list.
+     */
+    private void transferBuckets(int count) {
+        int oldCapacity = oldBuckets.length;
+        int end = Math.min(transferIndex + count, oldCapacity);
+
+        modCount++;
+
+        for (int i = transferIndex; i < end; i++) {
+            CustomEntry<K, V> lowHead = null, lowTail = null;
+            CustomEntry<K, V> highHead = null, highTail = null;
+            int lowSize = 0, highSize = 0;
+
+            CustomEntry<K, V> currentEntry = firstEntry(oldBuckets[i]);
+            while (currentEntry != null) {
+                CustomEntry<K, V> next = currentEntry.next;
+                currentEntry.next = null;
+
+                if ((currentEntry.hash & oldCapacity) == 0) {
+                    if (lowTail == null) lowHead = currentEntry; else lowTail.next = currentEntry;
+                    lowTail = currentEntry;
+                    lowSize++;
+                } else {
+                    if (highTail == null) highHead = currentEntry; else highTail.next = currentEntry;
+                    highTail = currentEntry;
+                    highSize++;
+                }
+                currentEntry = next;
             }
-            bucket.next = entry;
+
+            buckets[i] = lowSize >= TREEIFY_THRESHOLD ? new TreeBin<>(lowHead) : lowHead;
+            buckets[i + oldCapacity] = highSize >= TREEIFY_THRESHOLD ? new TreeBin<>(highHead) : highHead;
+            oldBuckets[i] = null;
+        }
+
+        transferIndex = end;
+        if (transferIndex == oldCapacity) {
+            oldBuckets = null;
+            transferIndex = 0;
         }
     }
 
-    private int hash(Object key) {
-        return hash(key, capacity);
+    /**
+     * Returns the first entry of the bucket. Entries of a tree bucket are linked
+     * in the list as well, so all entries of any bucket can be walked by <code>next</code> links.
+     */
+    private static <K, V> CustomEntry<K, V> firstEntry(CustomEntry<K, V> bucket) {
+        return bucket instanceof TreeBin ? ((TreeBin<K, V>) bucket).first : bucket;
     }
 
-    private int hash(Object key, int capacity) {
-        return key.hashCode() % capacity;
+    /**
+     * Spreads higher bits of the key hashcode to the lower ones. Only lower bits
+     * are used by {@link #indexFor(int, int)}, so without spreading keys which hashcodes
+     * differ only in upper bits would always collide.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
     }
 
-    private class CustomEntry<K, V> {
+    /**
+     * Returns bucket index of the hash. <code>capacity</code> must be a power of two.
+     */
+    private static int indexFor(int hash, int capacity) {
+        return hash & (capacity - 1);
+    }
 
-        private final K key;
-        private V value;
-        private CustomEntry<K, V> next = null;
+    private static int threshold(int capacity) {
+        return (int) (capacity * MAX_LOAD_FACTOR);
+    }
 
-        CustomEntry(K key, V value) {
+    private static class CustomEntry<K, V> implements Entry<K, V> {
+
+        final int hash;
+        final K key;
+        V value;
+        CustomEntry<K, V> next = null;
+
+        CustomEntry(int hash, K key, V value) {
+            this.hash = hash;
             this.key = key;
             this.value = value;
         }
 
-        public CustomEntry(CustomEntry<K, V> currentEntry) {
-            this.key = currentEntry.key;
-            this.value = currentEntry.value;
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+
+            Entry<?, ?> that = (Entry<?, ?>) o;
+
+            return key.equals(that.getKey()) && Objects.equals(value, that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
         }
+    }
+
+    /**
+     * Iterator which walks not yet moved buckets of the old array and then all buckets of the current
+     * array. Entries of the bucket are walked by <code>next</code> links, so the iterator doesn't
+     * allocate anything except itself.
+     */
+    private abstract class HashIterator<E> implements Iterator<E> {
+
+        private final CustomEntry<K, V>[] oldTable = oldBuckets;
+        private final CustomEntry<K, V>[] table = buckets;
+        private int expectedModCount = modCount;
 
+        private boolean walkingOldTable = oldBuckets != null;
+        private int index = oldBuckets != null ? transferIndex : 0;
+        private CustomEntry<K, V> nextEntry;
+        private CustomEntry<K, V> lastReturned;
+
+        HashIterator() {
+            advance();
+        }
+
+        abstract E extract(CustomEntry<K, V> entry);
+
+        @Override
         public boolean hasNext() {
-            return this.next != null;
+            return nextEntry != null;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (nextEntry == null) {
+                throw new NoSuchElementException();
+            }
+
+            lastReturned = nextEntry;
+            nextEntry = nextEntry.next;
+            if (nextEntry == null) {
+                advance();
+            }
+            return extract(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            removeEntry(lastReturned.hash, lastReturned.key, false);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        private void advance() {
+            while (true) {
+                CustomEntry<K, V>[] currentTable = walkingOldTable ? oldTable : table;
+                while (index < currentTable.length) {
+                    nextEntry = firstEntry(currentTable[index++]);
+                    if (nextEntry != null) {
+                        return;
+                    }
+                }
+                if (!walkingOldTable) {
+                    return;
+                }
+                walkingOldTable = false;
+                index = 0;
+            }
+        }
+    }
+
+    private final class KeySet extends AbstractSet<K> {
+
+        @Override
+        public Iterator<K> iterator() {
+            return new HashIterator<K>() {
+                @Override
+                K extract(CustomEntry<K, V> entry) {
+                    return entry.key;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            Objects.requireNonNull(o);
+
+            return removeEntry(hash(o), o, true) != null;
+        }
+
+        @Override
+        public void clear() {
+            CustomHashMap.this.clear();
+        }
+    }
+
+    private final class Values extends AbstractCollection<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            return new HashIterator<V>() {
+                @Override
+                V extract(CustomEntry<K, V> entry) {
+                    return entry.value;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            CustomHashMap.this.clear();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new HashIterator<Entry<K, V>>() {
+                @Override
+                Entry<K, V> extract(CustomEntry<K, V> entry) {
+                    return entry;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry) || ((Entry<?, ?>) o).getKey() == null) {
+                return false;
+            }
+
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            CustomEntry<K, V> found = findEntry(entry.getKey());
+            return found != null && Objects.equals(found.value, entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+
+            Object key = ((Entry<?, ?>) o).getKey();
+            removeEntry(hash(key), key, true);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            CustomHashMap.this.clear();
+        }
+    }
+
+    private static final class TreeNode<K, V> extends CustomEntry<K, V> {
+        private static final boolean RED = true;
+        private static final boolean BLACK = false;
+
+        private TreeNode<K, V> left;
+        private TreeNode<K, V> right;
+        private TreeNode<K, V> prev;
+        private boolean color;
+        private long order;
+
+        TreeNode(int hash, K key, V value) {
+            super(hash, key, value);
+        }
+    }
+
+    /**
+     * Bucket which holds its entries in a <i>left-leaning red-black tree</i>, balanced the same way
+     * as <code>CustomTreeMap</code> is.
+     *
+     * Nodes are ordered by hash, then by class name of the keys, then by <code>compareTo</code> if
+     * keys are <code>Comparable</code> to each other, and at last by the order of insertion, so any two
+     * nodes are comparable. A key which is not <code>Comparable</code> can't be ordered against
+     * the nodes with the same hash, so lookup of it checks both subtrees of such nodes.
+     *
+     * Nodes are also linked in the list by <code>next</code> and <code>prev</code> links, so the bin
+     * can be walked and split on resize as a usual bucket, and turned back into it for free.
+     */
+    private static final class TreeBin<K, V> extends CustomEntry<K, V> {
+
+        private TreeNode<K, V> root;
+        private TreeNode<K, V> first;
+        private int count;
+        private long nextOrder;
+
+        TreeBin(CustomEntry<K, V> entries) {
+            super(0, null, null);
+
+            CustomEntry<K, V> currentEntry = entries;
+            while (currentEntry != null) {
+                CustomEntry<K, V> next = currentEntry.next;
+                insert(currentEntry instanceof TreeNode
+                        ? (TreeNode<K, V>) currentEntry
+                        : new TreeNode<>(currentEntry.hash, currentEntry.key, currentEntry.value));
+                currentEntry = next;
+            }
+        }
+
+        TreeNode<K, V> find(int hash, Object key) {
+            return find(root, hash, key);
+        }
+
+        void insert(TreeNode<K, V> node) {
+            node.order = nextOrder++;
+            node.left = null;
+            node.right = null;
+            node.color = TreeNode.RED;
+
+            node.prev = null;
+            node.next = first;
+            if (first != null) {
+                first.prev = node;
+            }
+            first = node;
+
+            root = insert(root, node);
+            root.color = TreeNode.BLACK;
+            count++;
+        }
+
+        void delete(TreeNode<K, V> node) {
+            if (!isRed(root.left) && !isRed(root.right)) {
+                root.color = TreeNode.RED;
+            }
+            root = delete(root, node);
+            if (root != null) {
+                root.color = TreeNode.BLACK;
+            }
+
+            TreeNode<K, V> next = (TreeNode<K, V>) node.next;
+            if (node.prev == null) {
+                first = next;
+            } else {
+                node.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = node.prev;
+            }
+            count--;
+        }
+
+        private TreeNode<K, V> find(TreeNode<K, V> node, int hash, Object key) {
+            while (node != null) {
+                int cmp = compareKeys(hash, key, node.hash, node.key);
+                if (cmp < 0) {
+                    node = node.left;
+                } else if (cmp > 0) {
+                    node = node.right;
+                } else if (node.key.equals(key)) {
+                    return node;
+                } else {
+                    TreeNode<K, V> found = find(node.left, hash, key);
+                    if (found != null) {
+                        return found;
+                    }
+                    node = node.right;
+                }
+            }
+            return null;
+        }
+
+        private TreeNode<K, V> insert(TreeNode<K, V> h, TreeNode<K, V> node) {
+            if (h == null) return node;
+
+            if (compareNodes(node, h) < 0) {
+                h.left = insert(h.left, node);
+            } else {
+                h.right = insert(h.right, node);
+            }
+
+            return balance(h);
+        }
+
+        private TreeNode<K, V> delete(TreeNode<K, V> h, TreeNode<K, V> node) {
+            if (compareNodes(node, h) < 0) {
+                if (!isRed(h.left) && !isRed(h.left.left)) h = moveRedLeft(h);
+                h.left = delete(h.left, node);
+            } else {
+                if (isRed(h.left)) h = rotateRight(h);
+                if (h == node && h.right == null) return null;
+                if (!isRed(h.right) && !isRed(h.right.left)) h = moveRedRight(h);
+                if (h == node) {
+                    TreeNode<K, V> min = min(h.right);
+                    min.right = deleteMin(h.right);
+                    min.left = h.left;
+                    min.color = h.color;
+                    h = min;
+                } else {
+                    h.right = delete(h.right, node);
+                }
+            }
+            return balance(h);
+        }
+
+        private TreeNode<K, V> deleteMin(TreeNode<K, V> h) {
+            if (h.left == null) return null;
+
+            if (!isRed(h.left) && !isRed(h.left.left)) h = moveRedLeft(h);
+            h.left = deleteMin(h.left);
+            return balance(h);
+        }
+
+        private TreeNode<K, V> min(TreeNode<K, V> h) {
+            while (h.left != null) {
+                h = h.left;
+            }
+            return h;
+        }
+
+        private TreeNode<K, V> moveRedLeft(TreeNode<K, V> h) {
+            flipColors(h);
+            if (isRed(h.right.left)) {
+                h.right = rotateRight(h.right);
+                h = rotateLeft(h);
+                flipColors(h);
+            }
+            return h;
+        }
+
+        private TreeNode<K, V> moveRedRight(TreeNode<K, V> h) {
+            flipColors(h);
+            if (isRed(h.left.left)) {
+                h = rotateRight(h);
+                flipColors(h);
+            }
+            return h;
+        }
+
+        private TreeNode<K, V> balance(TreeNode<K, V> h) {
+            if (isRed(h.right) && !isRed(h.left)) h = rotateLeft(h);
+            if (isRed(h.left) && isRed(h.left.left)) h = rotateRight(h);
+            if (isRed(h.left) && isRed(h.right)) flipColors(h);
+            return h;
+        }
+
+        private boolean isRed(TreeNode<K, V> node) {
+            return node != null && node.color == TreeNode.RED;
+        }
+
+        private TreeNode<K, V> rotateLeft(TreeNode<K, V> h) {
+            TreeNode<K, V> x = h.right;
+            h.right = x.left;
+            x.left = h;
+
+            x.color = h.color;
+            h.color = TreeNode.RED;
+            return x;
+        }
+
+        private TreeNode<K, V> rotateRight(TreeNode<K, V> h) {
+            TreeNode<K, V> x = h.left;
+            h.left = x.right;
+            x.right = h;
+
+            x.color = h.color;
+            h.color = TreeNode.RED;
+            return x;
+        }
+
+        private void flipColors(TreeNode<K, V> h) {
+            h.color = !h.color;
+            h.left.color = !h.left.color;
+            h.right.color = !h.right.color;
+        }
+
+        /**
+         * Compares the key being looked up with the key of a node. Returns <code>0</code>
+         * if the keys can't be ordered, so both subtrees of the node should be checked.
+         */
+        private static int compareKeys(int hash1, Object key1, int hash2, Object key2) {
+            if (hash1 != hash2) {
+                return hash1 < hash2 ? -1 : 1;
+            }
+            if (key1.getClass() == key2.getClass() && key1 instanceof Comparable) {
+                try {
+                    return ((Comparable<Object>) key1).compareTo(key2);
+                } catch (ClassCastException e) {
+                    return 0;
+                }
+            }
+            return 0;
+        }
+
+        private static int compareNodes(TreeNode<?, ?> node1, TreeNode<?, ?> node2) {
+            if (node1.hash != node2.hash) {
+                return node1.hash < node2.hash ? -1 : 1;
+            }
+
+            Class<?> class1 = node1.key.getClass();
+            Class<?> class2 = node2.key.getClass();
+            int cmp = class1 == class2
+                    ? compareKeys(node1.hash, node1.key, node2.hash, node2.key)
+                    : class1.getName().compareTo(class2.getName());
+
+            return cmp != 0 ? cmp : Long.compare(node1.order, node2.order);
         }
     }
 }
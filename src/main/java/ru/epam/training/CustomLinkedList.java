@@ -1,26 +1,49 @@
 package ru.epam.training;
 
+import java.lang.reflect.Array;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
 
 /**
- * <i>Singly linked list</i> implementation of the <code>List</code> interface.
+ * <i>Doubly linked list</i> implementation of the <code>List</code> and <code>Deque</code> interfaces.
  *
  * <code>head</code> element of the list is pseudo element. It has no value in it and doesn't
- * count in list size. It only has link to the first element of the <i>linked list</i>.
+ * count in list size. The list is closed in a ring through it: <code>head.next</code> is the first
+ * element and <code>head.prev</code> is the last one. So there is no special case for an empty list
+ * and both ends of the list are available in constant time.
  *
- * Due to the nature of the linked list most operation runs in linear time.
+ * The <code>add</code>, <code>addFirst</code>, <code>addLast</code>, <code>removeFirst</code>,
+ * <code>removeLast</code> methods run in constant time. Access by index walks from the nearest
+ * end of the list, so it runs in linear time. <code>addAll</code> links the chain of the new nodes
+ * to the list at once, <code>removeAll</code> and <code>retainAll</code> unlink nodes in a single pass.
  *
- * <code>CustomArrayList</code> supports <code>null</code> values.
+ * Iterators are <i>fail-fast</i>: structural modification of the list out of the iterator makes
+ * it throw <code>ConcurrentModificationException</code>.
+ *
+ * <code>CustomLinkedList</code> supports <code>null</code> values.
  *
  * @param <T> type of values maintained by list.
  */
-public class CustomLinkedList<T> implements List<T> {
+public class CustomLinkedList<T> implements List<T>, Deque<T> {
+
+    private static final int HASH_LOOKUP_THRESHOLD = 16;
 
-    private Node<T> head = new Node<>(null);
+    private final Node<T> head = new Node<>(null);
     private int size = 0;
+    private int modCount = 0;
+
+    public CustomLinkedList() {
+        head.next = head;
+        head.prev = head;
+    }
 
     @Override
     public int size() {
@@ -29,96 +52,94 @@ public class CustomLinkedList<T> implements List<T> {
 
     @Override
     public boolean isEmpty() {
-        return !head.hasNext();
+        return head.next == head;
     }
 
     @Override
     public boolean contains(Object o) {
-        Node<T> node = head;
-        while (node.hasNext()) {
-            node = node.next;
-            if (node.value == null) {
-                if (o == null) {
-                    return true;
-                }
-            } else if (node.value.equals(o)) {
-                return true;
-            }
-        }
-        return false;
+        return indexOf(o) >= 0;
     }
 
     @Override
     public Iterator<T> iterator() {
-        throw new UnsupportedOperationException();
+        return new Itr(0);
     }
 
     @Override
     public Object[] toArray() {
-        throw new UnsupportedOperationException();
+        Object[] result = new Object[size];
+        int i = 0;
+        for (Node<T> node = head.next; node != head; node = node.next) {
+            result[i++] = node.value;
+        }
+        return result;
     }
 
     @Override
     public <T1> T1[] toArray(T1[] a) {
-        throw new UnsupportedOperationException();
+        if (a.length < size) {
+            a = (T1[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        int i = 0;
+        for (Node<T> node = head.next; node != head; node = node.next) {
+            a[i++] = (T1) node.value;
+        }
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
     }
 
     @Override
     public boolean add(T t) {
-        Node<T> iterator = head;
-        while (iterator.hasNext()) {
-            iterator = iterator.next;
-        }
-        iterator.next = new Node<>(t);
-        size++;
-        return false;
+        linkBefore(t, head);
+        return true;
     }
 
     @Override
     public boolean remove(Object o) {
-        Node<T> current = head.next;
-        Node<T> prev = head;
-        while (current != null) {
-            if (o.equals(current.value)) {
-                prev.next = current.next;
-                size--;
-                return true;
-            }
-            prev = current;
-            current = current.next;
-        }
-        return false;
+        return removeFirstOccurrence(o);
     }
 
     @Override
     public boolean containsAll(Collection<?> c) {
-        throw new UnsupportedOperationException();
+        Collection<?> elements = c.size() > HASH_LOOKUP_THRESHOLD ? new HashSet<>(this) : this;
+        for (Object o : c) {
+            if (!elements.contains(o)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public boolean addAll(Collection<? extends T> c) {
-        throw new UnsupportedOperationException();
+        return linkAllBefore(c, head);
     }
 
     @Override
     public boolean addAll(int index, Collection<? extends T> c) {
-        throw new UnsupportedOperationException();
+        checkIfIndexIsAppropriateToAdd(index);
+
+        return linkAllBefore(c, index == size ? head : getNodeByIndex(index));
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
-        throw new UnsupportedOperationException();
+        return batchRemove(c, false);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
-        throw new UnsupportedOperationException();
+        return batchRemove(c, true);
     }
 
     @Override
     public void clear() {
-        head = new Node<>(null);
+        head.next = head;
+        head.prev = head;
         size = 0;
+        modCount++;
     }
 
     @Override
@@ -128,12 +149,10 @@ public class CustomLinkedList<T> implements List<T> {
 
     @Override
     public T set(int index, T element) {
-        checkIfIndexIsAppropriateToGet(index);
-
-        Node<T> NodeByIndex = getNodeByIndex(index);
+        Node<T> nodeByIndex = getNodeByIndex(index);
 
-        T oldValue = NodeByIndex.value;
-        NodeByIndex.value = element;
+        T oldValue = nodeByIndex.value;
+        nodeByIndex.value = element;
 
         return oldValue;
     }
@@ -142,39 +161,20 @@ public class CustomLinkedList<T> implements List<T> {
     public void add(int index, T element) {
         checkIfIndexIsAppropriateToAdd(index);
 
-        Node<T> currentNode = head;
-        if (index != 0) {
-            currentNode = getNodeByIndex(index-1);
-        }
-
-        if (currentNode.hasNext()) {
-            Node<T> newNode = new Node<>(element);
-            newNode.next = currentNode.next;
-            currentNode.next = newNode;
-        } else {
-            currentNode.next = new Node<>(element);
-        }
-
-        size++;
+        linkBefore(element, index == size ? head : getNodeByIndex(index));
     }
 
     @Override
     public T remove(int index) {
-        checkIfIndexIsAppropriateToGet(index);
-
-        Node<T> current = getNodeByIndex(index - 1);
-        size--;
-        T value = current.next.value;
-        current.next = current.next.next;
-        return value;
+        return unlink(getNodeByIndex(index));
     }
 
     @Override
     public int indexOf(Object o) {
         Node<T> currentNode;
         int i;
-        for (i = 0, currentNode = head.next; currentNode != null; i++, currentNode = currentNode.next) {
-            if (currentNode.value.equals(o)) return i;
+        for (i = 0, currentNode = head.next; currentNode != head; i++, currentNode = currentNode.next) {
+            if (Objects.equals(currentNode.value, o)) return i;
         }
         return -1;
     }
@@ -182,22 +182,23 @@ public class CustomLinkedList<T> implements List<T> {
     @Override
     public int lastIndexOf(Object o) {
         Node<T> currentNode;
-        int lastIndexOf = -1;
         int i;
-        for (i = 0, currentNode = head.next; currentNode != null; i++, currentNode = currentNode.next) {
-            if (currentNode.value.equals(o)) lastIndexOf = i;
+        for (i = size - 1, currentNode = head.prev; currentNode != head; i--, currentNode = currentNode.prev) {
+            if (Objects.equals(currentNode.value, o)) return i;
         }
-        return lastIndexOf;
+        return -1;
     }
 
     @Override
     public ListIterator<T> listIterator() {
-        throw new UnsupportedOperationException();
+        return new Itr(0);
     }
 
     @Override
     public ListIterator<T> listIterator(int index) {
-        throw new UnsupportedOperationException();
+        checkIfIndexIsAppropriateToAdd(index);
+
+        return new Itr(index);
     }
 
     @Override
@@ -205,16 +206,249 @@ public class CustomLinkedList<T> implements List<T> {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void addFirst(T t) {
+        linkBefore(t, head.next);
+    }
+
+    @Override
+    public void addLast(T t) {
+        linkBefore(t, head);
+    }
+
+    @Override
+    public boolean offerFirst(T t) {
+        addFirst(t);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(T t) {
+        addLast(t);
+        return true;
+    }
+
+    @Override
+    public T removeFirst() {
+        checkIfNotEmpty();
+
+        return unlink(head.next);
+    }
+
+    @Override
+    public T removeLast() {
+        checkIfNotEmpty();
+
+        return unlink(head.prev);
+    }
+
+    @Override
+    public T pollFirst() {
+        return isEmpty() ? null : unlink(head.next);
+    }
+
+    @Override
+    public T pollLast() {
+        return isEmpty() ? null : unlink(head.prev);
+    }
+
+    @Override
+    public T getFirst() {
+        checkIfNotEmpty();
+
+        return head.next.value;
+    }
+
+    @Override
+    public T getLast() {
+        checkIfNotEmpty();
+
+        return head.prev.value;
+    }
+
+    @Override
+    public T peekFirst() {
+        return head.next.value;
+    }
+
+    @Override
+    public T peekLast() {
+        return head.prev.value;
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        for (Node<T> node = head.next; node != head; node = node.next) {
+            if (Objects.equals(node.value, o)) {
+                unlink(node);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        for (Node<T> node = head.prev; node != head; node = node.prev) {
+            if (Objects.equals(node.value, o)) {
+                unlink(node);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean offer(T t) {
+        return offerLast(t);
+    }
+
+    @Override
+    public T remove() {
+        return removeFirst();
+    }
+
+    @Override
+    public T poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public T element() {
+        return getFirst();
+    }
+
+    @Override
+    public T peek() {
+        return peekFirst();
+    }
+
+    @Override
+    public void push(T t) {
+        addFirst(t);
+    }
+
+    @Override
+    public T pop() {
+        return removeFirst();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new Iterator<T>() {
+
+            private final Itr itr = new Itr(size);
+
+            @Override
+            public boolean hasNext() {
+                return itr.hasPrevious();
+            }
+
+            @Override
+            public T next() {
+                return itr.previous();
+            }
+
+            @Override
+            public void remove() {
+                itr.remove();
+            }
+        };
+    }
+
+    private void linkBefore(T value, Node<T> successor) {
+        Node<T> newNode = new Node<>(value);
+        newNode.prev = successor.prev;
+        newNode.next = successor;
+        successor.prev.next = newNode;
+        successor.prev = newNode;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Links a chain of new nodes with the values of the collection before the successor,
+     * the chain is attached to the list at once.
+     */
+    private boolean linkAllBefore(Collection<? extends T> c, Node<T> successor) {
+        Object[] values = c.toArray();
+        if (values.length == 0) {
+            return false;
+        }
+
+        Node<T> predecessor = successor.prev;
+        Node<T> last = predecessor;
+        for (Object value : values) {
+            Node<T> newNode = new Node<>((T) value);
+            newNode.prev = last;
+            last.next = newNode;
+            last = newNode;
+        }
+        last.next = successor;
+        successor.prev = last;
+
+        size += values.length;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Unlinks in a single pass the nodes which values are in the collection, or aren't in it if
+     * <code>retain</code> is <code>true</code>. Big collections are looked up in a <code>HashSet</code> copy.
+     */
+    private boolean batchRemove(Collection<?> c, boolean retain) {
+        Collection<?> elements = c instanceof Set || c.size() <= HASH_LOOKUP_THRESHOLD ? c : new HashSet<>(c);
+
+        int oldSize = size;
+        Node<T> node = head.next;
+        while (node != head) {
+            Node<T> next = node.next;
+            if (elements.contains(node.value) != retain) {
+                unlink(node);
+            }
+            node = next;
+        }
+        return size != oldSize;
+    }
+
+    private T unlink(Node<T> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.next = null;
+        node.prev = null;
+        size--;
+        modCount++;
+        return node.value;
+    }
+
+    /**
+     * Walks to the node from the head if it is in the first half of the list
+     * and from the tail otherwise.
+     */
     private Node<T> getNodeByIndex(int index) {
         checkIfIndexIsAppropriateToGet(index);
 
-        Node<T> current = head.next;
-        for (int i = 0; i < index; i++) {
-            current = current.next;
+        Node<T> current;
+        if (index < (size >> 1)) {
+            current = head.next;
+            for (int i = 0; i < index; i++) {
+                current = current.next;
+            }
+        } else {
+            current = head.prev;
+            for (int i = size - 1; i > index; i--) {
+                current = current.prev;
+            }
         }
         return current;
     }
 
+    private void checkIfNotEmpty() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+    }
+
     private void checkIfIndexIsAppropriateToGet(int index) {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException();
@@ -227,18 +461,114 @@ public class CustomLinkedList<T> implements List<T> {
         }
     }
 
-    private class Node<T> {
+    private class Itr implements ListIterator<T> {
 
         private Node<T> next;
-        private T value;
+        private Node<T> lastReturned;
+        private int nextIndex;
+        private int expectedModCount = modCount;
 
-        public Node(T value) {
-            this.value = value;
+        Itr(int index) {
+            next = index == size ? head : getNodeByIndex(index);
+            nextIndex = index;
         }
 
+        @Override
         public boolean hasNext() {
-            return next != null;
+            return nextIndex < size;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = next.next;
+            nextIndex++;
+            return lastReturned.value;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        public T previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            next = next.prev;
+            lastReturned = next;
+            nextIndex--;
+            return lastReturned.value;
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            if (lastReturned == next) {
+                next = next.next;
+            } else {
+                nextIndex--;
+            }
+            unlink(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(T t) {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            lastReturned.value = t;
+        }
+
+        @Override
+        public void add(T t) {
+            checkForComodification();
+
+            linkBefore(t, next);
+            nextIndex++;
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
         }
+    }
+
+    private static class Node<T> {
 
+        private Node<T> next;
+        private Node<T> prev;
+        private T value;
+
+        public Node(T value) {
+            this.value = value;
+        }
     }
 }
@@ -0,0 +1,553 @@
+package ru.epam.training;
+
+import java.util.*;
+
+/**
+ * <i>Red-black tree</i> sorted map with primitive <code>long</code> keys.
+ *
+ * The same <i>left-leaning red-black tree</i> as <code>CustomTreeMap</code>, but the key is kept
+ * in the node as <code>long</code>. So keys are neither boxed nor compared through
+ * <code>compareTo</code> calls, a lookup compares two primitives on every level of the tree.
+ *
+ * The <code>get</code>, <code>put</code>, <code>remove</code>, <code>floorKey</code>, <code>ceilingKey</code>
+ * methods run in <code>log(n)</code> time. {@link #forEachInRange(long, long, LongObjectConsumer)} visits
+ * <code>k</code> entries of a range in <code>log(n) + k</code> time.
+ *
+ * Navigation methods return <code>long</code>, so they throw <code>NoSuchElementException</code>
+ * if there is no such key.
+ *
+ * The map itself isn't a <code>Map</code>. {@link #asMap()} returns <code>Map&lt;Long, V&gt;</code>
+ * view of it, which boxes keys on every call.
+ *
+ * <code>CustomLongTreeMap</code> supports null values.
+ *
+ * @param <V> type of values maintained by map.
+ */
+public class CustomLongTreeMap<V> {
+
+    private static final int INITIAL_PATH_LENGTH = 64;
+
+    private Node<V> root;
+    private int size;
+    private int modCount;
+    private Node<V>[] path = new Node[INITIAL_PATH_LENGTH];
+
+    private Map<Long, V> mapView;
+
+    /**
+     * Action performed on an entry of the map.
+     *
+     * @param <V> type of values.
+     */
+    public interface LongObjectConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return getNode(key) != null;
+    }
+
+    public boolean containsValue(Object value) {
+        for (Iterator<Node<V>> iterator = new NodeIterator(); iterator.hasNext(); ) {
+            if (Objects.equals(iterator.next().value, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public V get(long key) {
+        Node<V> node = getNode(key);
+
+        return node == null ? null : node.value;
+    }
+
+    public V put(long key, V value) {
+        if (root == null) {
+            root = new Node<>(key, value, Node.BLACK);
+            size++;
+            modCount++;
+            return null;
+        }
+
+        int depth = 0;
+        Node<V> node = root;
+        do {
+            if (key == node.key) {
+                V oldValue = node.value;
+                node.value = value;
+                return oldValue;
+            }
+            pushToPath(depth++, node);
+            node = key < node.key ? node.left : node.right;
+        } while (node != null);
+
+        Node<V> parent = path[depth - 1];
+        if (key < parent.key) {
+            parent.left = new Node<>(key, value, Node.RED);
+        } else {
+            parent.right = new Node<>(key, value, Node.RED);
+        }
+        size++;
+        modCount++;
+
+        balancePath(depth);
+        return null;
+    }
+
+    /**
+     * The same deletion as in <code>CustomTreeMap</code>: red links are moved down the path,
+     * the removed node with two children is replaced by the minimum of its right subtree,
+     * then the path is rebalanced bottom up.
+     *
+     * The key is looked up first, so the tree isn't changed if there is no such key. The deletion
+     * descent compares the key only while the target isn't reached and checks the identity of
+     * the target after that, so it costs a primitive comparison per level, like the lookup.
+     */
+    public V remove(long key) {
+        Node<V> target = getNode(key);
+        if (target == null) {
+            return null;
+        }
+
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.color = Node.RED;
+        }
+
+        int depth = 0;
+        Node<V> node = root;
+        while (true) {
+            boolean found = node == target;
+            if (!found && key < node.key) {
+                if (!isRed(node.left) && !isRed(node.left.left)) {
+                    node = relink(depth, node, moveRedLeft(node));
+                }
+                pushToPath(depth++, node);
+                node = node.left;
+                continue;
+            }
+
+            if (isRed(node.left)) {
+                node = relink(depth, node, rotateRight(node));
+                found = false;
+            }
+            if (found && node.right == null) {
+                relink(depth, node, null);
+                break;
+            }
+            if (!isRed(node.right) && !isRed(node.right.left)) {
+                Node<V> moved = moveRedRight(node);
+                if (moved != node) {
+                    node = relink(depth, node, moved);
+                    found = false;
+                }
+            }
+            if (found) {
+                int targetDepth = depth;
+                pushToPath(depth++, node);
+                Node<V> min = node.right;
+                while (min.left != null) {
+                    if (!isRed(min.left) && !isRed(min.left.left)) {
+                        min = relink(depth, min, moveRedLeft(min));
+                    }
+                    pushToPath(depth++, min);
+                    min = min.left;
+                }
+                relink(depth, min, null);
+
+                min.left = target.left;
+                min.right = target.right;
+                min.color = target.color;
+                path[targetDepth] = min;
+                relink(targetDepth, target, min);
+                break;
+            }
+            pushToPath(depth++, node);
+            node = node.right;
+        }
+
+        balancePath(depth);
+        size--;
+        modCount++;
+
+        target.left = null;
+        target.right = null;
+        return target.value;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+        modCount++;
+    }
+
+    public long firstKey() {
+        Node<V> node = root;
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.key;
+    }
+
+    public long lastKey() {
+        Node<V> node = root;
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.key;
+    }
+
+    /**
+     * @return the greatest key less than or equal to the key.
+     * @throws NoSuchElementException if there is no such key.
+     */
+    public long floorKey(long key) {
+        return keyOf(floorNode(key, true));
+    }
+
+    /**
+     * @return the greatest key strictly less than the key.
+     * @throws NoSuchElementException if there is no such key.
+     */
+    public long lowerKey(long key) {
+        return keyOf(floorNode(key, false));
+    }
+
+    /**
+     * @return the least key greater than or equal to the key.
+     * @throws NoSuchElementException if there is no such key.
+     */
+    public long ceilingKey(long key) {
+        return keyOf(ceilingNode(key, true));
+    }
+
+    /**
+     * @return the least key strictly greater than the key.
+     * @throws NoSuchElementException if there is no such key.
+     */
+    public long higherKey(long key) {
+        return keyOf(ceilingNode(key, false));
+    }
+
+    /**
+     * Performs the action for each entry in ascending order of the keys.
+     */
+    public void forEach(LongObjectConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+
+        for (NodeIterator iterator = new NodeIterator(); iterator.hasNext(); ) {
+            Node<V> node = iterator.next();
+            action.accept(node.key, node.value);
+        }
+    }
+
+    /**
+     * Performs the action for each entry with the key in <code>[fromKey, toKey)</code>
+     * in ascending order of the keys.
+     */
+    public void forEachInRange(long fromKey, long toKey, LongObjectConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+
+        for (NodeIterator iterator = new NodeIterator(fromKey); iterator.hasNext(); ) {
+            Node<V> node = iterator.next();
+            if (node.key >= toKey) {
+                break;
+            }
+            action.accept(node.key, node.value);
+        }
+    }
+
+    /**
+     * Returns <code>Map</code> view of this map. Changes of the view are reflected
+     * in the map and vice-versa. Entries are iterated in ascending order of the keys.
+     */
+    public Map<Long, V> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    private Node<V> getNode(long key) {
+        Node<V> node = root;
+        while (node != null) {
+            if (key == node.key) {
+                return node;
+            }
+            node = key < node.key ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private Node<V> ceilingNode(long key, boolean inclusive) {
+        Node<V> result = null;
+        Node<V> node = root;
+        while (node != null) {
+            if (node.key > key || (inclusive && node.key == key)) {
+                result = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    private Node<V> floorNode(long key, boolean inclusive) {
+        Node<V> result = null;
+        Node<V> node = root;
+        while (node != null) {
+            if (node.key < key || (inclusive && node.key == key)) {
+                result = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return result;
+    }
+
+    private static long keyOf(Node<?> node) {
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.key;
+    }
+
+    private void pushToPath(int depth, Node<V> node) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth << 1);
+        }
+        path[depth] = node;
+    }
+
+    private void balancePath(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            relink(i, path[i], balance(path[i]));
+            path[i] = null;
+        }
+        if (root != null) {
+            root.color = Node.BLACK;
+        }
+    }
+
+    private Node<V> relink(int depth, Node<V> oldChild, Node<V> newChild) {
+        if (depth == 0) {
+            root = newChild;
+        } else if (path[depth - 1].left == oldChild) {
+            path[depth - 1].left = newChild;
+        } else {
+            path[depth - 1].right = newChild;
+        }
+        return newChild;
+    }
+
+    private static <V> Node<V> balance(Node<V> node) {
+        if (isRed(node.right) && !isRed(node.left)) node = rotateLeft(node);
+        if (isRed(node.left) && isRed(node.left.left)) node = rotateRight(node);
+        if (isRed(node.left) && isRed(node.right)) flipColors(node);
+
+        return node;
+    }
+
+    private static boolean isRed(Node<?> node) {
+        return node != null && node.color == Node.RED;
+    }
+
+    private static <V> Node<V> rotateLeft(Node<V> h) {
+        Node<V> x = h.right;
+        h.right = x.left;
+        x.left = h;
+
+        x.color = h.color;
+        h.color = Node.RED;
+        return x;
+    }
+
+    private static <V> Node<V> rotateRight(Node<V> h) {
+        Node<V> x = h.left;
+        h.left = x.right;
+        x.right = h;
+
+        x.color = h.color;
+        h.color = Node.RED;
+        return x;
+    }
+
+    private static void flipColors(Node<?> h) {
+        h.color = !h.color;
+        h.left.color = !h.left.color;
+        h.right.color = !h.right.color;
+    }
+
+    private static <V> Node<V> moveRedLeft(Node<V> h) {
+        flipColors(h);
+        if (isRed(h.right.left)) {
+            h.right = rotateRight(h.right);
+            h = rotateLeft(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    private static <V> Node<V> moveRedRight(Node<V> h) {
+        flipColors(h);
+        if (isRed(h.left.left)) {
+            h = rotateRight(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    private static class Node<V> {
+        private static final boolean RED = true;
+        private static final boolean BLACK = false;
+
+        private final long key;
+        private V value;
+        private Node<V> left;
+        private Node<V> right;
+        private boolean color;
+
+        public Node(long key, V value, boolean color) {
+            this.key = key;
+            this.value = value;
+            this.color = color;
+        }
+    }
+
+    /**
+     * In-order iterator keeping the pending part of the path from the root in a stack.
+     */
+    private class NodeIterator implements Iterator<Node<V>> {
+
+        private final ArrayDeque<Node<V>> stack = new ArrayDeque<>();
+        private final int expectedModCount = modCount;
+
+        NodeIterator() {
+            pushLeftPath(root);
+        }
+
+        NodeIterator(long fromKey) {
+            Node<V> node = root;
+            while (node != null) {
+                if (node.key >= fromKey) {
+                    stack.push(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public Node<V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (stack.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<V> node = stack.pop();
+            pushLeftPath(node.right);
+            return node;
+        }
+
+        private void pushLeftPath(Node<V> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+        }
+    }
+
+    private class MapView extends AbstractMap<Long, V> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Objects.requireNonNull(key);
+
+            return key instanceof Long && CustomLongTreeMap.this.containsKey((Long) key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return CustomLongTreeMap.this.containsValue(value);
+        }
+
+        @Override
+        public V get(Object key) {
+            Objects.requireNonNull(key);
+
+            return key instanceof Long ? CustomLongTreeMap.this.get((Long) key) : null;
+        }
+
+        @Override
+        public V put(Long key, V value) {
+            return CustomLongTreeMap.this.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            Objects.requireNonNull(key);
+
+            return key instanceof Long ? CustomLongTreeMap.this.remove((Long) key) : null;
+        }
+
+        @Override
+        public void clear() {
+            CustomLongTreeMap.this.clear();
+        }
+
+        @Override
+        public Set<Entry<Long, V>> entrySet() {
+            return new AbstractSet<Entry<Long, V>>() {
+                @Override
+                public Iterator<Entry<Long, V>> iterator() {
+                    NodeIterator iterator = new NodeIterator();
+                    return new Iterator<Entry<Long, V>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Long, V> next() {
+                            Node<V> node = iterator.next();
+                            return new SimpleImmutableEntry<>(node.key, node.value);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
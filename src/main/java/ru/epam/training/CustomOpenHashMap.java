@@ -0,0 +1,502 @@
+package ru.epam.training;
+
+import java.util.*;
+
+/**
+ * <i>Open addressing hash table</i> implementation of the <code>Map</code> interface.
+ *
+ * Unlike <code>CustomHashMap</code> there are no entry objects. Keys and values are stored
+ * in two parallel arrays and a collision is resolved by <i>linear probing</i>: if the slot
+ * of the key is taken, the next slots are checked one by one until an empty one is found.
+ * So a lookup reads adjacent array cells instead of following links between entries.
+ *
+ * Capacity of the arrays is always a power of two. Each time the map <i>load factor</i>
+ * (<code>size/capacity</code>) is getting bigger than <code>0.5</code> capacity doubles
+ * and all keys are placed to the bigger arrays again.
+ *
+ * <code>remove</code> doesn't leave <i>tombstones</i>. Keys which follow the removed one in
+ * the same probe sequence are shifted back to fill the gap, so lookups never have to skip
+ * removed slots and the table doesn't degrade after many removals.
+ *
+ * The <code>get</code>, <code>put</code>, <code>containsKey</code>, <code>remove</code> operations
+ * run in constant time on average. The <code>containsValue</code> method runs throw all the slots.
+ *
+ * Views (<code>keySet</code>, <code>values</code>, <code>entrySet</code>) don't copy the entries,
+ * their iterators walk the slots from the last one down and are <i>fail-fast</i>. Removal through
+ * the iterator shifts keys back as well: keys of the visited slots stay in the visited ones, keys
+ * of the slots not visited yet stay in them or are shifted across the end of the arrays to the visited
+ * slots. Such keys are kept by the iterator and returned after the slots, so every key is returned once.
+ *
+ * <code>CustomOpenHashMap</code> support null values and doesn't support null keys.
+ *
+ * @param <K> type of keys maintained by map.
+ * @param <V> type of values maintained by map.
+ */
+public class CustomOpenHashMap<K, V> implements Map<K, V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+
+    private Object[] keys = new Object[DEFAULT_CAPACITY];
+    private Object[] values = new Object[DEFAULT_CAPACITY];
+    private int size = 0;
+    private int threshold = threshold(DEFAULT_CAPACITY);
+    private int modCount = 0;
+
+    private Set<K> keySet;
+    private Collection<V> valuesView;
+    private Set<Entry<K, V>> entrySet;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Objects.requireNonNull(key);
+
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && Objects.equals(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        Objects.requireNonNull(key);
+
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+
+        ensureCapacity();
+
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+
+        Object currentKey;
+        while ((currentKey = keys[index]) != null) {
+            if (currentKey.equals(key)) {
+                V oldValue = (V) values[index];
+                values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        modCount++;
+
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Objects.requireNonNull(key);
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+
+        V oldValue = (V) values[index];
+        shiftKeysBack(index, null);
+        size--;
+        modCount++;
+
+        return oldValue;
+    }
+
+    /**
+     * Grows the arrays at once to the capacity of the final size,
+     * so the keys are placed again at most once instead of on every doubling.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        int expectedSize = size + m.size();
+        if (expectedSize > threshold) {
+            int newCapacity = keys.length;
+            while (threshold(newCapacity) < expectedSize) {
+                newCapacity <<= 1;
+            }
+            resize(newCapacity);
+        }
+
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        keys = new Object[DEFAULT_CAPACITY];
+        values = new Object[DEFAULT_CAPACITY];
+        threshold = threshold(DEFAULT_CAPACITY);
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) {
+            keySet = new KeySet();
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valuesView == null) {
+            valuesView = new Values();
+        }
+        return valuesView;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> that = (Map<?, ?>) o;
+        if (that.size() != size) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            Object key = keys[i];
+            if (key == null) {
+                continue;
+            }
+            Object value = values[i];
+            if (value == null ? that.get(key) != null || !that.containsKey(key) : !value.equals(that.get(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                hashCode += keys[i].hashCode() ^ Objects.hashCode(values[i]);
+            }
+        }
+        return hashCode;
+    }
+
+    private int indexOf(Object key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+
+        Object currentKey;
+        while ((currentKey = keys[index]) != null) {
+            if (currentKey.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Fills the gap left by the removed key. Every following key of the same run
+     * (up to the first empty slot) is moved to the gap if the gap lies between its
+     * own slot and the slot it was placed to, then the gap moves to the freed slot.
+     *
+     * @param wrapped keys shifted across the end of the arrays are added to it, if it isn't <code>null</code>.
+     */
+    private void shiftKeysBack(int gap, List<Object> wrapped) {
+        int mask = keys.length - 1;
+        int index = gap;
+
+        while (true) {
+            index = (index + 1) & mask;
+
+            Object currentKey = keys[index];
+            if (currentKey == null) {
+                break;
+            }
+
+            int ownIndex = hash(currentKey) & mask;
+            if (((index - ownIndex) & mask) >= ((index - gap) & mask)) {
+                if (wrapped != null && index < gap) {
+                    wrapped.add(currentKey);
+                }
+                keys[gap] = currentKey;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+
+        keys[gap] = null;
+        values[gap] = null;
+    }
+
+    private void ensureCapacity() {
+        if (size >= threshold) {
+            resize(keys.length << 1);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int mask = newCapacity - 1;
+
+        keys = new Object[newCapacity];
+        values = new Object[newCapacity];
+        threshold = threshold(newCapacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object currentKey = oldKeys[i];
+            if (currentKey != null) {
+                int index = hash(currentKey) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = currentKey;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Mixes all bits of the key hashcode. Linear probing is sensitive to clustering,
+     * so hashcodes which differ only in upper bits or form arithmetic sequences
+     * must not go to the adjacent slots.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int threshold(int capacity) {
+        return (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Iterator which walks the slots from the last one down to the first one and then the keys
+     * shifted across the end of the arrays by its <code>remove</code>.
+     */
+    private abstract class SlotIterator<E> implements Iterator<E> {
+
+        private int expectedModCount = modCount;
+
+        private int index = keys.length;
+        private List<Object> wrapped;
+        private int wrappedIndex;
+        private Object lastReturned;
+        private int lastReturnedIndex = -1;
+
+        abstract E extract(Object key, Object value);
+
+        /**
+         * Slots below <code>index</code> aren't visited yet. The next slot is looked up only here,
+         * because <code>remove</code> may shift keys between them.
+         */
+        @Override
+        public boolean hasNext() {
+            while (index > 0 && keys[index - 1] == null) {
+                index--;
+            }
+            return index > 0 || (wrapped != null && wrappedIndex < wrapped.size());
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (index > 0) {
+                lastReturnedIndex = --index;
+                lastReturned = keys[index];
+                return extract(lastReturned, values[index]);
+            }
+            lastReturnedIndex = -1;
+            lastReturned = wrapped.get(wrappedIndex++);
+            return extract(lastReturned, values[indexOf(lastReturned)]);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (lastReturnedIndex >= 0) {
+                if (wrapped == null) {
+                    wrapped = new ArrayList<>();
+                }
+                shiftKeysBack(lastReturnedIndex, wrapped);
+                size--;
+                modCount++;
+            } else {
+                CustomOpenHashMap.this.remove(lastReturned);
+            }
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class KeySet extends AbstractSet<K> {
+
+        @Override
+        public Iterator<K> iterator() {
+            return new SlotIterator<K>() {
+                @Override
+                K extract(Object key, Object value) {
+                    return (K) key;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            int oldSize = size;
+            CustomOpenHashMap.this.remove(o);
+            return size != oldSize;
+        }
+
+        @Override
+        public void clear() {
+            CustomOpenHashMap.this.clear();
+        }
+    }
+
+    private final class Values extends AbstractCollection<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            return new SlotIterator<V>() {
+                @Override
+                V extract(Object key, Object value) {
+                    return (V) value;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            CustomOpenHashMap.this.clear();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new SlotIterator<Entry<K, V>>() {
+                @Override
+                Entry<K, V> extract(Object key, Object value) {
+                    return new WriteThroughEntry((K) key, (V) value);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry) || ((Entry<?, ?>) o).getKey() == null) {
+                return false;
+            }
+
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            int index = indexOf(entry.getKey());
+            return index >= 0 && Objects.equals(values[index], entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+
+            CustomOpenHashMap.this.remove(((Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            CustomOpenHashMap.this.clear();
+        }
+    }
+
+    /**
+     * Entry writes its value through to the slot of the key, which may be shifted since
+     * the entry was returned, so the slot is looked up again.
+     */
+    private class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+
+        WriteThroughEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            int index = indexOf(getKey());
+            if (index >= 0) {
+                values[index] = value;
+            }
+            return super.setValue(value);
+        }
+    }
+}
@@ -1,27 +1,138 @@
 package ru.epam.training;
 
-import java.util.Collection;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
+import java.util.function.BinaryOperator;
 
 /**
- * <i>Red-black tree</i> implementation of the <code>Map</code> interface.
+ * <i>Red-black tree</i> implementation of the <code>NavigableMap</code> interface.
  *
- * <code>CustomTreeMap</code> is sorted according to the <code>compareTo</code> methods of the keys.
+ * <code>CustomTreeMap</code> is sorted according to the <code>compareTo</code> methods of the keys
+ * or by the <code>Comparator</code> provided to the constructor.
  *
  * Due to the nature of the <i>red-black tree</i> most operation (<code>get</code>, <code>put</code>,
- * <code>remove</code>, <code>containsKey</code>) runs in <code>log(n)</code> time.
+ * <code>remove</code>, <code>containsKey</code>, <code>floorKey</code>, <code>ceilingKey</code> etc.)
+ * runs in <code>log(n)</code> time.
  *
- * <code>CustomHastMap</code> support null values and doesn't support null keys.
+ * The <code>get</code>, <code>put</code>, <code>remove</code> methods descend the tree in a loop
+ * with a single <code>compareTo</code> call per level, <code>remove</code> restructures the tree
+ * on the second descent guided by the subtree sizes. <code>put</code> keeps the path from the root
+ * in an array which is reused by all calls, so updating the value of an existing key allocates nothing.
+ *
+ * Sorted entries are linked into the tree bottom-up in linear time by {@link Builder},
+ * {@link #fromSorted(Comparator, Iterable)} and {@link #merge(CustomTreeMap, CustomTreeMap, BinaryOperator)}.
+ *
+ * Every node keeps the size of its subtree, which is updated by rotations and on the way back
+ * from <code>put</code> and <code>remove</code>. So {@link #rank(Object)}, {@link #select(int)},
+ * {@link #countInRange(Object, Object)} and <code>size</code> of the views run in <code>log(n)</code> time.
+ *
+ * Views (<code>entrySet</code>, <code>headMap</code>, <code>subMap</code>, <code>descendingMap</code> etc.)
+ * don't copy the entries. Their iterators walk the tree in order keeping the path from the root
+ * in a stack, so a scan of <code>k</code> entries of a range costs <code>log(n) + k</code>.
+ * Iterators are <i>fail-fast</i>.
+ *
+ * <code>CustomTreeMap</code> support null values and doesn't support null keys.
  *
  * @param <K> type of keys maintained by map.
  * @param <V> type of values maintained by map.
  */
-public class CustomTreeMap<K extends Comparable<K>, V> implements Map<K, V> {
+public class CustomTreeMap<K, V> implements NavigableMap<K, V> {
+
+    private static final int INITIAL_PATH_LENGTH = 64;
+
+    private final Comparator<? super K> comparator;
 
     private Node<K, V> root;
     private int size;
+    private int modCount;
+    private Node<K, V>[] path = new Node[INITIAL_PATH_LENGTH];
+
+    private EntrySet entrySet;
+    private KeySet<K> keySet;
+    private Values values;
+    private NavigableMap<K, V> descendingMap;
+
+    /**
+     * Creates map sorted according to the natural ordering of the keys.
+     * Keys must implement <code>Comparable</code>.
+     */
+    public CustomTreeMap() {
+        this(null);
+    }
+
+    /**
+     * Creates map sorted by the comparator. If the comparator is <code>null</code>
+     * the natural ordering of the keys is used.
+     */
+    public CustomTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * @return builder of the map sorted according to the natural ordering of the keys.
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>(null);
+    }
+
+    /**
+     * @return builder of the map sorted by the comparator.
+     */
+    public static <K, V> Builder<K, V> builder(Comparator<? super K> comparator) {
+        return new Builder<>(comparator);
+    }
+
+    /**
+     * Builds the map of the entries sorted by the comparator in linear time, see {@link Builder}.
+     *
+     * @throws IllegalArgumentException if the keys aren't strictly ascending.
+     */
+    public static <K, V> CustomTreeMap<K, V> fromSorted(Comparator<? super K> comparator,
+                                                        Iterable<? extends Entry<? extends K, ? extends V>> entries) {
+        Builder<K, V> builder = new Builder<>(comparator);
+        for (Entry<? extends K, ? extends V> entry : entries) {
+            builder.put(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Merges two maps of the same ordering in linear time. Keys of both maps are mapped
+     * to the result of the merge function of their values.
+     *
+     * @throws IllegalArgumentException if the maps have different comparators.
+     */
+    public static <K, V> CustomTreeMap<K, V> merge(CustomTreeMap<K, ? extends V> first,
+                                                   CustomTreeMap<K, ? extends V> second,
+                                                   BinaryOperator<V> mergeFunction) {
+        if (!Objects.equals(first.comparator, second.comparator)) {
+            throw new IllegalArgumentException("Maps have different comparators");
+        }
+        Objects.requireNonNull(mergeFunction);
+
+        Builder<K, V> builder = new Builder<>(first.comparator);
+        Iterator<? extends Entry<K, ? extends V>> firstEntries = first.entrySet().iterator();
+        Iterator<? extends Entry<K, ? extends V>> secondEntries = second.entrySet().iterator();
+        Entry<K, ? extends V> firstEntry = firstEntries.hasNext() ? firstEntries.next() : null;
+        Entry<K, ? extends V> secondEntry = secondEntries.hasNext() ? secondEntries.next() : null;
+
+        while (firstEntry != null || secondEntry != null) {
+            int cmp = firstEntry == null ? 1
+                    : secondEntry == null ? -1
+                    : first.compare(firstEntry.getKey(), secondEntry.getKey());
+            if (cmp < 0) {
+                builder.put(firstEntry.getKey(), firstEntry.getValue());
+                firstEntry = firstEntries.hasNext() ? firstEntries.next() : null;
+            } else if (cmp > 0) {
+                builder.put(secondEntry.getKey(), secondEntry.getValue());
+                secondEntry = secondEntries.hasNext() ? secondEntries.next() : null;
+            } else {
+                builder.put(firstEntry.getKey(), mergeFunction.apply(firstEntry.getValue(), secondEntry.getValue()));
+                firstEntry = firstEntries.hasNext() ? firstEntries.next() : null;
+                secondEntry = secondEntries.hasNext() ? secondEntries.next() : null;
+            }
+        }
+        return builder.build();
+    }
 
     @Override
     public int size() {
@@ -37,177 +148,724 @@ public class CustomTreeMap<K extends Comparable<K>, V> implements Map<K, V> {
     public boolean containsKey(Object key) {
         Objects.requireNonNull(key);
 
-        return find(root, (K) key) != null;
+        return getNode(key) != null;
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return containsValue(root, value);
+        for (Entry<K, V> entry : entrySet()) {
+            if (Objects.equals(entry.getValue(), value)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public V get(Object key) {
         Objects.requireNonNull(key);
 
-        Node<K, V> findResult = find(root, (K) key);
+        Node<K, V> node = getNode(key);
 
-        return findResult == null ? null : findResult.value;
+        return node == null ? null : node.value;
     }
 
+    /**
+     * Descends the tree keeping the path in the <code>path</code> array. If the key is found
+     * its value is replaced and nothing is allocated. Otherwise the new red leaf is attached
+     * and the path is rebalanced bottom up, the same way as recursive insertion does on
+     * the way back from recursion.
+     */
     @Override
     public V put(K key, V value) {
         Objects.requireNonNull(key);
 
-        ValuesPair valuesPair = new ValuesPair(value);
-        root = put(root, key, valuesPair);
-        return valuesPair.oldValue;
+        if (root == null) {
+            compare(key, key);
+            root = new Node<>(key, value, Node.BLACK);
+            size++;
+            modCount++;
+            return null;
+        }
+
+        int depth = 0;
+        int cmp;
+        Node<K, V> node = root;
+        do {
+            cmp = compare(key, node.key);
+            if (cmp == 0) {
+                V oldValue = node.value;
+                node.value = value;
+                return oldValue;
+            }
+            pushToPath(depth++, node);
+            node = cmp < 0 ? node.left : node.right;
+        } while (node != null);
+
+        Node<K, V> parent = path[depth - 1];
+        if (cmp < 0) {
+            parent.left = new Node<>(key, value, Node.RED);
+        } else {
+            parent.right = new Node<>(key, value, Node.RED);
+        }
+        size++;
+        modCount++;
+
+        balancePath(depth);
+        return null;
     }
 
+    /**
+     * <i>Left-leaning red-black tree</i> deletion. On the way down the tree red links are moved
+     * to the path (<code>moveRedLeft</code>, <code>moveRedRight</code>), so the removed node is never
+     * a single black node, and then the path is rebalanced bottom up. The removed node with two
+     * children is replaced by the minimum node of its right subtree: the node itself is relinked,
+     * not its key and value, so entries returned by iterators stay valid.
+     *
+     * The key is compared only by the lookup, which also finds the rank of the target. The tree is
+     * changed only if the key is found, and the deletion descends by the rank and the sizes of the left
+     * subtrees, which rotations keep right, so there is a single <code>compareTo</code> call per level.
+     */
     @Override
     public V remove(Object key) {
         Objects.requireNonNull(key);
 
-        ValuesPair valuesPair = new ValuesPair();
-        root = remove(root, (K) key, valuesPair);
-        return valuesPair.oldValue;
+        int rank = 0;
+        Node<K, V> target = root;
+        while (target != null) {
+            int cmp = compare(key, target.key);
+            if (cmp == 0) {
+                break;
+            }
+            if (cmp < 0) {
+                target = target.left;
+            } else {
+                rank += size(target.left) + 1;
+                target = target.right;
+            }
+        }
+        if (target == null) {
+            return null;
+        }
+        rank += size(target.left);
+
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.color = Node.RED;
+        }
+
+        int depth = 0;
+        Node<K, V> node = root;
+        while (true) {
+            int cmp = Integer.compare(rank, size(node.left));
+            if (cmp < 0) {
+                if (!isRed(node.left) && !isRed(node.left.left)) {
+                    node = relink(depth, node, moveRedLeft(node));
+                }
+                pushToPath(depth++, node);
+                node = node.left;
+                continue;
+            }
+
+            if (isRed(node.left)) {
+                node = relink(depth, node, rotateRight(node));
+                cmp = 1;
+            }
+            if (cmp == 0 && node.right == null) {
+                relink(depth, node, null);
+                break;
+            }
+            if (!isRed(node.right) && !isRed(node.right.left)) {
+                Node<K, V> moved = moveRedRight(node);
+                if (moved != node) {
+                    node = relink(depth, node, moved);
+                    cmp = 1;
+                }
+            }
+            if (cmp == 0) {
+                int targetDepth = depth;
+                pushToPath(depth++, node);
+                Node<K, V> min = node.right;
+                while (min.left != null) {
+                    if (!isRed(min.left) && !isRed(min.left.left)) {
+                        min = relink(depth, min, moveRedLeft(min));
+                    }
+                    pushToPath(depth++, min);
+                    min = min.left;
+                }
+                relink(depth, min, null);
+
+                min.left = target.left;
+                min.right = target.right;
+                min.color = target.color;
+                path[targetDepth] = min;
+                relink(targetDepth, target, min);
+                break;
+            }
+            rank -= size(node.left) + 1;
+            pushToPath(depth++, node);
+            node = node.right;
+        }
+
+        balancePath(depth);
+        size--;
+        modCount++;
+
+        target.left = null;
+        target.right = null;
+        return target.value;
     }
 
+    /**
+     * Sorted map of the same ordering is copied to the empty map by {@link Builder} in linear time.
+     */
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
-        throw new UnsupportedOperationException();
+        if (root == null && m instanceof SortedMap
+                && Objects.equals(comparator, ((SortedMap<? extends K, ? extends V>) m).comparator())) {
+            CustomTreeMap<K, V> built = fromSorted(comparator, m.entrySet());
+            root = built.root;
+            size = built.size;
+            modCount++;
+            return;
+        }
+
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
     }
 
     @Override
     public void clear() {
         root = null;
         size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @return number of keys less than the key.
+     */
+    public int rank(K key) {
+        return countBelow(key, false);
+    }
+
+    /**
+     * @return key of the index in the ascending order of the keys.
+     * @throws IndexOutOfBoundsException if the index is out of <code>[0, size)</code>.
+     */
+    public K select(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.key;
+            }
+        }
+    }
+
+    /**
+     * @return number of keys from <code>fromKey</code> inclusive to <code>toKey</code> exclusive.
+     */
+    public int countInRange(K fromKey, K toKey) {
+        return countInRange(fromKey, true, toKey, false);
+    }
+
+    /**
+     * @return number of keys of the range, the same as <code>subMap(...).size()</code>.
+     */
+    public int countInRange(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        Objects.requireNonNull(fromKey);
+        Objects.requireNonNull(toKey);
+        if (compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+
+        return Math.max(0, countBelow(toKey, toInclusive) - countBelow(fromKey, !fromInclusive));
+    }
+
+    @Override
+    public K firstKey() {
+        return key(firstNode());
+    }
+
+    @Override
+    public K lastKey() {
+        return key(lastNode());
+    }
+
+    @Override
+    public Entry<K, V> firstEntry() {
+        return exportEntry(firstNode());
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+        return exportEntry(lastNode());
+    }
+
+    @Override
+    public Entry<K, V> pollFirstEntry() {
+        return pollEntry(firstNode());
+    }
+
+    @Override
+    public Entry<K, V> pollLastEntry() {
+        return pollEntry(lastNode());
+    }
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) {
+        return exportEntry(lowerNode(key));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return keyOrNull(lowerNode(key));
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) {
+        return exportEntry(floorNode(key));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return keyOrNull(floorNode(key));
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) {
+        return exportEntry(ceilingNode(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return keyOrNull(ceilingNode(key));
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) {
+        return exportEntry(higherNode(key));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return keyOrNull(higherNode(key));
     }
 
     @Override
     public Set<K> keySet() {
-        throw new UnsupportedOperationException();
+        return navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+        if (keySet == null) {
+            keySet = new KeySet<>(this);
+        }
+        return keySet;
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
     }
 
     @Override
     public Collection<V> values() {
-        throw new UnsupportedOperationException();
+        if (values == null) {
+            values = new Values();
+        }
+        return values;
     }
 
     @Override
     public Set<Entry<K, V>> entrySet() {
-        throw new UnsupportedOperationException();
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
     }
 
-    private boolean containsValue(Node<K, V> node, Object value) {
-        if (node == null) return false;
+    @Override
+    public NavigableMap<K, V> descendingMap() {
+        if (descendingMap == null) {
+            descendingMap = new SubMap(true, null, true, true, null, true, true);
+        }
+        return descendingMap;
+    }
 
-        if (node.value == null) {
-            if (value == null) return true;
-        } else if (node.value.equals(value)) {
-            return true;
+    @Override
+    public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        Objects.requireNonNull(fromKey);
+        Objects.requireNonNull(toKey);
+        if (compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
         }
-        return containsValue(node.left, value) || containsValue(node.right, value);
+
+        return new SubMap(false, fromKey, fromInclusive, false, toKey, toInclusive, false);
     }
 
-    private Node<K, V> put(Node<K, V> node, K key, ValuesPair value) {
-        if (node == null) {
-            size++;
-            return new Node<>(key, value.newValue, Node.RED);
+    @Override
+    public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        Objects.requireNonNull(toKey);
+
+        return new SubMap(true, null, true, false, toKey, inclusive, false);
+    }
+
+    @Override
+    public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        Objects.requireNonNull(fromKey);
+
+        return new SubMap(false, fromKey, inclusive, true, null, true, false);
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    /**
+     * Lookup loop is split for the natural ordering and for the comparator, so the choice
+     * between them isn't made on every level of the tree.
+     */
+    private Node<K, V> getNode(Object key) {
+        Node<K, V> node = root;
+        if (comparator != null) {
+            K k = (K) key;
+            while (node != null) {
+                int cmp = comparator.compare(k, node.key);
+                if (cmp == 0) {
+                    return node;
+                }
+                node = cmp < 0 ? node.left : node.right;
+            }
+        } else {
+            Comparable<? super K> k = (Comparable<? super K>) key;
+            while (node != null) {
+                int cmp = k.compareTo(node.key);
+                if (cmp == 0) {
+                    return node;
+                }
+                node = cmp < 0 ? node.left : node.right;
+            }
         }
+        return null;
+    }
+
+    private void pushToPath(int depth, Node<K, V> node) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth << 1);
+        }
+        path[depth] = node;
+    }
+
+    /**
+     * Restores <i>left-leaning red-black tree</i> invariants on the nodes of <code>path</code>
+     * from the deepest one up to the root. Every rebalanced subtree is linked back to its parent.
+     */
+    private void balancePath(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            relink(i, path[i], balance(path[i]));
+            path[i] = null;
+        }
+        if (root != null) {
+            root.color = Node.BLACK;
+        }
+    }
 
-        if (node.key.equals(key)) {
-            value.oldValue = node.value;
-            node.value = value.newValue;
-        } else if (node.key.compareTo(key) > 0) {
-            node.left = put(node.left, key, value);
+    /**
+     * Replaces the child of <code>path[depth - 1]</code> (or the root for zero depth) by the new node.
+     *
+     * @return the new node.
+     */
+    private Node<K, V> relink(int depth, Node<K, V> oldChild, Node<K, V> newChild) {
+        if (depth == 0) {
+            root = newChild;
+        } else if (path[depth - 1].left == oldChild) {
+            path[depth - 1].left = newChild;
         } else {
-            node.right = put(node.right, key, value);
+            path[depth - 1].right = newChild;
         }
+        return newChild;
+    }
 
+    private Node<K, V> balance(Node<K, V> node) {
         if (isRed(node.right) && !isRed(node.left)) node = rotateLeft(node);
         if (isRed(node.left) && isRed(node.left.left)) node = rotateRight(node);
         if (isRed(node.left) && isRed(node.right)) flipColors(node);
 
+        updateSize(node);
         return node;
     }
 
-    private Node<K, V> find(Node<K, V> node, K key) {
-        if (node == null) return null;
+    /**
+     * Descends the tree to the key summing up sizes of the left subtrees of the nodes less than the key.
+     *
+     * @return number of keys less than (or equal to, if inclusive) the key.
+     */
+    private int countBelow(Object key, boolean inclusive) {
+        Objects.requireNonNull(key);
 
-        if (node.key.equals(key)) {
-            return node;
-        } else if (node.key.compareTo(key) > 0) {
-            return find(node.left, key);
-        } else {
-            return find(node.right, key);
+        int count = 0;
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = compare(key, node.key);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return count + size(node.left) + (inclusive ? 1 : 0);
+            }
         }
+        return count;
     }
 
-    private Node<K, V> remove(Node<K, V> node, K key, ValuesPair valuesPair) {
-        if (node == null) return null;
+    private Node<K, V> firstNode() {
+        Node<K, V> node = root;
+        if (node != null) {
+            while (node.left != null) {
+                node = node.left;
+            }
+        }
+        return node;
+    }
 
-        if (node.key.equals(key)) {
-            size--;
-            valuesPair.oldValue = node.value;
+    private Node<K, V> lastNode() {
+        Node<K, V> node = root;
+        if (node != null) {
+            while (node.right != null) {
+                node = node.right;
+            }
+        }
+        return node;
+    }
 
-            if (node.right == null) return node.left;
-            if (node.left == null) return node.right;
+    /**
+     * Finds the node with the least key greater than (or equal to, if <code>inclusive</code>) the key.
+     */
+    private Node<K, V> ceilingNode(Object key, boolean inclusive) {
+        Objects.requireNonNull(key);
 
-            Node<K, V> nodeToDelete = node;
+        Node<K, V> result = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = compare(node.key, key);
+            if (cmp > 0 || (cmp == 0 && inclusive)) {
+                result = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return result;
+    }
 
-            node = min(nodeToDelete.right);
-            node.right = deleteMin(nodeToDelete.right);
-            node.left = nodeToDelete.left;
-        } else if (node.key.compareTo(key) > 0) {
-            node.left = remove(node.left, key, valuesPair);
-        } else {
-            node.right = remove(node.right, key, valuesPair);
+    /**
+     * Finds the node with the greatest key less than (or equal to, if <code>inclusive</code>) the key.
+     */
+    private Node<K, V> floorNode(Object key, boolean inclusive) {
+        Objects.requireNonNull(key);
+
+        Node<K, V> result = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = compare(node.key, key);
+            if (cmp < 0 || (cmp == 0 && inclusive)) {
+                result = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
         }
-        return node;
+        return result;
     }
 
-    private Node<K, V> deleteMin(Node<K, V> node) {
-        if (node.left == null) return node.right;
+    private Node<K, V> ceilingNode(Object key) {
+        return ceilingNode(key, true);
+    }
 
-        node.left = deleteMin(node.left);
-        return node;
+    private Node<K, V> higherNode(Object key) {
+        return ceilingNode(key, false);
     }
 
-    private Node<K, V> min(Node<K, V> node) {
-        return node.left != null ? min(node.left) : node;
+    private Node<K, V> floorNode(Object key) {
+        return floorNode(key, true);
     }
 
-    private boolean isRed(Node node) {
+    private Node<K, V> lowerNode(Object key) {
+        return floorNode(key, false);
+    }
+
+    private Entry<K, V> pollEntry(Node<K, V> node) {
+        if (node == null) {
+            return null;
+        }
+        Entry<K, V> entry = exportEntry(node);
+        remove(node.key);
+        return entry;
+    }
+
+    private int compare(Object key1, Object key2) {
+        return comparator == null
+                ? ((Comparable<Object>) key1).compareTo(key2)
+                : comparator.compare((K) key1, (K) key2);
+    }
+
+    private static <K, V> Entry<K, V> exportEntry(Node<K, V> node) {
+        return node == null ? null : new AbstractMap.SimpleImmutableEntry<>(node.key, node.value);
+    }
+
+    private static <K> K keyOrNull(Node<K, ?> node) {
+        return node == null ? null : node.key;
+    }
+
+    private static <K> K key(Node<K, ?> node) {
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.key;
+    }
+
+    private static boolean isRed(Node<?, ?> node) {
         return node != null && node.color == Node.RED;
     }
 
-    private Node rotateLeft(Node h) {
-        Node x = h.right;
+    private static <K, V> Node<K, V> rotateLeft(Node<K, V> h) {
+        Node<K, V> x = h.right;
         h.right = x.left;
         x.left = h;
 
         x.color = h.color;
         h.color = Node.RED;
+        updateSize(h);
+        updateSize(x);
         return x;
     }
 
-    private Node rotateRight(Node h) {
-        Node x = h.left;
+    private static <K, V> Node<K, V> rotateRight(Node<K, V> h) {
+        Node<K, V> x = h.left;
         h.left = x.right;
         x.right = h;
 
         x.color = h.color;
         h.color = Node.RED;
+        updateSize(h);
+        updateSize(x);
         return x;
     }
 
-    private void flipColors(Node h) {
-        h.color = Node.RED;
-        h.left.color = Node.BLACK;
-        h.right.color = Node.BLACK;
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void updateSize(Node<?, ?> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static void flipColors(Node<?, ?> h) {
+        h.color = !h.color;
+        h.left.color = !h.left.color;
+        h.right.color = !h.right.color;
     }
 
-    private class Node<K extends Comparable<K>, V> {
+    /**
+     * Makes the left child of <code>h</code> or one of its children red, assuming that <code>h</code>
+     * is red and both its children are black.
+     */
+    private static <K, V> Node<K, V> moveRedLeft(Node<K, V> h) {
+        flipColors(h);
+        if (isRed(h.right.left)) {
+            h.right = rotateRight(h.right);
+            h = rotateLeft(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    /**
+     * Makes the right child of <code>h</code> or one of its children red, assuming that <code>h</code>
+     * is red and both its children are black.
+     */
+    private static <K, V> Node<K, V> moveRedRight(Node<K, V> h) {
+        flipColors(h);
+        if (isRed(h.left.left)) {
+            h = rotateRight(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    /**
+     * Height of the tree, <code>0</code> for the empty one.
+     */
+    int height() {
+        return height(root);
+    }
+
+    /**
+     * Checks the <i>left-leaning red-black tree</i> invariants: keys are ordered, the root is black,
+     * there are no red right links and no two red links in a row, every path from the root to
+     * a leaf has the same number of black links, and subtree sizes are right.
+     */
+    boolean isValidRedBlackTree() {
+        return !isRed(root) && blackHeight(root, null, null) >= 0;
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    /**
+     * @return black height of the subtree or <code>-1</code> if it breaks an invariant.
+     */
+    private int blackHeight(Node<K, V> node, K min, K max) {
+        if (node == null) {
+            return 0;
+        }
+        if ((min != null && compare(node.key, min) <= 0) || (max != null && compare(node.key, max) >= 0)) {
+            return -1;
+        }
+        if (isRed(node.right) || (isRed(node) && isRed(node.left))) {
+            return -1;
+        }
+        if (node.size != 1 + size(node.left) + size(node.right)) {
+            return -1;
+        }
+        int left = blackHeight(node.left, min, node.key);
+        int right = blackHeight(node.right, node.key, max);
+        if (left < 0 || left != right) {
+            return -1;
+        }
+        return left + (isRed(node) ? 0 : 1);
+    }
+
+    private static class Node<K, V> implements Entry<K, V> {
         private static final boolean RED = true;
         private static final boolean BLACK = false;
 
@@ -216,6 +874,7 @@ public class CustomTreeMap<K extends Comparable<K>, V> implements Map<K, V> {
         private Node<K, V> left;
         private Node<K, V> right;
         private boolean color;
+        private int size = 1;
 
         public Node(K key, V value, boolean color) {
             this.key = key;
@@ -223,17 +882,811 @@ public class CustomTreeMap<K extends Comparable<K>, V> implements Map<K, V> {
             this.color = color;
         }
 
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V oldValue = this.value;
+            this.value = value;
+            return oldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) return false;
+
+            Entry<?, ?> that = (Entry<?, ?>) o;
+            return Objects.equals(key, that.getKey()) && Objects.equals(value, that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Builder of the map of sorted entries, which are checked to be strictly ascending as they are put.
+     *
+     * {@link #build()} links the nodes into a <i>left-leaning red-black tree</i> bottom-up in linear time,
+     * without comparisons and rotations. The tree is a <i>2-3 tree</i> of the least black height
+     * <code>b</code> which can hold all the entries. A subtree of <code>n</code> entries is a single black
+     * node or a black node with a red left child, whichever leaves <code>2^(b-1) - 1 .. 3^(b-1) - 1</code>
+     * entries to each child subtree, and the entries are split between the children evenly.
+     *
+     * The builder can't be used after {@link #build()}.
+     *
+     * @param <K> type of keys.
+     * @param <V> type of values.
+     */
+    public static final class Builder<K, V> {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final CustomTreeMap<K, V> map;
+        private Node<K, V>[] nodes = new Node[INITIAL_CAPACITY];
+        private int size;
+        private boolean built;
+
+        private Builder(Comparator<? super K> comparator) {
+            this.map = new CustomTreeMap<>(comparator);
+        }
+
+        /**
+         * @throws IllegalArgumentException if the key isn't greater than the previous one.
+         */
+        public Builder<K, V> put(K key, V value) {
+            ensureNotBuilt();
+            Objects.requireNonNull(key);
+
+            if (size == 0) {
+                map.compare(key, key);
+            } else if (map.compare(nodes[size - 1].key, key) >= 0) {
+                throw new IllegalArgumentException("Keys aren't sorted: " + nodes[size - 1].key + ", " + key);
+            }
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size << 1);
+            }
+            nodes[size++] = new Node<>(key, value, Node.BLACK);
+            return this;
+        }
+
+        /**
+         * @return map of the put entries.
+         * @throws IllegalStateException if the map is already built.
+         */
+        public CustomTreeMap<K, V> build() {
+            ensureNotBuilt();
+            built = true;
+
+            int blackHeight = 0;
+            for (long maxSize = 0; maxSize < size; maxSize = maxSize * 3 + 2) {
+                blackHeight++;
+            }
+            map.root = link(0, size, blackHeight);
+            map.size = size;
+            nodes = null;
+            return map;
+        }
+
+        private void ensureNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("Map is already built");
+            }
+        }
+
+        /**
+         * Links <code>size</code> nodes starting from <code>from</code> into a subtree of the black height.
+         *
+         * @return root of the subtree.
+         */
+        private Node<K, V> link(int from, int size, int blackHeight) {
+            if (size == 0) {
+                return null;
+            }
+
+            long maxChildSize = 1;
+            for (int i = 1; i < blackHeight; i++) {
+                maxChildSize *= 3;
+            }
+            maxChildSize--;
+
+            if (size - 1 <= 2 * maxChildSize) {
+                int leftSize = (size - 1) / 2;
+                Node<K, V> node = nodes[from + leftSize];
+                node.left = link(from, leftSize, blackHeight - 1);
+                node.right = link(from + leftSize + 1, size - 1 - leftSize, blackHeight - 1);
+                node.size = size;
+                return node;
+            }
+
+            int childSize = (size - 2) / 3;
+            int extra = (size - 2) % 3;
+            int leftLeftSize = childSize + (extra > 0 ? 1 : 0);
+            int leftRightSize = childSize + (extra > 1 ? 1 : 0);
+
+            Node<K, V> left = nodes[from + leftLeftSize];
+            left.color = Node.RED;
+            left.left = link(from, leftLeftSize, blackHeight - 1);
+            left.right = link(from + leftLeftSize + 1, leftRightSize, blackHeight - 1);
+            left.size = leftLeftSize + 1 + leftRightSize;
+
+            Node<K, V> node = nodes[from + leftLeftSize + 1 + leftRightSize];
+            node.left = left;
+            node.right = link(from + leftLeftSize + leftRightSize + 2, childSize, blackHeight - 1);
+            node.size = size;
+            return node;
+        }
+    }
+
+    /**
+     * In-order iterator over the range of the tree. The stack holds the nodes of the path
+     * from the root which are still to be returned, so each step is amortized constant time.
+     * Descending iterator walks the mirrored tree the same way.
+     *
+     * <code>remove</code> may rotate the tree, so the path is found again from the root after it.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private final ArrayDeque<Node<K, V>> path = new ArrayDeque<>();
+        private final boolean toEnd;
+        private final K to;
+        private final boolean toInclusive;
+        private final boolean descending;
+
+        private Node<K, V> lastReturned;
+        private int expectedModCount = modCount;
+
+        EntryIterator(boolean fromStart, K from, boolean fromInclusive,
+                      boolean toEnd, K to, boolean toInclusive, boolean descending) {
+            this.toEnd = toEnd;
+            this.to = to;
+            this.toInclusive = toInclusive;
+            this.descending = descending;
+
+            if (fromStart) {
+                pushPath(root);
+            } else {
+                seek(from, fromInclusive);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            Node<K, V> next = path.peek();
+            return next != null && !isBeyondTo(next.key);
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            lastReturned = path.pop();
+            pushPath(descending ? lastReturned.left : lastReturned.right);
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            CustomTreeMap.this.remove(lastReturned.key);
+            path.clear();
+            seek(lastReturned.key, false);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        private void pushPath(Node<K, V> node) {
+            while (node != null) {
+                path.push(node);
+                node = descending ? node.right : node.left;
+            }
+        }
+
+        private void seek(K from, boolean inclusive) {
+            Node<K, V> node = root;
+            while (node != null) {
+                int cmp = directedCompare(node.key, from);
+                if (cmp > 0 || (cmp == 0 && inclusive)) {
+                    path.push(node);
+                    node = descending ? node.right : node.left;
+                } else {
+                    node = descending ? node.left : node.right;
+                }
+            }
+        }
+
+        private boolean isBeyondTo(K key) {
+            if (toEnd) {
+                return false;
+            }
+            int cmp = directedCompare(key, to);
+            return cmp > 0 || (cmp == 0 && !toInclusive);
+        }
+
+        private int directedCompare(K key1, K key2) {
+            int cmp = compare(key1, key2);
+            return descending ? -cmp : cmp;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator(true, null, true, true, null, true, false);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry)) return false;
+
+            Entry<?, ?> entry = (Entry<?, ?>) o;
+            Node<K, V> node = getNode(entry.getKey());
+            return node != null && Objects.equals(node.value, entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!contains(o)) return false;
+
+            CustomTreeMap.this.remove(((Entry<?, ?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            CustomTreeMap.this.clear();
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            Iterator<Entry<K, V>> iterator = entrySet().iterator();
+            return new Iterator<V>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public V next() {
+                    return iterator.next().getValue();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsValue(o);
+        }
+
+        @Override
+        public void clear() {
+            CustomTreeMap.this.clear();
+        }
+    }
+
+    /**
+     * Key set of the map or of its sub map view.
+     */
+    private static class KeySet<E> extends AbstractSet<E> implements NavigableSet<E> {
+
+        private final NavigableMap<E, ?> m;
+
+        KeySet(NavigableMap<E, ?> m) {
+            this.m = m;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            Iterator<? extends Entry<E, ?>> iterator = m.entrySet().iterator();
+            return new Iterator<E>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    return iterator.next().getKey();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                }
+            };
+        }
+
+        @Override
+        public Iterator<E> descendingIterator() {
+            return descendingSet().iterator();
+        }
+
+        @Override
+        public int size() {
+            return m.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return m.containsKey(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!m.containsKey(o)) return false;
+
+            m.remove(o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            m.clear();
+        }
+
+        @Override
+        public E lower(E e) {
+            return m.lowerKey(e);
+        }
+
+        @Override
+        public E floor(E e) {
+            return m.floorKey(e);
+        }
+
+        @Override
+        public E ceiling(E e) {
+            return m.ceilingKey(e);
+        }
+
+        @Override
+        public E higher(E e) {
+            return m.higherKey(e);
+        }
+
+        @Override
+        public E pollFirst() {
+            Entry<E, ?> entry = m.pollFirstEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public E pollLast() {
+            Entry<E, ?> entry = m.pollLastEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public Comparator<? super E> comparator() {
+            return m.comparator();
+        }
+
+        @Override
+        public E first() {
+            return m.firstKey();
+        }
+
+        @Override
+        public E last() {
+            return m.lastKey();
+        }
+
+        @Override
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<>(m.descendingMap());
+        }
+
+        @Override
+        public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+            return new KeySet<>(m.subMap(fromElement, fromInclusive, toElement, toInclusive));
+        }
+
+        @Override
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<>(m.headMap(toElement, inclusive));
+        }
+
+        @Override
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<>(m.tailMap(fromElement, inclusive));
+        }
+
+        @Override
+        public SortedSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public SortedSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public SortedSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
     }
 
-    private class ValuesPair {
-        private V newValue;
-        private V oldValue;
+    /**
+     * View of the keys range <code>[lo, hi]</code> of the map, bounds may be exclusive or absent.
+     * Descending view returns the same range in reversed order. The range is kept in the
+     * ascending order and all the <i>abs</i> methods work with it, navigation methods just
+     * swap them for descending view.
+     */
+    private class SubMap extends AbstractMap<K, V> implements NavigableMap<K, V> {
+
+        private final boolean fromStart;
+        private final K lo;
+        private final boolean loInclusive;
+        private final boolean toEnd;
+        private final K hi;
+        private final boolean hiInclusive;
+        private final boolean descending;
+
+        private Set<Entry<K, V>> subMapEntrySet;
+
+        SubMap(boolean fromStart, K lo, boolean loInclusive,
+               boolean toEnd, K hi, boolean hiInclusive, boolean descending) {
+            this.fromStart = fromStart;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.toEnd = toEnd;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        @Override
+        public int size() {
+            int toCount = toEnd ? CustomTreeMap.this.size() : countBelow(hi, hiInclusive);
+            int fromCount = fromStart ? 0 : countBelow(lo, !loInclusive);
+            return Math.max(0, toCount - fromCount);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return absLowest() == null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return inRange(key) && CustomTreeMap.this.containsKey(key);
+        }
+
+        @Override
+        public V get(Object key) {
+            return inRange(key) ? CustomTreeMap.this.get(key) : null;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            if (!inRange(key)) {
+                throw new IllegalArgumentException("key out of range");
+            }
+            return CustomTreeMap.this.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return inRange(key) ? CustomTreeMap.this.remove(key) : null;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            if (subMapEntrySet == null) {
+                subMapEntrySet = new AbstractSet<Entry<K, V>>() {
+                    @Override
+                    public Iterator<Entry<K, V>> iterator() {
+                        return entryIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return SubMap.this.size();
+                    }
+
+                    @Override
+                    public boolean isEmpty() {
+                        return SubMap.this.isEmpty();
+                    }
+
+                    @Override
+                    public boolean contains(Object o) {
+                        return o instanceof Entry && inRange(((Entry<?, ?>) o).getKey())
+                                && CustomTreeMap.this.entrySet().contains(o);
+                    }
+
+                    @Override
+                    public boolean remove(Object o) {
+                        return o instanceof Entry && inRange(((Entry<?, ?>) o).getKey())
+                                && CustomTreeMap.this.entrySet().remove(o);
+                    }
+                };
+            }
+            return subMapEntrySet;
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<K> navigableKeySet() {
+            return new KeySet<>(this);
+        }
+
+        @Override
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return descending ? Collections.reverseOrder(CustomTreeMap.this.comparator()) : CustomTreeMap.this.comparator();
+        }
+
+        @Override
+        public K firstKey() {
+            return key(descending ? absHighest() : absLowest());
+        }
+
+        @Override
+        public K lastKey() {
+            return key(descending ? absLowest() : absHighest());
+        }
+
+        @Override
+        public Entry<K, V> firstEntry() {
+            return exportEntry(descending ? absHighest() : absLowest());
+        }
+
+        @Override
+        public Entry<K, V> lastEntry() {
+            return exportEntry(descending ? absLowest() : absHighest());
+        }
+
+        @Override
+        public Entry<K, V> pollFirstEntry() {
+            return pollEntry(descending ? absHighest() : absLowest());
+        }
+
+        @Override
+        public Entry<K, V> pollLastEntry() {
+            return pollEntry(descending ? absLowest() : absHighest());
+        }
+
+        @Override
+        public Entry<K, V> lowerEntry(K key) {
+            return exportEntry(descending ? absHigher(key) : absLower(key));
+        }
+
+        @Override
+        public K lowerKey(K key) {
+            return keyOrNull(descending ? absHigher(key) : absLower(key));
+        }
+
+        @Override
+        public Entry<K, V> floorEntry(K key) {
+            return exportEntry(descending ? absCeiling(key) : absFloor(key));
+        }
+
+        @Override
+        public K floorKey(K key) {
+            return keyOrNull(descending ? absCeiling(key) : absFloor(key));
+        }
+
+        @Override
+        public Entry<K, V> ceilingEntry(K key) {
+            return exportEntry(descending ? absFloor(key) : absCeiling(key));
+        }
+
+        @Override
+        public K ceilingKey(K key) {
+            return keyOrNull(descending ? absFloor(key) : absCeiling(key));
+        }
+
+        @Override
+        public Entry<K, V> higherEntry(K key) {
+            return exportEntry(descending ? absLower(key) : absHigher(key));
+        }
+
+        @Override
+        public K higherKey(K key) {
+            return keyOrNull(descending ? absLower(key) : absHigher(key));
+        }
+
+        @Override
+        public NavigableMap<K, V> descendingMap() {
+            return new SubMap(fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !descending);
+        }
+
+        @Override
+        public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            Objects.requireNonNull(fromKey);
+            Objects.requireNonNull(toKey);
+            if (!inRange(fromKey, fromInclusive) || !inRange(toKey, toInclusive)) {
+                throw new IllegalArgumentException("key out of range");
+            }
+
+            if (descending) {
+                if (compare(fromKey, toKey) < 0) {
+                    throw new IllegalArgumentException("fromKey < toKey");
+                }
+                return new SubMap(false, toKey, toInclusive, false, fromKey, fromInclusive, true);
+            }
+            if (compare(fromKey, toKey) > 0) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            return new SubMap(false, fromKey, fromInclusive, false, toKey, toInclusive, false);
+        }
+
+        @Override
+        public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+            Objects.requireNonNull(toKey);
+            if (!inRange(toKey, inclusive)) {
+                throw new IllegalArgumentException("key out of range");
+            }
+
+            return descending
+                    ? new SubMap(false, toKey, inclusive, toEnd, hi, hiInclusive, true)
+                    : new SubMap(fromStart, lo, loInclusive, false, toKey, inclusive, false);
+        }
+
+        @Override
+        public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+            Objects.requireNonNull(fromKey);
+            if (!inRange(fromKey, inclusive)) {
+                throw new IllegalArgumentException("key out of range");
+            }
+
+            return descending
+                    ? new SubMap(fromStart, lo, loInclusive, false, fromKey, inclusive, true)
+                    : new SubMap(false, fromKey, inclusive, toEnd, hi, hiInclusive, false);
+        }
+
+        @Override
+        public SortedMap<K, V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        @Override
+        public SortedMap<K, V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        @Override
+        public SortedMap<K, V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        private Iterator<Entry<K, V>> entryIterator() {
+            return descending
+                    ? new EntryIterator(toEnd, hi, hiInclusive, fromStart, lo, loInclusive, true)
+                    : new EntryIterator(fromStart, lo, loInclusive, toEnd, hi, hiInclusive, false);
+        }
+
+        private boolean tooLow(Object key) {
+            if (fromStart) {
+                return false;
+            }
+            int cmp = compare(key, lo);
+            return cmp < 0 || (cmp == 0 && !loInclusive);
+        }
+
+        private boolean tooHigh(Object key) {
+            if (toEnd) {
+                return false;
+            }
+            int cmp = compare(key, hi);
+            return cmp > 0 || (cmp == 0 && !hiInclusive);
+        }
+
+        private boolean inRange(Object key) {
+            Objects.requireNonNull(key);
+
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        /**
+         * Bound of a new sub map may be equal to the exclusive bound of this one if it is exclusive too.
+         */
+        private boolean inRange(Object key, boolean inclusive) {
+            if (inclusive) {
+                return inRange(key);
+            }
+            return (fromStart || compare(key, lo) >= 0) && (toEnd || compare(key, hi) <= 0);
+        }
+
+        private Node<K, V> absLowest() {
+            Node<K, V> node = fromStart ? firstNode() : ceilingNode(lo, loInclusive);
+            return node == null || tooHigh(node.key) ? null : node;
+        }
+
+        private Node<K, V> absHighest() {
+            Node<K, V> node = toEnd ? lastNode() : floorNode(hi, hiInclusive);
+            return node == null || tooLow(node.key) ? null : node;
+        }
+
+        private Node<K, V> absCeiling(Object key) {
+            if (tooLow(key)) {
+                return absLowest();
+            }
+            Node<K, V> node = ceilingNode(key);
+            return node == null || tooHigh(node.key) ? null : node;
+        }
+
+        private Node<K, V> absHigher(Object key) {
+            if (tooLow(key)) {
+                return absLowest();
+            }
+            Node<K, V> node = higherNode(key);
+            return node == null || tooHigh(node.key) ? null : node;
+        }
 
-        public ValuesPair(V newValue) {
-            this.newValue = newValue;
+        private Node<K, V> absFloor(Object key) {
+            if (tooHigh(key)) {
+                return absHighest();
+            }
+            Node<K, V> node = floorNode(key);
+            return node == null || tooLow(node.key) ? null : node;
         }
 
-        public ValuesPair() {
+        private Node<K, V> absLower(Object key) {
+            if (tooHigh(key)) {
+                return absHighest();
+            }
+            Node<K, V> node = lowerNode(key);
+            return node == null || tooLow(node.key) ? null : node;
         }
     }
 }
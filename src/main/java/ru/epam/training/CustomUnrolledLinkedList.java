@@ -0,0 +1,605 @@
+package ru.epam.training;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * <i>Unrolled linked list</i> implementation of the <code>List</code> interface.
+ *
+ * Each node of the doubly linked list keeps up to <code>64</code> elements in an array, so
+ * the list allocates one node per chunk instead of one node per element and a sequential
+ * iteration reads adjacent array cells most of the time. The nodes are closed in a ring
+ * through the pseudo <code>head</code> node the same way as in <code>CustomLinkedList</code>.
+ *
+ * The <code>add(int, T)</code> method splits a full node in halves and the <code>remove(int)</code>
+ * method merges a node with its neighbour when both of them are less than half full. So shifting
+ * elements inside of a node is bounded by the node capacity and nodes stay dense.
+ *
+ * Bulk operations work node by node: <code>toArray</code> copies the array of every node,
+ * <code>addAll</code> fills the free cells of a node and then the new full nodes in one pass,
+ * <code>removeAll</code>, <code>retainAll</code> and <code>removeIf</code> compact every node in place.
+ *
+ * Access by index skips whole nodes from the nearest end of the list, so it runs in
+ * <code>O(n/64)</code> time. The <code>add</code> method runs in constant time.
+ *
+ * <code>CustomUnrolledLinkedList</code> supports <code>null</code> values.
+ *
+ * @param <T> type of values maintained by list.
+ */
+public class CustomUnrolledLinkedList<T> implements List<T> {
+
+    private static final int NODE_CAPACITY = 64;
+    private static final int HASH_LOOKUP_THRESHOLD = 16;
+
+    private final Node head = new Node();
+    private int size = 0;
+    private int modCount = 0;
+
+    public CustomUnrolledLinkedList() {
+        head.next = head;
+        head.prev = head;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Itr(0);
+    }
+
+    @Override
+    public Object[] toArray() {
+        return copyTo(new Object[size]);
+    }
+
+    @Override
+    public <T1> T1[] toArray(T1[] a) {
+        if (a.length < size) {
+            a = (T1[]) Array.newInstance(a.getClass().getComponentType(), size);
+        }
+        copyTo(a);
+        if (a.length > size) {
+            a[size] = null;
+        }
+        return a;
+    }
+
+    @Override
+    public boolean add(T t) {
+        Node last = head.prev;
+        if (last == head || last.count == NODE_CAPACITY) {
+            last = linkAfter(head.prev);
+        }
+        last.elements[last.count++] = t;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    /**
+     * Looks up the elements of a big collection in a <code>HashSet</code> of this list,
+     * so it runs in <code>size + c.size()</code> time instead of <code>size * c.size()</code>.
+     */
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        Collection<?> elements = c.size() > HASH_LOOKUP_THRESHOLD ? new HashSet<>(this) : this;
+        for (Object o : c) {
+            if (!elements.contains(o)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fills the free cells of the last node and then the new full nodes.
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        Object[] elements = c.toArray();
+        if (elements.length == 0) {
+            return false;
+        }
+
+        appendAfter(head.prev, elements);
+        size += elements.length;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Splits the node at the index: the elements of the collection are appended to its head
+     * the same way as by {@link #addAll(Collection)}, and then its tail is appended after them.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends T> c) {
+        checkIfIndexIsAppropriateToAdd(index);
+        if (index == size) {
+            return addAll(c);
+        }
+
+        Object[] elements = c.toArray();
+        if (elements.length == 0) {
+            return false;
+        }
+
+        Cursor cursor = locate(index);
+        Node node = cursor.node;
+        Object[] tail = Arrays.copyOfRange(node.elements, cursor.offset, node.count);
+        Arrays.fill(node.elements, cursor.offset, node.count, null);
+        node.count = cursor.offset;
+
+        appendAfter(appendAfter(node, elements), tail);
+        size += elements.length;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Collection<?> elements = lookupCollection(c);
+        return removeIf(elements::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Collection<?> elements = lookupCollection(c);
+        return removeIf((element) -> !elements.contains(element));
+    }
+
+    /**
+     * Compacts every node in place in a single pass. Empty nodes are unlinked and sparse ones
+     * are merged with the previous node the same way as by <code>remove(int)</code>.
+     * If the filter throws an exception, the elements removed before it stay removed.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+
+        int expectedModCount = modCount;
+        int oldSize = size;
+        boolean comodified;
+        try {
+            Node node = head.next;
+            while (node != head) {
+                Node next = node.next;
+                removeIf(node, filter);
+                node = next;
+            }
+        } finally {
+            comodified = modCount != expectedModCount;
+            if (size != oldSize) {
+                modCount++;
+            }
+        }
+        if (comodified) {
+            throw new ConcurrentModificationException();
+        }
+        return size != oldSize;
+    }
+
+    @Override
+    public void clear() {
+        head.next = head;
+        head.prev = head;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public T get(int index) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        Cursor cursor = locate(index);
+        return (T) cursor.node.elements[cursor.offset];
+    }
+
+    @Override
+    public T set(int index, T element) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        Cursor cursor = locate(index);
+        T oldValue = (T) cursor.node.elements[cursor.offset];
+        cursor.node.elements[cursor.offset] = element;
+
+        return oldValue;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        checkIfIndexIsAppropriateToAdd(index);
+
+        if (index == size) {
+            add(element);
+            return;
+        }
+
+        Cursor cursor = locate(index);
+        Node node = cursor.node;
+        int offset = cursor.offset;
+
+        if (node.count == NODE_CAPACITY) {
+            Node newNode = linkAfter(node);
+            int half = NODE_CAPACITY / 2;
+            System.arraycopy(node.elements, half, newNode.elements, 0, NODE_CAPACITY - half);
+            Arrays.fill(node.elements, half, NODE_CAPACITY, null);
+            node.count = half;
+            newNode.count = NODE_CAPACITY - half;
+
+            if (offset > half) {
+                node = newNode;
+                offset -= half;
+            }
+        }
+
+        System.arraycopy(node.elements, offset, node.elements, offset + 1, node.count - offset);
+        node.elements[offset] = element;
+        node.count++;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        Cursor cursor = locate(index);
+        Node node = cursor.node;
+        int offset = cursor.offset;
+
+        T oldValue = (T) node.elements[offset];
+        System.arraycopy(node.elements, offset + 1, node.elements, offset, node.count - offset - 1);
+        node.elements[--node.count] = null;
+        size--;
+        modCount++;
+
+        if (node.count == 0) {
+            unlink(node);
+        } else if (node.next != head && node.count + node.next.count <= NODE_CAPACITY / 2) {
+            merge(node, node.next);
+        } else if (node.prev != head && node.count + node.prev.count <= NODE_CAPACITY / 2) {
+            merge(node.prev, node);
+        }
+
+        return oldValue;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        int index = 0;
+        for (Node node = head.next; node != head; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                if (Objects.equals(node.elements[i], o)) return index + i;
+            }
+            index += node.count;
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        int index = size;
+        for (Node node = head.prev; node != head; node = node.prev) {
+            index -= node.count;
+            for (int i = node.count - 1; i >= 0; i--) {
+                if (Objects.equals(node.elements[i], o)) return index + i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public ListIterator<T> listIterator() {
+        return new Itr(0);
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        checkIfIndexIsAppropriateToAdd(index);
+
+        return new Itr(index);
+    }
+
+    @Override
+    public List<T> subList(int fromIndex, int toIndex) {
+        return new SubList<>(this, () -> modCount, fromIndex, toIndex);
+    }
+
+    /**
+     * Finds the node which contains element by index. Whole nodes are skipped from the head
+     * if the index is in the first half of the list and from the tail otherwise.
+     * For <code>index == size</code> returns the position after the last element.
+     */
+    private Cursor locate(int index) {
+        if (index < (size >> 1)) {
+            Node node = head.next;
+            int offset = index;
+            while (offset >= node.count) {
+                offset -= node.count;
+                node = node.next;
+            }
+            return new Cursor(node, offset);
+        } else {
+            Node node = head.prev;
+            int offset = index - size + node.count;
+            while (offset < 0) {
+                node = node.prev;
+                offset += node.count;
+            }
+            return new Cursor(node, offset);
+        }
+    }
+
+    /**
+     * Copies the elements to the array node by node.
+     */
+    private <E> E[] copyTo(E[] array) {
+        int index = 0;
+        for (Node node = head.next; node != head; node = node.next) {
+            System.arraycopy(node.elements, 0, array, index, node.count);
+            index += node.count;
+        }
+        return array;
+    }
+
+    /**
+     * Copies the elements to the free cells of the node and the new nodes linked after it.
+     * Doesn't change <code>size</code>.
+     *
+     * @return the last filled node.
+     */
+    private Node appendAfter(Node node, Object[] elements) {
+        int copied = 0;
+        while (copied < elements.length) {
+            if (node == head || node.count == NODE_CAPACITY) {
+                node = linkAfter(node);
+            }
+            int count = Math.min(NODE_CAPACITY - node.count, elements.length - copied);
+            System.arraycopy(elements, copied, node.elements, node.count, count);
+            node.count += count;
+            copied += count;
+        }
+        return node;
+    }
+
+    /**
+     * Removes the matching elements of the node. Kept elements are moved to the head of the node
+     * even if the filter throws an exception.
+     */
+    private void removeIf(Node node, Predicate<? super T> filter) {
+        int i = 0;
+        int kept = 0;
+        try {
+            for (; i < node.count; i++) {
+                Object element = node.elements[i];
+                if (!filter.test((T) element)) {
+                    node.elements[kept++] = element;
+                }
+            }
+        } finally {
+            System.arraycopy(node.elements, i, node.elements, kept, node.count - i);
+            kept += node.count - i;
+            Arrays.fill(node.elements, kept, node.count, null);
+            size -= node.count - kept;
+            node.count = kept;
+
+            if (node.count == 0) {
+                unlink(node);
+            } else if (node.prev != head && node.count + node.prev.count <= NODE_CAPACITY / 2) {
+                merge(node.prev, node);
+            }
+        }
+    }
+
+    /**
+     * Returns a <code>HashSet</code> copy of a big collection which lookups are slow,
+     * the collection itself otherwise.
+     */
+    private static Collection<?> lookupCollection(Collection<?> c) {
+        if (c instanceof Set || c.size() <= HASH_LOOKUP_THRESHOLD) {
+            return c;
+        }
+        return new HashSet<>(c);
+    }
+
+    private Node linkAfter(Node node) {
+        Node newNode = new Node();
+        newNode.prev = node;
+        newNode.next = node.next;
+        node.next.prev = newNode;
+        node.next = newNode;
+        return newNode;
+    }
+
+    private void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+    }
+
+    private void merge(Node node, Node next) {
+        System.arraycopy(next.elements, 0, node.elements, node.count, next.count);
+        node.count += next.count;
+        unlink(next);
+    }
+
+    private void checkIfIndexIsAppropriateToGet(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void checkIfIndexIsAppropriateToAdd(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private static class Node {
+
+        private final Object[] elements = new Object[NODE_CAPACITY];
+        private int count;
+        private Node next;
+        private Node prev;
+    }
+
+    private static class Cursor {
+
+        private final Node node;
+        private final int offset;
+
+        Cursor(Node node, int offset) {
+            this.node = node;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Iterator keeps the node and the offset of the next element, so <code>next</code> and
+     * <code>previous</code> don't search the list. Nodes may be split or merged by
+     * <code>add</code>/<code>remove</code>, so the position is located again after them.
+     */
+    private class Itr implements ListIterator<T> {
+
+        private Node node;
+        private int offset;
+        private int nextIndex;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        Itr(int index) {
+            seek(index);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < size;
+        }
+
+        @Override
+        public T next() {
+            checkForComodification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (offset == node.count) {
+                node = node.next;
+                offset = 0;
+            }
+            lastReturned = nextIndex++;
+            return (T) node.elements[offset++];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        public T previous() {
+            checkForComodification();
+            if (!hasPrevious()) {
+                throw new NoSuchElementException();
+            }
+            if (offset == 0) {
+                node = node.prev;
+                offset = node.count;
+            }
+            lastReturned = --nextIndex;
+            return (T) node.elements[--offset];
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            CustomUnrolledLinkedList.this.remove(lastReturned);
+            seek(lastReturned);
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(T t) {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            CustomUnrolledLinkedList.this.set(lastReturned, t);
+        }
+
+        @Override
+        public void add(T t) {
+            checkForComodification();
+
+            CustomUnrolledLinkedList.this.add(nextIndex, t);
+            seek(nextIndex + 1);
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        private void seek(int index) {
+            nextIndex = index;
+            if (index == size) {
+                node = head.prev;
+                offset = node.count;
+            } else {
+                Cursor cursor = locate(index);
+                node = cursor.node;
+                offset = cursor.offset;
+            }
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package ru.epam.training;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <i>Array</i> list of primitive <code>double</code> values.
+ *
+ * The same as <code>CustomArrayList</code>, but values are stored in <code>double[]</code>, so
+ * there is no <code>Double</code> object per element. Inner array is resizable. Every time list
+ * size is getting equals to capacity it multiplies by <code>3/2</code>.
+ *
+ * The <code>get</code>, <code>set</code>, <code>add</code> methods run in constant time
+ * (exclude the situation then <code>size == capacity</code>). The <code>add(int, double)</code>,
+ * <code>remove(int)</code> methods shift the tail of the list by <code>System.arrayCopy</code>.
+ *
+ * The list itself isn't a <code>List</code>. {@link #asList()} returns <code>List&lt;Double&gt;</code>
+ * view of it, which boxes values on every call.
+ *
+ * Values are compared the same way as <code>Double.equals</code> does, so <code>NaN</code>
+ * can be found and <code>0.0</code> is not equal to <code>-0.0</code>.
+ */
+public class DoubleArrayList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private double[] data = new double[DEFAULT_CAPACITY];
+    private int size = 0;
+
+    private List<Double> listView;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(double value) {
+        return indexOf(value) >= 0;
+    }
+
+    public double get(int index) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        return data[index];
+    }
+
+    public double set(int index, double value) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        double oldValue = data[index];
+        data[index] = value;
+
+        return oldValue;
+    }
+
+    public void add(double value) {
+        ensureCapacity(size + 1);
+
+        data[size++] = value;
+    }
+
+    public void add(int index, double value) {
+        checkIfIndexIsAppropriateToAdd(index);
+        ensureCapacity(size + 1);
+
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    /**
+     * Appends all the values to the end of the list. Inner array is resized at most once.
+     */
+    public void addAll(double... values) {
+        ensureCapacity(size + values.length);
+
+        System.arraycopy(values, 0, data, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * Removes value by its index.
+     *
+     * @return removed value.
+     */
+    public double remove(int index) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        double oldValue = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+
+        return oldValue;
+    }
+
+    /**
+     * Removes the first occurrence of the value.
+     *
+     * @return <code>true</code> if the list contained the value.
+     */
+    public boolean removeValue(double value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    public int indexOf(double value) {
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(data[i]) == Double.doubleToLongBits(value)) return i;
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(double value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (Double.doubleToLongBits(data[i]) == Double.doubleToLongBits(value)) return i;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        data = new double[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    /**
+     * Returns <code>List</code> view of this list. Changes of the view are reflected
+     * in the list and vice-versa.
+     */
+    public List<Double> asList() {
+        if (listView == null) {
+            listView = new ListView();
+        }
+        return listView;
+    }
+
+    private void checkIfIndexIsAppropriateToAdd(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void checkIfIndexIsAppropriateToGet(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            int newLength = Math.max(data.length * 3 / 2 + 1, minCapacity);
+            data = Arrays.copyOf(data, newLength);
+        }
+    }
+
+    private class ListView extends AbstractList<Double> implements RandomAccess {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Double && DoubleArrayList.this.contains((Double) o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof Double ? DoubleArrayList.this.indexOf((Double) o) : -1;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return o instanceof Double ? DoubleArrayList.this.lastIndexOf((Double) o) : -1;
+        }
+
+        @Override
+        public Double get(int index) {
+            return DoubleArrayList.this.get(index);
+        }
+
+        @Override
+        public Double set(int index, Double element) {
+            return DoubleArrayList.this.set(index, element);
+        }
+
+        @Override
+        public void add(int index, Double element) {
+            DoubleArrayList.this.add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public Double remove(int index) {
+            Double oldValue = DoubleArrayList.this.remove(index);
+            modCount++;
+            return oldValue;
+        }
+
+        @Override
+        public void clear() {
+            DoubleArrayList.this.clear();
+            modCount++;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package ru.epam.training;
+
+import java.util.*;
+
+/**
+ * <i>Open addressing hash table</i> with primitive <code>int</code> keys and values.
+ *
+ * Keys and values are kept in two <code>int[]</code> arrays, so neither <code>put</code> nor
+ * <code>get</code> boxes anything, and the map doesn't keep any object per entry.
+ * Collisions are resolved by <i>linear probing</i> and removed keys are shifted back the same way
+ * as in <code>CustomOpenHashMap</code>.
+ *
+ * Slot with key <code>0</code> is treated as an empty one, so the value of the key <code>0</code>
+ * is kept apart from the arrays.
+ *
+ * Capacity of the arrays is always a power of two. Each time the map <i>load factor</i>
+ * (<code>size/capacity</code>) is getting bigger than <code>0.5</code> capacity doubles.
+ *
+ * Methods which return a value return <code>0</code> if there is no such key. Use
+ * {@link #containsKey(int)} or {@link #getOrDefault(int, int)} to tell it apart from a stored zero.
+ *
+ * The map itself isn't a <code>Map</code>. {@link #asMap()} returns <code>Map&lt;Integer, Integer&gt;</code>
+ * view of it, which boxes keys and values on every call. The view is shared with the other primitive
+ * maps by {@link PrimitiveKeyMapView}.
+ */
+public class IntIntHashMap {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    private static final int FREE_KEY = 0;
+    private static final int NO_VALUE = 0;
+
+    private int[] keys = new int[DEFAULT_CAPACITY];
+    private int[] values = new int[DEFAULT_CAPACITY];
+    private int size = 0;
+    private int threshold = threshold(DEFAULT_CAPACITY);
+    private int modCount = 0;
+
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    private Map<Integer, Integer> mapView;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public boolean containsValue(int value) {
+        if (hasFreeKey && freeKeyValue == value) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY && values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int get(int key) {
+        return getOrDefault(key, NO_VALUE);
+    }
+
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    public int put(int key, int value) {
+        if (key == FREE_KEY) {
+            int oldValue = freeKeyValue;
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+                modCount++;
+            }
+            freeKeyValue = value;
+            return oldValue;
+        }
+
+        ensureCapacity();
+
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+
+        int currentKey;
+        while ((currentKey = keys[index]) != FREE_KEY) {
+            if (currentKey == key) {
+                int oldValue = values[index];
+                values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        modCount++;
+
+        return NO_VALUE;
+    }
+
+    public int remove(int key) {
+        if (key == FREE_KEY) {
+            int oldValue = freeKeyValue;
+            if (hasFreeKey) {
+                hasFreeKey = false;
+                freeKeyValue = NO_VALUE;
+                size--;
+                modCount++;
+            }
+            return oldValue;
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return NO_VALUE;
+        }
+
+        int oldValue = values[index];
+        shiftKeysBack(index, null);
+        size--;
+        modCount++;
+
+        return oldValue;
+    }
+
+    public void clear() {
+        keys = new int[DEFAULT_CAPACITY];
+        values = new int[DEFAULT_CAPACITY];
+        threshold = threshold(DEFAULT_CAPACITY);
+        hasFreeKey = false;
+        freeKeyValue = NO_VALUE;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns <code>Map</code> view of this map. Changes of the view are reflected
+     * in the map and vice-versa. Iterators of the view are <i>fail-fast</i> and support removal.
+     */
+    public Map<Integer, Integer> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+
+        int currentKey;
+        while ((currentKey = keys[index]) != FREE_KEY) {
+            if (currentKey == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Fills the gap left by the removed key the same way as <code>CustomOpenHashMap</code> does.
+     *
+     * @param wrapped keys shifted across the end of the arrays are added to it, if it isn't <code>null</code>.
+     */
+    private void shiftKeysBack(int gap, List<Integer> wrapped) {
+        int mask = keys.length - 1;
+        int index = gap;
+
+        while (true) {
+            index = (index + 1) & mask;
+
+            int currentKey = keys[index];
+            if (currentKey == FREE_KEY) {
+                break;
+            }
+
+            int ownIndex = hash(currentKey) & mask;
+            if (((index - ownIndex) & mask) >= ((index - gap) & mask)) {
+                if (wrapped != null && index < gap) {
+                    wrapped.add(currentKey);
+                }
+                keys[gap] = currentKey;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+
+        keys[gap] = FREE_KEY;
+        values[gap] = NO_VALUE;
+    }
+
+    private void ensureCapacity() {
+        if (size >= threshold) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+
+            int newCapacity = oldKeys.length << 1;
+            int mask = newCapacity - 1;
+
+            keys = new int[newCapacity];
+            values = new int[newCapacity];
+            threshold = threshold(newCapacity);
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                int currentKey = oldKeys[i];
+                if (currentKey != FREE_KEY) {
+                    int index = hash(currentKey) & mask;
+                    while (keys[index] != FREE_KEY) {
+                        index = (index + 1) & mask;
+                    }
+                    keys[index] = currentKey;
+                    values[index] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int threshold(int capacity) {
+        return (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    private class MapView extends PrimitiveKeyMapView<Integer, Integer> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Objects.requireNonNull(key);
+
+            return key instanceof Integer && IntIntHashMap.this.containsKey((Integer) key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return value instanceof Integer && IntIntHashMap.this.containsValue((Integer) value);
+        }
+
+        @Override
+        public Integer get(Object key) {
+            Objects.requireNonNull(key);
+
+            if (!(key instanceof Integer)) {
+                return null;
+            }
+
+            int intKey = (Integer) key;
+            if (intKey == FREE_KEY) {
+                return hasFreeKey ? freeKeyValue : null;
+            }
+
+            int index = indexOf(intKey);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public Integer put(Integer key, Integer value) {
+            Integer oldValue = get(key);
+            IntIntHashMap.this.put(key, value);
+            return oldValue;
+        }
+
+        @Override
+        public Integer remove(Object key) {
+            Integer oldValue = get(key);
+            if (oldValue != null) {
+                IntIntHashMap.this.remove((Integer) key);
+            }
+            return oldValue;
+        }
+
+        @Override
+        public void clear() {
+            IntIntHashMap.this.clear();
+        }
+
+        @Override
+        int modCount() {
+            return modCount;
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        boolean isFree(int slot) {
+            return keys[slot] == FREE_KEY;
+        }
+
+        @Override
+        Integer key(int slot) {
+            return keys[slot];
+        }
+
+        @Override
+        Integer value(int slot) {
+            return values[slot];
+        }
+
+        @Override
+        boolean hasFreeKey() {
+            return hasFreeKey;
+        }
+
+        @Override
+        Integer freeKey() {
+            return FREE_KEY;
+        }
+
+        @Override
+        Integer freeKeyValue() {
+            return freeKeyValue;
+        }
+
+        @Override
+        void removeSlot(int slot, List<Integer> wrapped) {
+            shiftKeysBack(slot, wrapped);
+            size--;
+            modCount++;
+        }
+    }
+}
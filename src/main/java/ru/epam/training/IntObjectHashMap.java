@@ -0,0 +1,332 @@
+package ru.epam.training;
+
+import java.util.*;
+
+/**
+ * <i>Open addressing hash table</i> with primitive <code>int</code> keys.
+ *
+ * Keys are kept in <code>int[]</code> and values in <code>Object[]</code> array, so neither
+ * <code>put</code> nor <code>get</code> boxes the key, and the map doesn't keep any object per entry.
+ * Collisions are resolved by <i>linear probing</i> and removed keys are shifted back the same way
+ * as in <code>CustomOpenHashMap</code>.
+ *
+ * Slot with key <code>0</code> is treated as an empty one, so the value of the key <code>0</code>
+ * is kept apart from the arrays.
+ *
+ * Capacity of the arrays is always a power of two. Each time the map <i>load factor</i>
+ * (<code>size/capacity</code>) is getting bigger than <code>0.5</code> capacity doubles.
+ *
+ * The map itself isn't a <code>Map</code>. {@link #asMap()} returns <code>Map&lt;Integer, V&gt;</code>
+ * view of it, which boxes keys on every call. The view is shared with the other primitive maps
+ * by {@link PrimitiveKeyMapView}.
+ *
+ * <code>IntObjectHashMap</code> supports null values.
+ *
+ * @param <V> type of values maintained by map.
+ */
+public class IntObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    private static final int FREE_KEY = 0;
+
+    private int[] keys = new int[DEFAULT_CAPACITY];
+    private Object[] values = new Object[DEFAULT_CAPACITY];
+    private int size = 0;
+    private int threshold = threshold(DEFAULT_CAPACITY);
+    private int modCount = 0;
+
+    private boolean hasFreeKey;
+    private V freeKeyValue;
+
+    private Map<Integer, V> mapView;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    public boolean containsValue(Object value) {
+        if (hasFreeKey && Objects.equals(freeKeyValue, value)) {
+            return true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE_KEY && Objects.equals(values[i], value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public V get(int key) {
+        if (key == FREE_KEY) {
+            return freeKeyValue;
+        }
+
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public V put(int key, V value) {
+        if (key == FREE_KEY) {
+            V oldValue = freeKeyValue;
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+                modCount++;
+            }
+            freeKeyValue = value;
+            return oldValue;
+        }
+
+        ensureCapacity();
+
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+
+        int currentKey;
+        while ((currentKey = keys[index]) != FREE_KEY) {
+            if (currentKey == key) {
+                V oldValue = (V) values[index];
+                values[index] = value;
+                return oldValue;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        modCount++;
+
+        return null;
+    }
+
+    public V remove(int key) {
+        if (key == FREE_KEY) {
+            V oldValue = freeKeyValue;
+            if (hasFreeKey) {
+                hasFreeKey = false;
+                freeKeyValue = null;
+                size--;
+                modCount++;
+            }
+            return oldValue;
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+
+        V oldValue = (V) values[index];
+        shiftKeysBack(index, null);
+        size--;
+        modCount++;
+
+        return oldValue;
+    }
+
+    public void clear() {
+        keys = new int[DEFAULT_CAPACITY];
+        values = new Object[DEFAULT_CAPACITY];
+        threshold = threshold(DEFAULT_CAPACITY);
+        hasFreeKey = false;
+        freeKeyValue = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns <code>Map</code> view of this map. Changes of the view are reflected
+     * in the map and vice-versa. Iterators of the view are <i>fail-fast</i> and support removal.
+     */
+    public Map<Integer, V> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+
+        int currentKey;
+        while ((currentKey = keys[index]) != FREE_KEY) {
+            if (currentKey == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Fills the gap left by the removed key the same way as <code>CustomOpenHashMap</code> does.
+     *
+     * @param wrapped keys shifted across the end of the arrays are added to it, if it isn't <code>null</code>.
+     */
+    private void shiftKeysBack(int gap, List<Integer> wrapped) {
+        int mask = keys.length - 1;
+        int index = gap;
+
+        while (true) {
+            index = (index + 1) & mask;
+
+            int currentKey = keys[index];
+            if (currentKey == FREE_KEY) {
+                break;
+            }
+
+            int ownIndex = hash(currentKey) & mask;
+            if (((index - ownIndex) & mask) >= ((index - gap) & mask)) {
+                if (wrapped != null && index < gap) {
+                    wrapped.add(currentKey);
+                }
+                keys[gap] = currentKey;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+
+        keys[gap] = FREE_KEY;
+        values[gap] = null;
+    }
+
+    private void ensureCapacity() {
+        if (size >= threshold) {
+            int[] oldKeys = keys;
+            Object[] oldValues = values;
+
+            int newCapacity = oldKeys.length << 1;
+            int mask = newCapacity - 1;
+
+            keys = new int[newCapacity];
+            values = new Object[newCapacity];
+            threshold = threshold(newCapacity);
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                int currentKey = oldKeys[i];
+                if (currentKey != FREE_KEY) {
+                    int index = hash(currentKey) & mask;
+                    while (keys[index] != FREE_KEY) {
+                        index = (index + 1) & mask;
+                    }
+                    keys[index] = currentKey;
+                    values[index] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int threshold(int capacity) {
+        return (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    private class MapView extends PrimitiveKeyMapView<Integer, V> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            Objects.requireNonNull(key);
+
+            return key instanceof Integer && IntObjectHashMap.this.containsKey((Integer) key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            return IntObjectHashMap.this.containsValue(value);
+        }
+
+        @Override
+        public V get(Object key) {
+            Objects.requireNonNull(key);
+
+            return key instanceof Integer ? IntObjectHashMap.this.get((Integer) key) : null;
+        }
+
+        @Override
+        public V put(Integer key, V value) {
+            return IntObjectHashMap.this.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            Objects.requireNonNull(key);
+
+            return key instanceof Integer ? IntObjectHashMap.this.remove((Integer) key) : null;
+        }
+
+        @Override
+        public void clear() {
+            IntObjectHashMap.this.clear();
+        }
+
+        @Override
+        int modCount() {
+            return modCount;
+        }
+
+        @Override
+        int capacity() {
+            return keys.length;
+        }
+
+        @Override
+        boolean isFree(int slot) {
+            return keys[slot] == FREE_KEY;
+        }
+
+        @Override
+        Integer key(int slot) {
+            return keys[slot];
+        }
+
+        @Override
+        V value(int slot) {
+            return (V) values[slot];
+        }
+
+        @Override
+        boolean hasFreeKey() {
+            return hasFreeKey;
+        }
+
+        @Override
+        Integer freeKey() {
+            return FREE_KEY;
+        }
+
+        @Override
+        V freeKeyValue() {
+            return freeKeyValue;
+        }
+
+        @Override
+        void removeSlot(int slot, List<Integer> wrapped) {
+            shiftKeysBack(slot, wrapped);
+            size--;
+            modCount++;
+        }
+    }
+}
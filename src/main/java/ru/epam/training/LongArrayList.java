@@ -0,0 +1,216 @@
+package ru.epam.training;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * <i>Array</i> list of primitive <code>long</code> values.
+ *
+ * The same as <code>CustomArrayList</code>, but values are stored in <code>long[]</code>, so
+ * there is no <code>Long</code> object per element. Inner array is resizable. Every time list
+ * size is getting equals to capacity it multiplies by <code>3/2</code>.
+ *
+ * The <code>get</code>, <code>set</code>, <code>add</code> methods run in constant time
+ * (exclude the situation then <code>size == capacity</code>). The <code>add(int, long)</code>,
+ * <code>remove(int)</code> methods shift the tail of the list by <code>System.arrayCopy</code>.
+ *
+ * The list itself isn't a <code>List</code>. {@link #asList()} returns <code>List&lt;Long&gt;</code>
+ * view of it, which boxes values on every call.
+ */
+public class LongArrayList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private long[] data = new long[DEFAULT_CAPACITY];
+    private int size = 0;
+
+    private List<Long> listView;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long value) {
+        return indexOf(value) >= 0;
+    }
+
+    public long get(int index) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        return data[index];
+    }
+
+    public long set(int index, long value) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        long oldValue = data[index];
+        data[index] = value;
+
+        return oldValue;
+    }
+
+    public void add(long value) {
+        ensureCapacity(size + 1);
+
+        data[size++] = value;
+    }
+
+    public void add(int index, long value) {
+        checkIfIndexIsAppropriateToAdd(index);
+        ensureCapacity(size + 1);
+
+        System.arraycopy(data, index, data, index + 1, size - index);
+        data[index] = value;
+        size++;
+    }
+
+    /**
+     * Appends all the values to the end of the list. Inner array is resized at most once.
+     */
+    public void addAll(long... values) {
+        ensureCapacity(size + values.length);
+
+        System.arraycopy(values, 0, data, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * Removes value by its index.
+     *
+     * @return removed value.
+     */
+    public long remove(int index) {
+        checkIfIndexIsAppropriateToGet(index);
+
+        long oldValue = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+
+        return oldValue;
+    }
+
+    /**
+     * Removes the first occurrence of the value.
+     *
+     * @return <code>true</code> if the list contained the value.
+     */
+    public boolean removeValue(long value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    public int indexOf(long value) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == value) return i;
+        }
+        return -1;
+    }
+
+    public int lastIndexOf(long value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (data[i] == value) return i;
+        }
+        return -1;
+    }
+
+    public void clear() {
+        data = new long[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    /**
+     * Returns <code>List</code> view of this list. Changes of the view are reflected
+     * in the list and vice-versa.
+     */
+    public List<Long> asList() {
+        if (listView == null) {
+            listView = new ListView();
+        }
+        return listView;
+    }
+
+    private void checkIfIndexIsAppropriateToAdd(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void checkIfIndexIsAppropriateToGet(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > data.length) {
+            int newLength = Math.max(data.length * 3 / 2 + 1, minCapacity);
+            data = Arrays.copyOf(data, newLength);
+        }
+    }
+
+    private class ListView extends AbstractList<Long> implements RandomAccess {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Long && LongArrayList.this.contains((Long) o);
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof Long ? LongArrayList.this.indexOf((Long) o) : -1;
+        }
+
+        @Override
+        public int lastIndexOf(Object o) {
+            return o instanceof Long ? LongArrayList.this.lastIndexOf((Long) o) : -1;
+        }
+
+        @Override
+        public Long get(int index) {
+            return LongArrayList.this.get(index);
+        }
+
+        @Override
+        public Long set(int index, Long element) {
+            return LongArrayList.this.set(index, element);
+        }
+
+        @Override
+        public void add(int index, Long element) {
+            LongArrayList.this.add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public Long remove(int index) {
+            Long oldValue = LongArrayList.this.remove(index);
+            modCount++;
+            return oldValue;
+        }
+
+        @Override
+        public void clear() {
+            LongArrayList.this.clear();
+            modCount++;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package ru.epam.training;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import static ru.epam.training.ByteBuffers.copyBytes;
+import static ru.epam.training.ByteBuffers.free;
+
+/**
+ * List of fixed-width records kept in a memory-mapped file.
+ *
+ * Elements are written by a {@link Serializer} one after another to the <i>slabs</i> mapped from
+ * the file after its header. The first slab holds <code>1024</code> records and every next one is
+ * as big as all the previous, so growth maps one more slab and copies nothing, and the record
+ * of an index is found by its highest bit.
+ *
+ * The size in the header is the only commit point of <code>add</code>: the record is written
+ * and forced to the file before the size is changed, so a crash leaves either the old list or the
+ * list with the new record. <code>addAll</code> commits a batch the same way: all the records are
+ * written, their slabs are forced once and only then the size is changed, so appending <code>k</code>
+ * records costs one <code>force</code> instead of <code>k</code>. Reopening the file maps the slabs of the committed records and reads
+ * nothing but the header. <code>set</code> overwrites the record in place, <code>add(int, T)</code>
+ * and <code>remove(int)</code> shift the following records and aren't crash-consistent.
+ *
+ * {@link #force()} writes the changed records to the file, {@link #close()} forces the list
+ * and unmaps the file, the closed list throws <code>IllegalStateException</code>.
+ *
+ * <code>MappedArrayList</code> doesn't support null elements and isn't thread-safe.
+ *
+ * @param <T> type of elements.
+ */
+public class MappedArrayList<T> extends AbstractList<T> implements RandomAccess, AutoCloseable {
+
+    private static final int FIRST_SLAB_SHIFT = 10;
+    private static final int MAX_SLABS = Integer.SIZE - FIRST_SLAB_SHIFT;
+
+    private static final int MAGIC = 0x4D414C31;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int RECORD_SIZE_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+
+    private final Serializer<T> serializer;
+    private final int recordSize;
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ByteBuffer[] slabs = new ByteBuffer[MAX_SLABS];
+    private int slabCount;
+    private int size;
+    private boolean closed;
+
+    private MappedArrayList(Serializer<T> serializer, FileChannel channel, MappedByteBuffer header) {
+        this.serializer = serializer;
+        this.recordSize = serializer.size();
+        this.channel = channel;
+        this.header = header;
+    }
+
+    /**
+     * Opens the list kept in the file or creates the empty one if the file is empty or doesn't exist.
+     *
+     * @throws IOException if the file can't be mapped.
+     * @throws IllegalArgumentException if the file isn't a list of the records of this size.
+     */
+    public static <T> MappedArrayList<T> open(Path file, Serializer<T> serializer) throws IOException {
+        Objects.requireNonNull(serializer);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean isNew = channel.size() == 0;
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        MappedArrayList<T> list = new MappedArrayList<>(serializer, channel, header);
+
+        if (isNew) {
+            header.putInt(MAGIC_OFFSET, MAGIC);
+            header.putInt(RECORD_SIZE_OFFSET, list.recordSize);
+            header.putInt(SIZE_OFFSET, 0);
+            header.force();
+        } else if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(RECORD_SIZE_OFFSET) != list.recordSize) {
+            list.close();
+            throw new IllegalArgumentException("File " + file + " isn't a list of these records");
+        }
+
+        try {
+            list.size = header.getInt(SIZE_OFFSET);
+            list.ensureCapacity(list.size);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return list;
+    }
+
+    @Override
+    public T get(int index) {
+        checkIfNotClosed();
+        checkIndex(index, size);
+
+        return serializer.read(slab(index), offset(index));
+    }
+
+    @Override
+    public T set(int index, T element) {
+        Objects.requireNonNull(element);
+        checkIfNotClosed();
+        checkIndex(index, size);
+
+        T oldElement = serializer.read(slab(index), offset(index));
+        serializer.write(element, slab(index), offset(index));
+        return oldElement;
+    }
+
+    /**
+     * Writes and forces the record, then commits it by the size in the header.
+     */
+    @Override
+    public boolean add(T element) {
+        Objects.requireNonNull(element);
+        checkIfNotClosed();
+
+        ensureCapacity(size + 1);
+        ByteBuffer slab = slab(size);
+        serializer.write(element, slab, offset(size));
+        ((MappedByteBuffer) slab).force();
+
+        size++;
+        modCount++;
+        writeSize();
+        return true;
+    }
+
+    /**
+     * Writes all the records, forces the slabs they were written to once, then commits
+     * all of them by the size in the header.
+     */
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        checkIfNotClosed();
+
+        Object[] elements = c.toArray();
+        if (elements.length == 0) {
+            return false;
+        }
+
+        int newSize = size + elements.length;
+        ensureCapacity(newSize);
+        for (int i = size; i < newSize; i++) {
+            T element = (T) Objects.requireNonNull(elements[i - size]);
+            serializer.write(element, slab(i), offset(i));
+        }
+        for (int slab = slabOf(size); slab <= slabOf(newSize - 1); slab++) {
+            ((MappedByteBuffer) slabs[slab]).force();
+        }
+
+        size = newSize;
+        modCount++;
+        writeSize();
+        return true;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        Objects.requireNonNull(element);
+        checkIfNotClosed();
+        checkIndex(index, size + 1);
+
+        ensureCapacity(size + 1);
+        for (int i = size; i > index; i--) {
+            copyBytes(slab(i - 1), offset(i - 1), slab(i), offset(i), recordSize);
+        }
+        serializer.write(element, slab(index), offset(index));
+
+        size++;
+        modCount++;
+        writeSize();
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIfNotClosed();
+        checkIndex(index, size);
+
+        T oldElement = serializer.read(slab(index), offset(index));
+        for (int i = index + 1; i < size; i++) {
+            copyBytes(slab(i), offset(i), slab(i - 1), offset(i - 1), recordSize);
+        }
+
+        size--;
+        modCount++;
+        writeSize();
+        return oldElement;
+    }
+
+    @Override
+    public void clear() {
+        checkIfNotClosed();
+
+        size = 0;
+        modCount++;
+        writeSize();
+    }
+
+    @Override
+    public int size() {
+        checkIfNotClosed();
+        return size;
+    }
+
+    /**
+     * Writes the changed records and the header to the file.
+     */
+    public void force() {
+        checkIfNotClosed();
+
+        for (int i = 0; i < slabCount; i++) {
+            ((MappedByteBuffer) slabs[i]).force();
+        }
+        header.force();
+    }
+
+    /**
+     * Forces the list and unmaps the file. The closed list can't be used anymore.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        force();
+        closed = true;
+
+        for (int i = 0; i < slabCount; i++) {
+            free(slabs[i]);
+            slabs[i] = null;
+        }
+        free(header);
+        slabCount = 0;
+        size = 0;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps the slabs for <code>minCapacity</code> records.
+     */
+    private void ensureCapacity(int minCapacity) {
+        try {
+            while (minCapacity > capacity(slabCount)) {
+                if (slabCount == MAX_SLABS) {
+                    throw new IllegalStateException("List is full");
+                }
+                long from = HEADER_BYTES + (long) capacity(slabCount) * recordSize;
+                long bytes = (long) slabSize(slabCount) * recordSize;
+                if (bytes > Integer.MAX_VALUE) {
+                    throw new IllegalStateException("List is full");
+                }
+                slabs[slabCount++] = channel.map(FileChannel.MapMode.READ_WRITE, from, bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeSize() {
+        header.putInt(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Number of records in the first <code>slabCount</code> slabs.
+     */
+    private static int capacity(int slabCount) {
+        return slabCount == 0 ? 0 : 1 << (FIRST_SLAB_SHIFT + slabCount - 1);
+    }
+
+    private static int slabSize(int slab) {
+        return slab == 0 ? 1 << FIRST_SLAB_SHIFT : capacity(slab);
+    }
+
+    private static int slabOf(int index) {
+        return Math.max(0, Integer.SIZE - FIRST_SLAB_SHIFT - Integer.numberOfLeadingZeros(index));
+    }
+
+    private ByteBuffer slab(int index) {
+        return slabs[slabOf(index)];
+    }
+
+    private int offset(int index) {
+        return (index - capacity(slabOf(index))) * recordSize;
+    }
+
+    private void checkIfNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("List is closed");
+        }
+    }
+
+    private static void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+        }
+    }
+}
@@ -0,0 +1,697 @@
+package ru.epam.training;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static ru.epam.training.ByteBuffers.bytesEqual;
+import static ru.epam.training.ByteBuffers.copyBytes;
+import static ru.epam.training.ByteBuffers.free;
+
+/**
+ * <i>Open addressing hash table</i> which keeps keys and values out of the java heap.
+ *
+ * Keys and values are written by {@link Serializer}s to slots of the fixed size in <i>direct</i>
+ * <code>ByteBuffer</code>s, <i>slabs</i>, of at most <code>1 GiB</code> each. A slot holds the hash
+ * of the key, the key and the value. So the heap holds only the map, its slabs and serializers
+ * regardless of the number of entries, and garbage collector has nothing to scan.
+ *
+ * As in <code>CustomOpenHashMap</code> collisions are resolved by <i>linear probing</i>,
+ * capacity is a power of two and doubles when the <i>load factor</i> is getting bigger than
+ * <code>0.5</code>, and <code>remove</code> shifts the following slots back instead of leaving
+ * <i>tombstones</i>.
+ *
+ * Keys are compared and hashed by their serialized bytes, not by <code>equals</code> and
+ * <code>hashCode</code>. A lookup writes the key to a small buffer and reads nothing but the slots,
+ * the value is deserialized only by <code>get</code>.
+ *
+ * The map made by {@link #open(Path, Serializer, Serializer)} keeps the slabs in a memory-mapped file,
+ * so reopening the file serves the entries right away without reading or hashing them. The header
+ * of the file holds the size of the map and the <i>clean</i> flag, which is cleared on the first change
+ * after {@link #force()} and set back by it. The file of a map which wasn't forced or closed, e.g. after
+ * a crash, is rebuilt on open. Resize writes the bigger table to a new file which then replaces the old
+ * one, so the old file stays whole until the new one is complete.
+ *
+ * Memory of the slabs isn't freed by garbage collection until the map itself is collected.
+ * {@link #close()} frees it right away (on Java 8 it only releases the slabs to the collector),
+ * the closed map throws <code>IllegalStateException</code>.
+ *
+ * <code>keySet</code>, <code>values</code> and <code>entrySet</code> are read-only views which
+ * deserialize every visited entry, their iterators are <i>fail-fast</i>.
+ *
+ * <code>OffHeapHashMap</code> doesn't support null keys and values and isn't thread-safe.
+ *
+ * @param <K> type of keys maintained by map.
+ * @param <V> type of values maintained by map.
+ */
+public class OffHeapHashMap<K, V> implements Map<K, V>, AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    private static final int MAX_SLAB_BYTES = 1 << 30;
+
+    private static final int HASH_BYTES = Integer.BYTES;
+    private static final int EMPTY = 0;
+    private static final int OCCUPIED = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x4F484D31;
+    private static final int HEADER_BYTES = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int KEY_SIZE_OFFSET = 4;
+    private static final int VALUE_SIZE_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int SIZE_OFFSET = 16;
+    private static final int CLEAN_OFFSET = 20;
+
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+    private final int keySize;
+    private final int slotSize;
+    private final int valueOffset;
+
+    private final ByteBuffer keyBuffer;
+    private final ByteBuffer valueBuffer;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer header;
+    private boolean dirty;
+
+    private ByteBuffer[] slabs;
+    private int capacity;
+    private int slabShift;
+    private int threshold;
+    private int size;
+    private int modCount;
+    private boolean closed;
+
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<Entry<K, V>> entrySet;
+
+    public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+        this(keySerializer, valueSerializer, 0);
+    }
+
+    /**
+     * @param expectedSize number of entries the map holds without resize.
+     */
+    public OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer, int expectedSize) {
+        this(keySerializer, valueSerializer, null);
+
+        allocate(capacityFor(expectedSize));
+    }
+
+    private OffHeapHashMap(Serializer<K> keySerializer, Serializer<V> valueSerializer, Path file) {
+        this.keySerializer = Objects.requireNonNull(keySerializer);
+        this.valueSerializer = Objects.requireNonNull(valueSerializer);
+        this.keySize = keySerializer.size();
+        this.valueOffset = HASH_BYTES + keySize;
+        this.slotSize = valueOffset + valueSerializer.size();
+        this.keyBuffer = ByteBuffer.allocate(keySize);
+        this.valueBuffer = ByteBuffer.allocate(valueSerializer.size());
+        this.file = file;
+    }
+
+    /**
+     * Opens the map kept in the file or creates the empty one if there is no such file.
+     *
+     * @throws IOException if the file can't be mapped.
+     * @throws IllegalArgumentException if the file isn't a map of the keys and values of these sizes.
+     */
+    public static <K, V> OffHeapHashMap<K, V> open(Path file, Serializer<K> keySerializer,
+                                                   Serializer<V> valueSerializer) throws IOException {
+        OffHeapHashMap<K, V> map = new OffHeapHashMap<>(keySerializer, valueSerializer, file);
+        try {
+            if (Files.exists(file)) {
+                map.mapExistingFile();
+            } else {
+                map.allocate(DEFAULT_CAPACITY);
+                map.commit();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return map;
+    }
+
+    @Override
+    public int size() {
+        checkIfNotClosed();
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Objects.requireNonNull(key);
+        checkIfNotClosed();
+
+        return indexOf(writeKey(key)) >= 0;
+    }
+
+    /**
+     * Compares serialized bytes of the value with the values of all the slots.
+     */
+    @Override
+    public boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        checkIfNotClosed();
+
+        valueSerializer.write((V) value, valueBuffer, 0);
+        for (int slot = 0; slot < capacity; slot++) {
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            if (slab.getInt(offset) != EMPTY
+                    && bytesEqual(slab, offset + valueOffset, valueBuffer, 0, valueBuffer.capacity())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V get(Object key) {
+        Objects.requireNonNull(key);
+        checkIfNotClosed();
+
+        int slot = indexOf(writeKey(key));
+        return slot < 0 ? null : valueSerializer.read(slab(slot), offset(slot) + valueOffset);
+    }
+
+    /**
+     * A new key is written to the slot before its hash, which marks the slot as occupied.
+     */
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        checkIfNotClosed();
+
+        ensureCapacity();
+        markDirty();
+
+        int hash = writeKey(key);
+        int mask = capacity - 1;
+        int slot = hash & mask;
+
+        while (true) {
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            int slotHash = slab.getInt(offset);
+            if (slotHash == EMPTY) {
+                copyBytes(keyBuffer, 0, slab, offset + HASH_BYTES, keySize);
+                valueSerializer.write(value, slab, offset + valueOffset);
+                slab.putInt(offset, hash);
+                size++;
+                modCount++;
+                writeSize();
+                return null;
+            }
+            if (slotHash == hash && bytesEqual(slab, offset + HASH_BYTES, keyBuffer, 0, keySize)) {
+                V oldValue = valueSerializer.read(slab, offset + valueOffset);
+                valueSerializer.write(value, slab, offset + valueOffset);
+                return oldValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        Objects.requireNonNull(key);
+        checkIfNotClosed();
+
+        int slot = indexOf(writeKey(key));
+        if (slot < 0) {
+            return null;
+        }
+
+        markDirty();
+        V oldValue = valueSerializer.read(slab(slot), offset(slot) + valueOffset);
+        shiftSlotsBack(slot);
+        size--;
+        modCount++;
+        writeSize();
+
+        return oldValue;
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        checkIfNotClosed();
+
+        ByteBuffer[] oldSlabs = slabs;
+        FileChannel oldChannel = channel;
+        MappedByteBuffer oldHeader = header;
+        allocate(DEFAULT_CAPACITY);
+        size = 0;
+        modCount++;
+        commit();
+        release(oldSlabs, oldChannel, oldHeader);
+    }
+
+    /**
+     * Writes the changes of the mapped map to the file and marks the file clean.
+     * Does nothing for the map in memory.
+     */
+    public void force() {
+        checkIfNotClosed();
+
+        if (header != null) {
+            for (ByteBuffer slab : slabs) {
+                ((MappedByteBuffer) slab).force();
+            }
+            header.putInt(SIZE_OFFSET, size);
+            header.put(CLEAN_OFFSET, (byte) 1);
+            header.force();
+            dirty = false;
+        }
+    }
+
+    /**
+     * Frees the memory of the map, the mapped map is forced to the file first.
+     * The closed map can't be used anymore.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            force();
+            closed = true;
+            release(slabs, channel, header);
+            slabs = new ByteBuffer[0];
+            channel = null;
+            header = null;
+            capacity = 0;
+            size = 0;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (keySet == null) {
+            keySet = new AbstractSet<K>() {
+                @Override
+                public Iterator<K> iterator() {
+                    return new SlotIterator<K>() {
+                        @Override
+                        K read(ByteBuffer slab, int offset) {
+                            return keySerializer.read(slab, offset + HASH_BYTES);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return OffHeapHashMap.this.size();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+            };
+        }
+        return keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (values == null) {
+            values = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new SlotIterator<V>() {
+                        @Override
+                        V read(ByteBuffer slab, int offset) {
+                            return valueSerializer.read(slab, offset + valueOffset);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return OffHeapHashMap.this.size();
+                }
+            };
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new SlotIterator<Entry<K, V>>() {
+                        @Override
+                        Entry<K, V> read(ByteBuffer slab, int offset) {
+                            return new AbstractMap.SimpleImmutableEntry<>(
+                                    keySerializer.read(slab, offset + HASH_BYTES),
+                                    valueSerializer.read(slab, offset + valueOffset));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return OffHeapHashMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Serializes the key to <code>keyBuffer</code>.
+     *
+     * @return hash of the key bytes with the <code>OCCUPIED</code> bit set.
+     */
+    private int writeKey(Object key) {
+        keySerializer.write((K) key, keyBuffer, 0);
+
+        long h = 0;
+        int i = 0;
+        for (; i + Long.BYTES <= keySize; i += Long.BYTES) {
+            h = (h + keyBuffer.getLong(i)) * 0x9E3779B97F4A7C15L;
+        }
+        for (; i < keySize; i++) {
+            h = (h + keyBuffer.get(i)) * 0x9E3779B97F4A7C15L;
+        }
+        int hash = (int) (h ^ (h >>> 32));
+        return (hash ^ (hash >>> 16)) | OCCUPIED;
+    }
+
+    /**
+     * @return slot of the key in <code>keyBuffer</code> or <code>-1</code>.
+     */
+    private int indexOf(int hash) {
+        int mask = capacity - 1;
+        int slot = hash & mask;
+
+        while (true) {
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            int slotHash = slab.getInt(offset);
+            if (slotHash == EMPTY) {
+                return -1;
+            }
+            if (slotHash == hash && bytesEqual(slab, offset + HASH_BYTES, keyBuffer, 0, keySize)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Fills the gap left by the removed key, see <code>CustomOpenHashMap</code>.
+     */
+    private void shiftSlotsBack(int gap) {
+        int mask = capacity - 1;
+        int slot = gap;
+
+        while (true) {
+            slot = (slot + 1) & mask;
+
+            ByteBuffer slab = slab(slot);
+            int offset = offset(slot);
+            int slotHash = slab.getInt(offset);
+            if (slotHash == EMPTY) {
+                break;
+            }
+
+            int ownSlot = slotHash & mask;
+            if (((slot - ownSlot) & mask) >= ((slot - gap) & mask)) {
+                copyBytes(slab, offset, slab(gap), offset(gap), slotSize);
+                gap = slot;
+            }
+        }
+
+        slab(gap).putInt(offset(gap), EMPTY);
+    }
+
+    private void ensureCapacity() {
+        if (size < threshold) {
+            return;
+        }
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+        rehash(capacity << 1);
+    }
+
+    /**
+     * Moves the entries to the new slabs of <code>newCapacity</code> slots. Slots of the same key,
+     * which may be left by a crash in the middle of <code>remove</code>, are moved only once.
+     */
+    private void rehash(int newCapacity) {
+        ByteBuffer[] oldSlabs = slabs;
+        int oldCapacity = capacity;
+        int oldSlabShift = slabShift;
+        FileChannel oldChannel = channel;
+        MappedByteBuffer oldHeader = header;
+        allocate(newCapacity);
+
+        int mask = newCapacity - 1;
+        int oldSlotsMask = (1 << oldSlabShift) - 1;
+        int newSize = 0;
+        for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+            ByteBuffer oldSlab = oldSlabs[oldSlot >>> oldSlabShift];
+            int oldOffset = (oldSlot & oldSlotsMask) * slotSize;
+            int hash = oldSlab.getInt(oldOffset);
+            if (hash == EMPTY) {
+                continue;
+            }
+
+            int slot = hash & mask;
+            int slotHash;
+            while ((slotHash = slab(slot).getInt(offset(slot))) != EMPTY
+                    && !(slotHash == hash && bytesEqual(slab(slot), offset(slot) + HASH_BYTES,
+                    oldSlab, oldOffset + HASH_BYTES, keySize))) {
+                slot = (slot + 1) & mask;
+            }
+            if (slotHash == EMPTY) {
+                copyBytes(oldSlab, oldOffset, slab(slot), offset(slot), slotSize);
+                newSize++;
+            }
+        }
+        size = newSize;
+        modCount++;
+        commit();
+
+        release(oldSlabs, oldChannel, oldHeader);
+    }
+
+    /**
+     * Allocates zeroed slabs for <code>newCapacity</code> slots. The mapped map maps them
+     * from a new temporary file, see {@link #commit()}.
+     */
+    private void allocate(int newCapacity) {
+        int slotsPerSlab = Math.min(newCapacity, Integer.highestOneBit(Math.max(1, MAX_SLAB_BYTES / slotSize)));
+        ByteBuffer[] newSlabs = new ByteBuffer[newCapacity / slotsPerSlab];
+
+        if (file == null) {
+            for (int i = 0; i < newSlabs.length; i++) {
+                newSlabs[i] = ByteBuffer.allocateDirect(slotsPerSlab * slotSize);
+            }
+        } else {
+            mapNewFile(newCapacity, slotsPerSlab, newSlabs);
+        }
+
+        slabs = newSlabs;
+        capacity = newCapacity;
+        slabShift = Integer.numberOfTrailingZeros(slotsPerSlab);
+        threshold = (int) (newCapacity * MAX_LOAD_FACTOR);
+    }
+
+    private void mapNewFile(int newCapacity, int slotsPerSlab, ByteBuffer[] newSlabs) {
+        Path newFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            FileChannel newChannel = FileChannel.open(newFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long slabBytes = (long) slotsPerSlab * slotSize;
+            for (int i = 0; i < newSlabs.length; i++) {
+                newSlabs[i] = newChannel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + i * slabBytes, slabBytes);
+            }
+
+            MappedByteBuffer newHeader = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            newHeader.putInt(MAGIC_OFFSET, MAGIC);
+            newHeader.putInt(KEY_SIZE_OFFSET, keySize);
+            newHeader.putInt(VALUE_SIZE_OFFSET, valueBuffer.capacity());
+            newHeader.putInt(CAPACITY_OFFSET, newCapacity);
+            newHeader.putInt(SIZE_OFFSET, 0);
+            newHeader.put(CLEAN_OFFSET, (byte) 0);
+
+            channel = newChannel;
+            header = newHeader;
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Forces the filled temporary file of the mapped map and moves it over the old file.
+     */
+    private void commit() {
+        if (file == null) {
+            return;
+        }
+        force();
+        try {
+            Files.move(file.resolveSibling(file.getFileName() + ".tmp"), file,
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Maps the slabs of the existing file. The file which wasn't closed clean is rehashed.
+     */
+    private void mapExistingFile() {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC
+                    || header.getInt(KEY_SIZE_OFFSET) != keySize
+                    || header.getInt(VALUE_SIZE_OFFSET) != valueBuffer.capacity()) {
+                release(new ByteBuffer[0], channel, header);
+                throw new IllegalArgumentException("File " + file + " isn't a map of these keys and values");
+            }
+
+            int fileCapacity = header.getInt(CAPACITY_OFFSET);
+            int slotsPerSlab = Math.min(fileCapacity, Integer.highestOneBit(Math.max(1, MAX_SLAB_BYTES / slotSize)));
+            long slabBytes = (long) slotsPerSlab * slotSize;
+            slabs = new ByteBuffer[fileCapacity / slotsPerSlab];
+            for (int i = 0; i < slabs.length; i++) {
+                slabs[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + i * slabBytes, slabBytes);
+            }
+            capacity = fileCapacity;
+            slabShift = Integer.numberOfTrailingZeros(slotsPerSlab);
+            threshold = (int) (fileCapacity * MAX_LOAD_FACTOR);
+            size = header.getInt(SIZE_OFFSET);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        if (header.get(CLEAN_OFFSET) == 0) {
+            rehash(capacity);
+        }
+    }
+
+    /**
+     * The first change after <code>force</code> clears the clean flag in the file before the slots are changed.
+     */
+    private void markDirty() {
+        if (header != null && !dirty) {
+            header.put(CLEAN_OFFSET, (byte) 0);
+            header.force();
+            dirty = true;
+        }
+    }
+
+    private void writeSize() {
+        if (header != null) {
+            header.putInt(SIZE_OFFSET, size);
+        }
+    }
+
+    private static void release(ByteBuffer[] oldSlabs, FileChannel oldChannel, MappedByteBuffer oldHeader) {
+        for (ByteBuffer slab : oldSlabs) {
+            free(slab);
+        }
+        free(oldHeader);
+        if (oldChannel != null) {
+            try {
+                oldChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private ByteBuffer slab(int slot) {
+        return slabs[slot >>> slabShift];
+    }
+
+    private int offset(int slot) {
+        return (slot & ((1 << slabShift) - 1)) * slotSize;
+    }
+
+    private void checkIfNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("Map is closed");
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity * MAX_LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Iterator keeps the number of the next occupied slot, so it reads the slabs only
+     * in <code>next</code> after the check for modification.
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+
+        private int nextSlot = -1;
+        private final int expectedModCount = modCount;
+
+        SlotIterator() {
+            checkIfNotClosed();
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot < capacity;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (nextSlot >= capacity) {
+                throw new NoSuchElementException();
+            }
+            T result = read(slab(nextSlot), offset(nextSlot));
+            advance();
+            return result;
+        }
+
+        abstract T read(ByteBuffer slab, int offset);
+
+        private void advance() {
+            do {
+                nextSlot++;
+            } while (nextSlot < capacity && slab(nextSlot).getInt(offset(nextSlot)) == EMPTY);
+        }
+    }
+}
@@ -0,0 +1,519 @@
+package ru.epam.training;
+
+import java.util.*;
+
+/**
+ * Persistent <i>hash array mapped trie</i>.
+ *
+ * Each level of the trie takes the next 5 bits of the hash of a key. A node keeps a 32-bit bitmap of
+ * its occupied slots and a compact array of only those slots: the slot is found by counting the bits
+ * of the bitmap below the bit of the hash. Every slot keeps a key and a value or, if the keys collide
+ * at this level, a child node. Keys with equal hashes share the collision node at the bottom of the trie.
+ *
+ * <code>plus</code> and <code>minus</code> copy the nodes of the path from the root to the key, there are
+ * at most 7 levels, and return the new map which shares the rest of the trie with this one.
+ *
+ * Every node remembers the builder which created it. The builder changes its own nodes in place
+ * and copies the others, see {@link PersistentTreeMap}.
+ *
+ * <code>PersistentHashMap</code> supports null values and doesn't support null keys.
+ *
+ * @param <K> type of keys maintained by map.
+ * @param <V> type of values maintained by map.
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> implements PersistentMap<K, V> {
+
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_DEPTH = 8;
+
+    private static final Object NOT_FOUND = new Object();
+
+    private final Node root;
+    private final int size;
+
+    private Set<Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(root, key) != NOT_FOUND;
+    }
+
+    @Override
+    public V get(Object key) {
+        Object value = find(root, key);
+        return value == NOT_FOUND ? null : (V) value;
+    }
+
+    @Override
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        return new HashBuilder<>(this).put(key, value).build();
+    }
+
+    @Override
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        return new HashBuilder<>(this).remove(key).build();
+    }
+
+    @Override
+    public Builder<K, V> toBuilder() {
+        return new HashBuilder<>(this);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static Object find(Node root, Object key) {
+        Objects.requireNonNull(key);
+
+        return root == null ? NOT_FOUND : root.find(0, hash(key), key);
+    }
+
+    /**
+     * Node keeps its entries as <code>key, value</code> pairs of the array. The key of a pair
+     * is <code>null</code> if the value is a child node.
+     */
+    private abstract static class Node {
+        final Object owner;
+        Object[] array;
+
+        Node(Object owner, Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node put(HashBuilder<?, ?> builder, int shift, int hash, Object key, Object value);
+
+        /**
+         * @return node without the key, <code>null</code> if the node is empty then.
+         */
+        abstract Node remove(HashBuilder<?, ?> builder, int shift, int hash, Object key);
+
+        boolean hasSingleEntry() {
+            return array.length == 2 && array[0] != null;
+        }
+    }
+
+    private static final class BitmapNode extends Node {
+        int bitmap;
+
+        BitmapNode(Object owner, int bitmap, Object[] array) {
+            super(owner, array);
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int index = index(bit);
+            Object keyOrNull = array[index];
+            Object valueOrNode = array[index + 1];
+            if (keyOrNull == null) {
+                return ((Node) valueOrNode).find(shift + BITS, hash, key);
+            }
+            return key.equals(keyOrNull) ? valueOrNode : NOT_FOUND;
+        }
+
+        @Override
+        Node put(HashBuilder<?, ?> builder, int shift, int hash, Object key, Object value) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+
+            if ((bitmap & bit) == 0) {
+                builder.size++;
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, index);
+                newArray[index] = key;
+                newArray[index + 1] = value;
+                System.arraycopy(array, index, newArray, index + 2, array.length - index);
+
+                BitmapNode node = edit(builder);
+                node.bitmap |= bit;
+                node.array = newArray;
+                return node;
+            }
+
+            Object keyOrNull = array[index];
+            Object valueOrNode = array[index + 1];
+            if (keyOrNull == null) {
+                Node child = (Node) valueOrNode;
+                Node newChild = child.put(builder, shift + BITS, hash, key, value);
+                return newChild == child ? this : edit(builder).set(index + 1, newChild);
+            }
+            if (key.equals(keyOrNull)) {
+                return valueOrNode == value ? this : edit(builder).set(index + 1, value);
+            }
+
+            builder.size++;
+            Node child = createNode(builder, shift + BITS, hash(keyOrNull), keyOrNull, valueOrNode, hash, key, value);
+            return edit(builder).set(index, null).set(index + 1, child);
+        }
+
+        @Override
+        Node remove(HashBuilder<?, ?> builder, int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object keyOrNull = array[index];
+            Object valueOrNode = array[index + 1];
+
+            if (keyOrNull == null) {
+                Node child = (Node) valueOrNode;
+                Node newChild = child.remove(builder, shift + BITS, hash, key);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild == null) {
+                    return removePair(builder, bit, index);
+                }
+                if (newChild.hasSingleEntry()) {
+                    return edit(builder).set(index, newChild.array[0]).set(index + 1, newChild.array[1]);
+                }
+                return edit(builder).set(index + 1, newChild);
+            }
+            if (key.equals(keyOrNull)) {
+                builder.size--;
+                return removePair(builder, bit, index);
+            }
+            return this;
+        }
+
+        private Node removePair(HashBuilder<?, ?> builder, int bit, int index) {
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, index);
+            System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+
+            BitmapNode node = edit(builder);
+            node.bitmap ^= bit;
+            node.array = newArray;
+            return node;
+        }
+
+        private BitmapNode edit(HashBuilder<?, ?> builder) {
+            return owner == builder ? this : new BitmapNode(builder, bitmap, array.clone());
+        }
+
+        private BitmapNode set(int index, Object value) {
+            array[index] = value;
+            return this;
+        }
+
+        /**
+         * @return index of the key of the slot in the array.
+         */
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1)) << 1;
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+    }
+
+    /**
+     * Node of the keys with the same hash.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+
+        CollisionNode(Object owner, int hash, Object[] array) {
+            super(owner, array);
+            this.hash = hash;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int index = indexOf(hash, key);
+            return index < 0 ? NOT_FOUND : array[index + 1];
+        }
+
+        @Override
+        Node put(HashBuilder<?, ?> builder, int shift, int hash, Object key, Object value) {
+            if (hash != this.hash) {
+                BitmapNode parent = new BitmapNode(builder, BitmapNode.bit(this.hash, shift), new Object[]{null, this});
+                return parent.put(builder, shift, hash, key, value);
+            }
+
+            int index = indexOf(hash, key);
+            if (index >= 0) {
+                if (array[index + 1] == value) {
+                    return this;
+                }
+                CollisionNode node = edit(builder);
+                node.array[index + 1] = value;
+                return node;
+            }
+
+            builder.size++;
+            Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            CollisionNode node = edit(builder);
+            node.array = newArray;
+            return node;
+        }
+
+        @Override
+        Node remove(HashBuilder<?, ?> builder, int shift, int hash, Object key) {
+            int index = indexOf(hash, key);
+            if (index < 0) {
+                return this;
+            }
+
+            builder.size--;
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, index);
+            System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+            CollisionNode node = edit(builder);
+            node.array = newArray;
+            return node;
+        }
+
+        private int indexOf(int hash, Object key) {
+            if (hash != this.hash) {
+                return -1;
+            }
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private CollisionNode edit(HashBuilder<?, ?> builder) {
+            return owner == builder ? this : new CollisionNode(builder, hash, array.clone());
+        }
+    }
+
+    /**
+     * Creates the node of two keys which collide at the previous level.
+     */
+    private static Node createNode(HashBuilder<?, ?> builder, int shift,
+                                   int hash1, Object key1, Object value1,
+                                   int hash2, Object key2, Object value2) {
+        if (hash1 == hash2) {
+            return new CollisionNode(builder, hash1, new Object[]{key1, value1, key2, value2});
+        }
+        int bit1 = BitmapNode.bit(hash1, shift);
+        int bit2 = BitmapNode.bit(hash2, shift);
+        if (bit1 == bit2) {
+            Node child = createNode(builder, shift + BITS, hash1, key1, value1, hash2, key2, value2);
+            return new BitmapNode(builder, bit1, new Object[]{null, child});
+        }
+        Object[] array = Integer.compareUnsigned(bit1, bit2) < 0
+                ? new Object[]{key1, value1, key2, value2}
+                : new Object[]{key2, value2, key1, value1};
+        return new BitmapNode(builder, bit1 | bit2, array);
+    }
+
+    /**
+     * Transient trie, changes in place the nodes it owns.
+     */
+    private static final class HashBuilder<K, V> implements Builder<K, V> {
+
+        private Node root;
+        private int size;
+        private boolean built;
+
+        HashBuilder(PersistentHashMap<K, V> map) {
+            this.root = map.root;
+            this.size = map.size;
+        }
+
+        @Override
+        public HashBuilder<K, V> put(K key, V value) {
+            ensureNotBuilt();
+            Objects.requireNonNull(key);
+
+            int hash = hash(key);
+            if (root == null) {
+                root = new BitmapNode(this, 0, new Object[0]);
+            }
+            root = root.put(this, 0, hash, key, value);
+            return this;
+        }
+
+        @Override
+        public HashBuilder<K, V> remove(Object key) {
+            ensureNotBuilt();
+            Objects.requireNonNull(key);
+
+            if (root != null) {
+                root = root.remove(this, 0, hash(key), key);
+            }
+            return this;
+        }
+
+        @Override
+        public V get(Object key) {
+            ensureNotBuilt();
+            Object value = find(root, key);
+            return value == NOT_FOUND ? null : (V) value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            ensureNotBuilt();
+            return find(root, key) != NOT_FOUND;
+        }
+
+        @Override
+        public int size() {
+            ensureNotBuilt();
+            return size;
+        }
+
+        @Override
+        public PersistentHashMap<K, V> build() {
+            ensureNotBuilt();
+            built = true;
+
+            PersistentHashMap<K, V> map = new PersistentHashMap<>(root, size);
+            root = null;
+            return map;
+        }
+
+        private void ensureNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("Map is already built");
+            }
+        }
+    }
+
+    /**
+     * Depth-first iterator over the arrays of the nodes.
+     */
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] indexes = new int[MAX_DEPTH];
+        private int depth = -1;
+
+        EntryIterator(Node root) {
+            if (root != null) {
+                push(root);
+                advance();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return depth >= 0;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (depth < 0) {
+                throw new NoSuchElementException();
+            }
+            Object[] array = arrays[depth];
+            int index = indexes[depth];
+            indexes[depth] += 2;
+            Entry<K, V> entry = new SimpleImmutableEntry<>((K) array[index], (V) array[index + 1]);
+            advance();
+            return entry;
+        }
+
+        private void push(Node node) {
+            depth++;
+            arrays[depth] = node.array;
+            indexes[depth] = 0;
+        }
+
+        /**
+         * Moves to the next key, or sets <code>depth</code> to <code>-1</code> at the end.
+         */
+        private void advance() {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int index = indexes[depth];
+                if (index >= array.length) {
+                    arrays[depth--] = null;
+                } else if (array[index] == null) {
+                    indexes[depth] += 2;
+                    push((Node) array[index + 1]);
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+}
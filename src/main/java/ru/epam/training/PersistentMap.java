@@ -0,0 +1,61 @@
+package ru.epam.training;
+
+import java.util.Map;
+
+/**
+ * Immutable map which is updated by creating new versions of it.
+ *
+ * The {@link #plus(Object, Object)} and {@link #minus(Object)} methods return a new map and leave
+ * this one unchanged. The new version shares all the unchanged nodes with the old one, so an update
+ * copies only the path to the changed entry. Any version may be read by many threads without
+ * synchronization.
+ *
+ * The mutating methods of <code>Map</code> throw <code>UnsupportedOperationException</code>.
+ *
+ * @param <K> type of keys maintained by map.
+ * @param <V> type of values maintained by map.
+ */
+public interface PersistentMap<K, V> extends Map<K, V> {
+
+    /**
+     * @return map with the key mapped to the value.
+     */
+    PersistentMap<K, V> plus(K key, V value);
+
+    /**
+     * @return map without the key, or this map if there is no such key.
+     */
+    PersistentMap<K, V> minus(Object key);
+
+    /**
+     * Returns <i>transient</i> builder starting from this map. The builder changes in place the nodes
+     * it has already copied, so a series of updates copies every node at most once.
+     */
+    Builder<K, V> toBuilder();
+
+    /**
+     * Mutable <i>transient</i> version of a persistent map. Builder isn't thread-safe
+     * and can't be used after {@link #build()}.
+     *
+     * @param <K> type of keys.
+     * @param <V> type of values.
+     */
+    interface Builder<K, V> {
+
+        Builder<K, V> put(K key, V value);
+
+        Builder<K, V> remove(Object key);
+
+        V get(Object key);
+
+        boolean containsKey(Object key);
+
+        int size();
+
+        /**
+         * @return persistent map with the content of the builder.
+         * @throws IllegalStateException if the map is already built.
+         */
+        PersistentMap<K, V> build();
+    }
+}
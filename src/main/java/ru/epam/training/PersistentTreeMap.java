@@ -0,0 +1,439 @@
+package ru.epam.training;
+
+import java.util.*;
+
+/**
+ * Persistent <i>left-leaning red-black tree</i>.
+ *
+ * The same tree as <code>CustomTreeMap</code>, but nodes reachable from a map are never changed.
+ * <code>plus</code> and <code>minus</code> copy the nodes of the path from the root to the key,
+ * rotate and recolor the copies, and return the new map which shares the rest of the tree with
+ * this one. So the update takes <code>log(n)</code> time and memory.
+ *
+ * Every node remembers the builder which created it. The builder changes its own nodes in place
+ * and copies the others, so it copies each node at most once. <code>plus</code> and <code>minus</code>
+ * are done by a builder of a single update.
+ *
+ * <code>PersistentTreeMap</code> is sorted according to the <code>compareTo</code> methods of the keys
+ * or by the <code>Comparator</code> provided to {@link #empty(Comparator)}.
+ *
+ * <code>PersistentTreeMap</code> supports null values and doesn't support null keys.
+ *
+ * @param <K> type of keys maintained by map.
+ * @param <V> type of values maintained by map.
+ */
+public final class PersistentTreeMap<K, V> extends AbstractMap<K, V> implements PersistentMap<K, V> {
+
+    private static final PersistentTreeMap<?, ?> EMPTY = new PersistentTreeMap<>(null, null, 0);
+
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+    private final int size;
+
+    private Set<Entry<K, V>> entrySet;
+
+    private PersistentTreeMap(Comparator<? super K> comparator, Node<K, V> root, int size) {
+        this.comparator = comparator;
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return empty map sorted according to the natural ordering of the keys.
+     */
+    public static <K, V> PersistentTreeMap<K, V> empty() {
+        return (PersistentTreeMap<K, V>) EMPTY;
+    }
+
+    /**
+     * @return empty map sorted by the comparator.
+     */
+    public static <K, V> PersistentTreeMap<K, V> empty(Comparator<? super K> comparator) {
+        return new PersistentTreeMap<>(comparator, null, 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getNode(comparator, root, key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = getNode(comparator, root, key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public PersistentTreeMap<K, V> plus(K key, V value) {
+        return new TreeBuilder<>(this).put(key, value).build();
+    }
+
+    @Override
+    public PersistentTreeMap<K, V> minus(Object key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+        return new TreeBuilder<>(this).remove(key).build();
+    }
+
+    @Override
+    public Builder<K, V> toBuilder() {
+        return new TreeBuilder<>(this);
+    }
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator<>(root);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Height of the tree, <code>0</code> for the empty one.
+     */
+    int height() {
+        return height(root);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    private static <K, V> Node<K, V> getNode(Comparator<? super K> comparator, Node<K, V> root, Object key) {
+        Objects.requireNonNull(key);
+
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = compare(comparator, key, node.key);
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    private static <K> int compare(Comparator<? super K> comparator, Object key1, Object key2) {
+        return comparator == null
+                ? ((Comparable<Object>) key1).compareTo(key2)
+                : comparator.compare((K) key1, (K) key2);
+    }
+
+    private static boolean isRed(Node<?, ?> node) {
+        return node != null && node.color == Node.RED;
+    }
+
+    private static final class Node<K, V> {
+        private static final boolean RED = true;
+        private static final boolean BLACK = false;
+
+        final Object owner;
+        K key;
+        V value;
+        Node<K, V> left;
+        Node<K, V> right;
+        boolean color;
+
+        Node(Object owner, K key, V value, boolean color) {
+            this.owner = owner;
+            this.key = key;
+            this.value = value;
+            this.color = color;
+        }
+
+        Node(Object owner, Node<K, V> node) {
+            this(owner, node.key, node.value, node.color);
+            this.left = node.left;
+            this.right = node.right;
+        }
+    }
+
+    /**
+     * Transient tree. All the recursive operations call {@link #edit(Node)} before changing a node,
+     * so only the nodes owned by this builder are changed in place.
+     */
+    private static final class TreeBuilder<K, V> implements Builder<K, V> {
+
+        private final Comparator<? super K> comparator;
+        private Node<K, V> root;
+        private int size;
+        private boolean built;
+
+        TreeBuilder(PersistentTreeMap<K, V> map) {
+            this.comparator = map.comparator;
+            this.root = map.root;
+            this.size = map.size;
+        }
+
+        @Override
+        public TreeBuilder<K, V> put(K key, V value) {
+            ensureNotBuilt();
+            Objects.requireNonNull(key);
+
+            root = put(root, key, value);
+            root.color = Node.BLACK;
+            return this;
+        }
+
+        @Override
+        public TreeBuilder<K, V> remove(Object key) {
+            ensureNotBuilt();
+            if (getNode(comparator, root, key) == null) {
+                return this;
+            }
+
+            root = edit(root);
+            if (!isRed(root.left) && !isRed(root.right)) {
+                root.color = Node.RED;
+            }
+            root = remove(root, key);
+            if (root != null) {
+                root.color = Node.BLACK;
+            }
+            size--;
+            return this;
+        }
+
+        @Override
+        public V get(Object key) {
+            ensureNotBuilt();
+            Node<K, V> node = getNode(comparator, root, key);
+            return node == null ? null : node.value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            ensureNotBuilt();
+            return getNode(comparator, root, key) != null;
+        }
+
+        @Override
+        public int size() {
+            ensureNotBuilt();
+            return size;
+        }
+
+        /**
+         * Releases the tree, so no node of it will be changed by this builder anymore.
+         */
+        @Override
+        public PersistentTreeMap<K, V> build() {
+            ensureNotBuilt();
+            built = true;
+
+            PersistentTreeMap<K, V> map = new PersistentTreeMap<>(comparator, root, size);
+            root = null;
+            return map;
+        }
+
+        private void ensureNotBuilt() {
+            if (built) {
+                throw new IllegalStateException("Map is already built");
+            }
+        }
+
+        private Node<K, V> edit(Node<K, V> node) {
+            return node.owner == this ? node : new Node<>(this, node);
+        }
+
+        private Node<K, V> put(Node<K, V> h, K key, V value) {
+            if (h == null) {
+                size++;
+                return new Node<>(this, key, value, Node.RED);
+            }
+
+            h = edit(h);
+            int cmp = compare(comparator, key, h.key);
+            if (cmp < 0) {
+                h.left = put(h.left, key, value);
+            } else if (cmp > 0) {
+                h.right = put(h.right, key, value);
+            } else {
+                h.value = value;
+            }
+            return balance(h);
+        }
+
+        /**
+         * Sedgewick's deletion from the <i>left-leaning red-black tree</i>, the key must be in the tree.
+         * Node <code>h</code> is always owned by the builder.
+         */
+        private Node<K, V> remove(Node<K, V> h, Object key) {
+            if (compare(comparator, key, h.key) < 0) {
+                if (!isRed(h.left) && !isRed(h.left.left)) {
+                    h = moveRedLeft(h);
+                }
+                h.left = remove(edit(h.left), key);
+            } else {
+                if (isRed(h.left)) {
+                    h = rotateRight(h);
+                }
+                if (compare(comparator, key, h.key) == 0 && h.right == null) {
+                    return null;
+                }
+                if (!isRed(h.right) && !isRed(h.right.left)) {
+                    h = moveRedRight(h);
+                }
+                if (compare(comparator, key, h.key) == 0) {
+                    Node<K, V> min = h.right;
+                    while (min.left != null) {
+                        min = min.left;
+                    }
+                    h.key = min.key;
+                    h.value = min.value;
+                    h.right = removeMin(edit(h.right));
+                } else {
+                    h.right = remove(edit(h.right), key);
+                }
+            }
+            return balance(h);
+        }
+
+        private Node<K, V> removeMin(Node<K, V> h) {
+            if (h.left == null) {
+                return null;
+            }
+            if (!isRed(h.left) && !isRed(h.left.left)) {
+                h = moveRedLeft(h);
+            }
+            h.left = removeMin(edit(h.left));
+            return balance(h);
+        }
+
+        private Node<K, V> balance(Node<K, V> h) {
+            if (isRed(h.right) && !isRed(h.left)) {
+                h = rotateLeft(h);
+            }
+            if (isRed(h.left) && isRed(h.left.left)) {
+                h = rotateRight(h);
+            }
+            if (isRed(h.left) && isRed(h.right)) {
+                flipColors(h);
+            }
+            return h;
+        }
+
+        private Node<K, V> rotateLeft(Node<K, V> h) {
+            Node<K, V> x = edit(h.right);
+            h.right = x.left;
+            x.left = h;
+
+            x.color = h.color;
+            h.color = Node.RED;
+            return x;
+        }
+
+        private Node<K, V> rotateRight(Node<K, V> h) {
+            Node<K, V> x = edit(h.left);
+            h.left = x.right;
+            x.right = h;
+
+            x.color = h.color;
+            h.color = Node.RED;
+            return x;
+        }
+
+        private void flipColors(Node<K, V> h) {
+            h.left = edit(h.left);
+            h.right = edit(h.right);
+
+            h.color = !h.color;
+            h.left.color = !h.left.color;
+            h.right.color = !h.right.color;
+        }
+
+        private Node<K, V> moveRedLeft(Node<K, V> h) {
+            flipColors(h);
+            if (isRed(h.right.left)) {
+                h.right = rotateRight(h.right);
+                h = rotateLeft(h);
+                flipColors(h);
+            }
+            return h;
+        }
+
+        private Node<K, V> moveRedRight(Node<K, V> h) {
+            flipColors(h);
+            if (isRed(h.left.left)) {
+                h = rotateRight(h);
+                flipColors(h);
+            }
+            return h;
+        }
+    }
+
+    private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+        private final ArrayDeque<Node<K, V>> path = new ArrayDeque<>();
+
+        EntryIterator(Node<K, V> root) {
+            pushLeftPath(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (path.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = path.pop();
+            pushLeftPath(node.right);
+            return new SimpleImmutableEntry<>(node.key, node.value);
+        }
+
+        private void pushLeftPath(Node<K, V> node) {
+            for (; node != null; node = node.left) {
+                path.push(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ru.epam.training;
+
+import java.util.*;
+
+/**
+ * <code>Map</code> view of an open addressing map with primitive keys, which keeps the key
+ * <code>0</code> apart from its slots. Keys and values are boxed on every call.
+ *
+ * The map provides access to its slots, the view implements iteration on top of them once for
+ * all the primitive maps. Iterators return the key <code>0</code> first, then walk the slots from
+ * the last one down the same way as iterators of <code>CustomOpenHashMap</code>: keys shifted back
+ * across the end of the slots by <code>remove</code> are kept and returned after the slots, so every
+ * key is returned once. Iterators are <i>fail-fast</i>.
+ *
+ * @param <K> type of boxed keys.
+ * @param <V> type of values.
+ */
+abstract class PrimitiveKeyMapView<K, V> extends AbstractMap<K, V> {
+
+    private Set<Entry<K, V>> entrySet;
+
+    /**
+     * Count of the structural modifications of the map.
+     */
+    abstract int modCount();
+
+    abstract int capacity();
+
+    abstract boolean isFree(int slot);
+
+    abstract K key(int slot);
+
+    abstract V value(int slot);
+
+    abstract boolean hasFreeKey();
+
+    abstract K freeKey();
+
+    abstract V freeKeyValue();
+
+    /**
+     * Removes the key of the slot and shifts the following keys back.
+     *
+     * @param wrapped keys shifted across the end of the slots are added to it.
+     */
+    abstract void removeSlot(int slot, List<K> wrapped);
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<K, V>>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new EntryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return PrimitiveKeyMapView.this.size();
+                }
+
+                @Override
+                public void clear() {
+                    PrimitiveKeyMapView.this.clear();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+
+        private int expectedModCount = modCount();
+
+        private boolean freeKeyReturned = !hasFreeKey();
+        private int index = capacity();
+        private List<K> wrapped;
+        private int wrappedIndex;
+        private K lastReturned;
+        private int lastReturnedSlot = -1;
+
+        /**
+         * Slots below <code>index</code> aren't visited yet. The next slot is looked up only here,
+         * because <code>remove</code> may shift keys between them.
+         */
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+
+            if (!freeKeyReturned) {
+                return true;
+            }
+            while (index > 0 && isFree(index - 1)) {
+                index--;
+            }
+            return index > 0 || (wrapped != null && wrappedIndex < wrapped.size());
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (!freeKeyReturned) {
+                freeKeyReturned = true;
+                lastReturnedSlot = -1;
+                lastReturned = freeKey();
+                return new SimpleImmutableEntry<>(lastReturned, freeKeyValue());
+            }
+            if (index > 0) {
+                lastReturnedSlot = --index;
+                lastReturned = key(index);
+                return new SimpleImmutableEntry<>(lastReturned, value(index));
+            }
+            lastReturnedSlot = -1;
+            lastReturned = wrapped.get(wrappedIndex++);
+            return new SimpleImmutableEntry<>(lastReturned, get(lastReturned));
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+
+            if (lastReturnedSlot >= 0) {
+                if (wrapped == null) {
+                    wrapped = new ArrayList<>();
+                }
+                removeSlot(lastReturnedSlot, wrapped);
+            } else {
+                PrimitiveKeyMapView.this.remove(lastReturned);
+            }
+            lastReturned = null;
+            expectedModCount = modCount();
+        }
+
+        private void checkForComodification() {
+            if (modCount() != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.epam.training;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts values of a type to the fixed number of bytes and back.
+ *
+ * Equal values must be written to equal bytes: collections which keep serialized values
+ * compare and hash the bytes, not the objects.
+ *
+ * @param <T> type of serialized values.
+ */
+public interface Serializer<T> {
+
+    Serializer<Integer> INTEGER = new Serializer<Integer>() {
+        @Override
+        public int size() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(Integer value, ByteBuffer buffer, int offset) {
+            buffer.putInt(offset, value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    Serializer<Long> LONG = new Serializer<Long>() {
+        @Override
+        public int size() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long value, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, value);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * @return serializer of byte arrays of the length.
+     */
+    static Serializer<byte[]> bytes(int length) {
+        return new Serializer<byte[]>() {
+            @Override
+            public int size() {
+                return length;
+            }
+
+            @Override
+            public void write(byte[] value, ByteBuffer buffer, int offset) {
+                if (value.length != length) {
+                    throw new IllegalArgumentException("Array length " + value.length + " != " + length);
+                }
+                for (int i = 0; i < length; i++) {
+                    buffer.put(offset + i, value[i]);
+                }
+            }
+
+            @Override
+            public byte[] read(ByteBuffer buffer, int offset) {
+                byte[] value = new byte[length];
+                for (int i = 0; i < length; i++) {
+                    value[i] = buffer.get(offset + i);
+                }
+                return value;
+            }
+        };
+    }
+
+    /**
+     * @return number of bytes of any serialized value.
+     */
+    int size();
+
+    /**
+     * Writes the value to the buffer starting from the offset, doesn't change the position of the buffer.
+     */
+    void write(T value, ByteBuffer buffer, int offset);
+
+    /**
+     * Reads the value from the buffer starting from the offset, doesn't change the position of the buffer.
+     */
+    T read(ByteBuffer buffer, int offset);
+}
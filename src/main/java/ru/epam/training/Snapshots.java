@@ -0,0 +1,237 @@
+package ru.epam.training;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+
+/**
+ * Compact binary snapshots of lists and maps.
+ *
+ * A snapshot is a header followed by the records written by {@link Serializer}s one after another:
+ * elements of a list or keys and values of a map in the iteration order. The header holds
+ * the magic number, the format version, the kind of the snapshot, the sizes of the records and
+ * their count:
+ * <pre>
+ * int magic | short version | short kind | int key size | int value size | int count | records...
+ * </pre>
+ * So a snapshot takes exactly <code>20 + count * (key size + value size)</code> bytes and keeps
+ * no object graph.
+ *
+ * Writers and readers stream the records through a buffer of <code>64 KiB</code> over NIO channels
+ * and never hold the whole snapshot in memory. Readers know the count from the header, so
+ * {@link #readArrayList} and {@link #readHashMap} allocate the collection of the final size at once.
+ * A map is written in its iteration order, so a snapshot of <code>CustomTreeMap</code> is sorted and
+ * {@link #readTreeMap} builds the tree bottom-up in linear time without rebalancing.
+ *
+ * Snapshots don't support null elements, keys and values.
+ */
+public final class Snapshots {
+
+    private static final int MAGIC = 0x43534E50;
+    private static final short VERSION = 1;
+    private static final short LIST = 1;
+    private static final short MAP = 2;
+    private static final int HEADER_BYTES = 20;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private Snapshots() {
+    }
+
+    public static <T> void writeList(Collection<? extends T> list, Serializer<T> serializer,
+                                     WritableByteChannel channel) throws IOException {
+        Writer writer = new Writer(channel, serializer.size());
+        writer.writeHeader(LIST, serializer.size(), 0, list.size());
+        for (T element : list) {
+            serializer.write(Objects.requireNonNull(element), writer.buffer, writer.reserve(serializer.size()));
+        }
+        writer.flush();
+    }
+
+    public static <T> CustomArrayList<T> readArrayList(ReadableByteChannel channel,
+                                                       Serializer<T> serializer) throws IOException {
+        Reader reader = new Reader(channel, serializer.size());
+        int count = reader.readHeader(LIST, serializer.size(), 0);
+
+        CustomArrayList<T> list = new CustomArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(serializer.read(reader.buffer, reader.take(serializer.size())));
+        }
+        return list;
+    }
+
+    public static <T> CustomLinkedList<T> readLinkedList(ReadableByteChannel channel,
+                                                         Serializer<T> serializer) throws IOException {
+        Reader reader = new Reader(channel, serializer.size());
+        int count = reader.readHeader(LIST, serializer.size(), 0);
+
+        CustomLinkedList<T> list = new CustomLinkedList<>();
+        for (int i = 0; i < count; i++) {
+            list.add(serializer.read(reader.buffer, reader.take(serializer.size())));
+        }
+        return list;
+    }
+
+    public static <K, V> void writeMap(Map<? extends K, ? extends V> map, Serializer<K> keySerializer,
+                                       Serializer<V> valueSerializer, WritableByteChannel channel) throws IOException {
+        int entrySize = keySerializer.size() + valueSerializer.size();
+        Writer writer = new Writer(channel, entrySize);
+        writer.writeHeader(MAP, keySerializer.size(), valueSerializer.size(), map.size());
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            int offset = writer.reserve(entrySize);
+            keySerializer.write(Objects.requireNonNull(entry.getKey()), writer.buffer, offset);
+            valueSerializer.write(Objects.requireNonNull(entry.getValue()), writer.buffer,
+                    offset + keySerializer.size());
+        }
+        writer.flush();
+    }
+
+    public static <K, V> CustomHashMap<K, V> readHashMap(ReadableByteChannel channel, Serializer<K> keySerializer,
+                                                         Serializer<V> valueSerializer) throws IOException {
+        int entrySize = keySerializer.size() + valueSerializer.size();
+        Reader reader = new Reader(channel, entrySize);
+        int count = reader.readHeader(MAP, keySerializer.size(), valueSerializer.size());
+
+        CustomHashMap<K, V> map = new CustomHashMap<>(count);
+        for (int i = 0; i < count; i++) {
+            int offset = reader.take(entrySize);
+            map.put(keySerializer.read(reader.buffer, offset),
+                    valueSerializer.read(reader.buffer, offset + keySerializer.size()));
+        }
+        return map;
+    }
+
+    public static <K, V> CustomTreeMap<K, V> readTreeMap(ReadableByteChannel channel, Serializer<K> keySerializer,
+                                                         Serializer<V> valueSerializer) throws IOException {
+        return readTreeMap(channel, keySerializer, valueSerializer, null);
+    }
+
+    /**
+     * Reads the snapshot of the map sorted by the comparator.
+     *
+     * @throws IllegalArgumentException if the keys of the snapshot aren't strictly ascending.
+     */
+    public static <K, V> CustomTreeMap<K, V> readTreeMap(ReadableByteChannel channel, Serializer<K> keySerializer,
+                                                         Serializer<V> valueSerializer,
+                                                         Comparator<? super K> comparator) throws IOException {
+        int entrySize = keySerializer.size() + valueSerializer.size();
+        Reader reader = new Reader(channel, entrySize);
+        int count = reader.readHeader(MAP, keySerializer.size(), valueSerializer.size());
+
+        CustomTreeMap.Builder<K, V> builder = CustomTreeMap.builder(comparator);
+        for (int i = 0; i < count; i++) {
+            int offset = reader.take(entrySize);
+            builder.put(keySerializer.read(reader.buffer, offset),
+                    valueSerializer.read(reader.buffer, offset + keySerializer.size()));
+        }
+        return builder.build();
+    }
+
+    private static ByteBuffer allocateBuffer(int recordSize) {
+        return ByteBuffer.allocate(Math.max(BUFFER_BYTES, HEADER_BYTES + recordSize));
+    }
+
+    /**
+     * Buffer of records which is written to the channel once the next record doesn't fit.
+     */
+    private static final class Writer {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        Writer(WritableByteChannel channel, int recordSize) {
+            this.channel = channel;
+            this.buffer = allocateBuffer(recordSize);
+        }
+
+        void writeHeader(short kind, int keySize, int valueSize, int count) {
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putShort(kind);
+            buffer.putInt(keySize);
+            buffer.putInt(valueSize);
+            buffer.putInt(count);
+        }
+
+        /**
+         * @return offset of <code>length</code> bytes of the buffer for the next record.
+         */
+        int reserve(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                flush();
+            }
+            int offset = buffer.position();
+            buffer.position(offset + length);
+            return offset;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Buffer of records which is refilled from the channel once the next record isn't read completely.
+     */
+    private static final class Reader {
+
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer;
+
+        Reader(ReadableByteChannel channel, int recordSize) {
+            this.channel = channel;
+            this.buffer = allocateBuffer(recordSize);
+            buffer.limit(0);
+        }
+
+        /**
+         * @return count of the records.
+         * @throws IllegalArgumentException if the channel isn't a snapshot of these records.
+         */
+        int readHeader(short kind, int keySize, int valueSize) throws IOException {
+            int offset = take(HEADER_BYTES);
+            if (buffer.getInt(offset) != MAGIC) {
+                throw new IllegalArgumentException("Channel isn't a snapshot");
+            }
+            if (buffer.getShort(offset + 4) != VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version " + buffer.getShort(offset + 4));
+            }
+            if (buffer.getShort(offset + 6) != kind
+                    || buffer.getInt(offset + 8) != keySize
+                    || buffer.getInt(offset + 12) != valueSize) {
+                throw new IllegalArgumentException("Snapshot isn't a " + (kind == LIST ? "list" : "map")
+                        + " of these records");
+            }
+            int count = buffer.getInt(offset + 16);
+            if (count < 0) {
+                throw new IllegalArgumentException("Negative count of records " + count);
+            }
+            return count;
+        }
+
+        /**
+         * @return offset of the next <code>length</code> bytes read to the buffer.
+         * @throws EOFException if the channel ends before.
+         */
+        int take(int length) throws IOException {
+            if (buffer.remaining() < length) {
+                buffer.compact();
+                while (buffer.position() < length) {
+                    if (channel.read(buffer) < 0) {
+                        throw new EOFException("Snapshot is truncated");
+                    }
+                }
+                buffer.flip();
+            }
+            int offset = buffer.position();
+            buffer.position(offset + length);
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ru.epam.training;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntSupplier;
+
+/**
+ * View of the range of a list returned by <code>subList</code>.
+ *
+ * Elements are read and changed through the index-based methods of the list, iterators wrap
+ * the iterator of the list, so they walk the range as fast as the list itself does. The view is
+ * <i>fail-fast</i>: structural modification of the list not through the view makes it throw
+ * <code>ConcurrentModificationException</code>.
+ *
+ * @param <T> type of values maintained by list.
+ */
+final class SubList<T> extends AbstractList<T> {
+
+    private final List<T> list;
+    private final IntSupplier listModCount;
+    private final int offset;
+    private int size;
+    private int expectedModCount;
+
+    /**
+     * @param listModCount supplier of the modification count of the list.
+     */
+    SubList(List<T> list, IntSupplier listModCount, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > list.size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex);
+        }
+        this.list = list;
+        this.listModCount = listModCount;
+        this.offset = fromIndex;
+        this.size = toIndex - fromIndex;
+        this.expectedModCount = listModCount.getAsInt();
+    }
+
+    @Override
+    public int size() {
+        checkForComodification();
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        checkIndex(index, size);
+        checkForComodification();
+
+        return list.get(offset + index);
+    }
+
+    @Override
+    public T set(int index, T element) {
+        checkIndex(index, size);
+        checkForComodification();
+
+        return list.set(offset + index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        checkIndex(index, size + 1);
+        checkForComodification();
+
+        list.add(offset + index, element);
+        structurallyModified(1);
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIndex(index, size);
+        checkForComodification();
+
+        T oldValue = list.remove(offset + index);
+        structurallyModified(-1);
+        return oldValue;
+    }
+
+    @Override
+    public ListIterator<T> listIterator(int index) {
+        checkIndex(index, size + 1);
+        checkForComodification();
+
+        ListIterator<T> iterator = list.listIterator(offset + index);
+        return new ListIterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return nextIndex() < size;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return iterator.next();
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return previousIndex() >= 0;
+            }
+
+            @Override
+            public T previous() {
+                if (!hasPrevious()) {
+                    throw new NoSuchElementException();
+                }
+                return iterator.previous();
+            }
+
+            @Override
+            public int nextIndex() {
+                return iterator.nextIndex() - offset;
+            }
+
+            @Override
+            public int previousIndex() {
+                return iterator.previousIndex() - offset;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                structurallyModified(-1);
+            }
+
+            @Override
+            public void set(T t) {
+                iterator.set(t);
+            }
+
+            @Override
+            public void add(T t) {
+                iterator.add(t);
+                structurallyModified(1);
+            }
+        };
+    }
+
+    private void structurallyModified(int sizeChange) {
+        size += sizeChange;
+        expectedModCount = listModCount.getAsInt();
+        modCount++;
+    }
+
+    private void checkForComodification() {
+        if (listModCount.getAsInt() != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CustomArrayListTest {
+
+    @Test
+    public void testThatStreamVisitsAllElementsInOrder() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 1000).forEach(list::add);
+
+        List<Integer> copy = list.stream().collect(Collectors.toList());
+
+        assertThat(copy.size(), is(1000));
+        IntStream.range(0, 1000).forEach((i) -> assertThat(copy.get(i), is(i)));
+    }
+
+    @Test
+    public void testThatParallelStreamVisitsAllElements() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 100000).forEach(list::add);
+
+        assertThat(list.parallelStream().mapToLong(Integer::longValue).sum(), is(99999L * 100000 / 2));
+        assertThat(list.parallelStream().filter((i) -> i % 3 == 0).count(), is(33334L));
+    }
+
+    @Test
+    public void testThatSpliteratorSplitsExactly() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 101).forEach(list::add);
+
+        Spliterator<Integer> right = list.spliterator();
+        Spliterator<Integer> left = right.trySplit();
+
+        assertThat(left.estimateSize(), is(50L));
+        assertThat(right.estimateSize(), is(51L));
+        assertThat(right.hasCharacteristics(Spliterator.SUBSIZED), is(true));
+    }
+
+    @Test
+    public void testThatIteratorRemovesElements() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 100).forEach(list::add);
+
+        Iterator<Integer> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(list.size(), is(50));
+        IntStream.range(0, 50).forEach((i) -> assertThat(list.get(i), is(2 * i + 1)));
+    }
+
+    @Test
+    public void testThatListIteratorGoesBackward() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 10).forEach(list::add);
+
+        ListIterator<Integer> iterator = list.listIterator(list.size());
+        int expected = 9;
+        while (iterator.hasPrevious()) {
+            assertThat(iterator.previous(), is(expected--));
+        }
+        assertThat(expected, is(-1));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testThatIteratorFailsAfterListModification() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 10).forEach(list::add);
+
+        for (Integer value : list) {
+            list.add(value);
+        }
+    }
+
+    @Test
+    public void testThatRemoveIfRemovesMatchingElements() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 100).forEach(list::add);
+
+        assertThat(list.removeIf((i) -> i % 3 != 0), is(true));
+        assertThat(list.removeIf((i) -> i < 0), is(false));
+
+        assertThat(list.size(), is(34));
+        IntStream.range(0, 34).forEach((i) -> assertThat(list.get(i), is(3 * i)));
+    }
+
+    @Test
+    public void testThatRemoveIfKeepsListConsistentWhenFilterThrows() {
+        List<String> list = new CustomArrayList<>();
+        list.addAll(Arrays.asList("a", "b", "c"));
+
+        try {
+            list.removeIf((element) -> {
+                if (element.equals("b")) {
+                    throw new IllegalStateException();
+                }
+                return true;
+            });
+        } catch (IllegalStateException e) {
+            assertThat(list.size(), is(2));
+            assertThat(new ArrayList<>(list), is(Arrays.asList("b", "c")));
+            return;
+        }
+        throw new AssertionError("Exception of the filter isn't thrown");
+    }
+
+    @Test
+    public void testThatSortAndReplaceAllChangeElements() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 100).forEach(list::add);
+
+        list.replaceAll((i) -> i * 7 % 100);
+        list.sort(Comparator.reverseOrder());
+
+        IntStream.range(0, 100).forEach((i) -> assertThat(list.get(i), is(99 - i)));
+    }
+
+    @Test
+    public void testThatAddAllAppendsAndInsertsElements() {
+        List<Integer> list = new CustomArrayList<>();
+        list.addAll(Arrays.asList(0, 1, 5, 6));
+        list.addAll(2, Arrays.asList(2, 3, 4));
+
+        assertThat(list.size(), is(7));
+        assertThat(new ArrayList<>(list), is(Arrays.asList(0, 1, 2, 3, 4, 5, 6)));
+        assertThat(list.addAll(Collections.emptyList()), is(false));
+    }
+
+    @Test
+    public void testThatAddAllOfBigCollectionKeepsOrder() {
+        List<Integer> list = new CustomArrayList<>();
+        list.add(-1);
+        list.addAll(IntStream.range(0, 10_000).boxed().collect(Collectors.toList()));
+        list.addAll(list);
+
+        assertThat(list.size(), is(20_002));
+        assertThat(list.get(1), is(0));
+        assertThat(list.get(10_000), is(9_999));
+        assertThat(list.get(10_001), is(-1));
+    }
+
+    @Test
+    public void testThatRemoveAllAndRetainAllFilterElements() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 100).forEach(list::add);
+
+        List<Integer> multiplesOfThree = IntStream.range(0, 100).filter((i) -> i % 3 == 0).boxed()
+                .collect(Collectors.toList());
+        assertThat(list.removeAll(multiplesOfThree), is(true));
+        assertThat(list.size(), is(66));
+        assertThat(list.retainAll(Arrays.asList(1, 2, 3, 4)), is(true));
+
+        assertThat(new ArrayList<>(list), is(Arrays.asList(1, 2, 4)));
+        assertThat(list.removeAll(Arrays.asList(100, 200)), is(false));
+    }
+
+    @Test
+    public void testThatContainsAllChecksEveryElement() {
+        List<Integer> list = new CustomArrayList<>();
+        IntStream.range(0, 100).forEach(list::add);
+
+        assertThat(list.containsAll(Arrays.asList(1, 50, 99)), is(true));
+        assertThat(list.containsAll(IntStream.range(0, 100).boxed().collect(Collectors.toList())), is(true));
+        assertThat(list.containsAll(IntStream.range(0, 101).boxed().collect(Collectors.toList())), is(false));
+    }
+
+    @Test
+    public void testThatToArrayCopiesElements() {
+        List<String> list = new CustomArrayList<>();
+        list.addAll(Arrays.asList("a", "b", "c"));
+
+        assertThat(list.toArray(), is(new Object[]{"a", "b", "c"}));
+        assertThat(list.toArray(new String[0]), is(new String[]{"a", "b", "c"}));
+    }
+}
@@ -0,0 +1,121 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CustomBTreeMapTest {
+
+    @Test
+    public void testThatKeysAreIteratedInAscendingOrder() {
+        CustomBTreeMap<Integer, String> m = new CustomBTreeMap<>(4);
+        List<Integer> keys = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        Collections.shuffle(keys, new Random(42));
+        keys.forEach((key) -> m.put(key, String.valueOf(key)));
+
+        assertThat(new ArrayList<>(m.keySet()), is(IntStream.range(0, 1000).boxed().collect(Collectors.toList())));
+        assertThat(m.firstKey(), is(0));
+        assertThat(m.lastKey(), is(999));
+    }
+
+    @Test
+    public void testThatMapKeepsEntriesAfterNodesAreMerged() {
+        CustomBTreeMap<Integer, String> m = new CustomBTreeMap<>(4);
+        IntStream.range(0, 1000).forEach((i) -> m.put(i, String.valueOf(i)));
+
+        IntStream.range(0, 1000)
+                .filter((i) -> i % 3 != 0)
+                .forEach((i) -> assertThat(m.remove(i), is(String.valueOf(i))));
+
+        assertThat(m.size(), is(334));
+        IntStream.range(0, 1000)
+                .forEach((i) -> assertThat(m.containsKey(i), is(i % 3 == 0)));
+        assertThat(new ArrayList<>(m.keySet()),
+                is(IntStream.range(0, 1000).filter((i) -> i % 3 == 0).boxed().collect(Collectors.toList())));
+    }
+
+    @Test
+    public void testThatForEachInRangeVisitsKeysFromInclusiveToExclusive() {
+        CustomBTreeMap<Integer, String> m = new CustomBTreeMap<>(4);
+        IntStream.range(0, 100).forEach((i) -> m.put(10 * i, String.valueOf(i)));
+
+        List<Integer> keys = new ArrayList<>();
+        m.forEachInRange(15, 60, (key, value) -> keys.add(key));
+
+        assertThat(keys, is(Arrays.asList(20, 30, 40, 50)));
+    }
+
+    @Test
+    public void testThatIteratorRemovesEntries() {
+        CustomBTreeMap<Integer, String> m = new CustomBTreeMap<>(4);
+        IntStream.range(0, 100).forEach((i) -> m.put(i, String.valueOf(i)));
+
+        Iterator<Integer> iterator = m.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(m.size(), is(50));
+        assertThat(new ArrayList<>(m.keySet()),
+                is(IntStream.range(0, 100).filter((i) -> i % 2 != 0).boxed().collect(Collectors.toList())));
+    }
+
+    @Test
+    public void testThatEntrySetValueWritesThrough() {
+        CustomBTreeMap<Integer, String> m = new CustomBTreeMap<>(4);
+        IntStream.range(0, 10).forEach((i) -> m.put(i, String.valueOf(i)));
+
+        for (Map.Entry<Integer, String> entry : m.entrySet()) {
+            entry.setValue("v" + entry.getKey());
+        }
+
+        IntStream.range(0, 10).forEach((i) -> assertThat(m.get(i), is("v" + i)));
+    }
+
+    @Test
+    public void testThatMapUsesComparator() {
+        CustomBTreeMap<Integer, String> m = new CustomBTreeMap<>(4, Comparator.reverseOrder());
+        IntStream.range(0, 20).forEach((i) -> m.put(i, String.valueOf(i)));
+
+        assertThat(m.firstKey(), is(19));
+        assertThat(m.lastKey(), is(0));
+        assertThat(m.get(7), is("7"));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testThatIteratorIsFailFast() {
+        CustomBTreeMap<Integer, String> m = new CustomBTreeMap<>(4);
+        IntStream.range(0, 10).forEach((i) -> m.put(i, String.valueOf(i)));
+
+        Iterator<Integer> iterator = m.keySet().iterator();
+        iterator.next();
+        m.put(100, "100");
+        iterator.next();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testThatFirstKeyOfEmptyMapThrowsException() {
+        new CustomBTreeMap<Integer, String>().firstKey();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatTooSmallFanoutIsRejected() {
+        new CustomBTreeMap<Integer, String>(3);
+    }
+}
@@ -0,0 +1,157 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CustomCircularArrayListTest {
+
+    @Test
+    public void testThatElementsAddedToTheHeadAreInReverseOrder() {
+        List<Integer> list = new CustomCircularArrayList<>();
+
+        IntStream.range(0, 1000).forEach((i) -> list.add(0, i));
+
+        assertThat(list.size(), is(1000));
+        IntStream.range(0, 1000).forEach((i) -> assertThat(list.get(i), is(999 - i)));
+    }
+
+    @Test
+    public void testThatListCanBeUsedAsQueueWhileWrappingAround() {
+        List<Integer> list = new CustomCircularArrayList<>();
+
+        IntStream.range(0, 10).forEach(list::add);
+        IntStream.range(10, 1000)
+                .forEach((i) -> {
+                    list.add(i);
+                    assertThat(list.remove(0), is(i - 10));
+                });
+
+        assertThat(list.size(), is(10));
+        IntStream.range(0, 10).forEach((i) -> assertThat(list.get(i), is(990 + i)));
+    }
+
+    @Test
+    public void testThatElementsAreInOrderAfterInsertsAndRemovalsInTheMiddle() {
+        List<Integer> list = new CustomCircularArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+
+        IntStream.range(0, 100)
+                .forEach((i) -> {
+                    list.add(i / 2, i);
+                    expected.add(i / 2, i);
+                });
+        IntStream.range(0, 50)
+                .forEach((i) -> assertThat(list.remove(list.size() / 3), is(expected.remove(expected.size() / 3))));
+
+        assertThat(list.size(), is(50));
+        IntStream.range(0, 50).forEach((i) -> assertThat(list.get(i), is(expected.get(i))));
+    }
+
+    @Test
+    public void testThatToArrayAndCopyConstructorWorkAcrossTheWrapPoint() {
+        List<Integer> list = wrappedList();
+
+        Integer[] expected = IntStream.range(10, 30).boxed().toArray(Integer[]::new);
+        assertThat(Arrays.equals(list.toArray(), expected), is(true));
+        assertThat(Arrays.equals(list.toArray(new Integer[0]), expected), is(true));
+        assertThat(new ArrayList<>(list), is(Arrays.asList(expected)));
+    }
+
+    @Test
+    public void testThatAddAllInsertsElementsInOrder() {
+        List<Integer> list = wrappedList();
+        List<Integer> expected = new ArrayList<>(list);
+        List<Integer> elements = IntStream.range(100, 150).boxed().collect(Collectors.toList());
+
+        list.addAll(3, elements);
+        expected.addAll(3, elements);
+        list.addAll(list.size() - 2, elements);
+        expected.addAll(expected.size() - 2, elements);
+        list.addAll(elements);
+        expected.addAll(elements);
+
+        assertThat(new ArrayList<>(list), is(expected));
+    }
+
+    @Test
+    public void testThatRemoveAllRetainAllAndContainsAllWorkAcrossTheWrapPoint() {
+        List<Integer> list = wrappedList();
+
+        assertThat(list.containsAll(Arrays.asList(10, 29)), is(true));
+        assertThat(list.containsAll(Arrays.asList(9, 29)), is(false));
+        assertThat(list.removeAll(Arrays.asList(10, 15, 29, 100)), is(true));
+        assertThat(list.retainAll(IntStream.range(0, 20).boxed().collect(Collectors.toList())), is(true));
+
+        assertThat(new ArrayList<>(list), is(Arrays.asList(11, 12, 13, 14, 16, 17, 18, 19)));
+    }
+
+    @Test
+    public void testThatRemoveIfKeepsListConsistentWhenFilterThrows() {
+        List<Integer> list = wrappedList();
+
+        try {
+            list.removeIf((i) -> {
+                if (i == 20) {
+                    throw new IllegalStateException();
+                }
+                return i % 2 == 0;
+            });
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        List<Integer> expected = IntStream.range(10, 30)
+                .filter((i) -> i >= 20 || i % 2 != 0)
+                .boxed()
+                .collect(Collectors.toList());
+        assertThat(list.size(), is(expected.size()));
+        assertThat(new ArrayList<>(list), is(expected));
+    }
+
+    @Test
+    public void testThatSubListIsViewOfRange() {
+        List<Integer> list = wrappedList();
+
+        List<Integer> subList = list.subList(5, 15);
+        subList.set(0, -1);
+        subList.remove(1);
+        subList.add(0, -2);
+
+        assertThat(subList.size(), is(10));
+        assertThat(list.get(5), is(-2));
+        assertThat(list.get(6), is(-1));
+        assertThat(list.get(7), is(17));
+
+        subList.clear();
+        assertThat(list.size(), is(10));
+        assertThat(list.get(5), is(25));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testThatSubListFailsAfterListModification() {
+        List<Integer> list = wrappedList();
+        List<Integer> subList = list.subList(0, 5);
+
+        list.add(0, 0);
+
+        subList.get(0);
+    }
+
+    /**
+     * @return list of <code>10..29</code> which elements wrap around the end of the array.
+     */
+    private static List<Integer> wrappedList() {
+        List<Integer> list = new CustomCircularArrayList<>();
+        IntStream.range(10, 30).forEach((i) -> list.add(0, 39 - i));
+        return list;
+    }
+}
@@ -0,0 +1,136 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNull;
+
+public class CustomConcurrentHashMapTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void testThatAllKeysPutConcurrentlyAreInMap() throws Exception {
+        ConcurrentMap<Integer, String> m = new CustomConcurrentHashMap<>();
+        int keysPerThread = 10000;
+
+        runConcurrently(thread -> IntStream.range(0, keysPerThread)
+                .map(i -> thread * keysPerThread + i)
+                .forEach(i -> m.put(i, String.valueOf(i))));
+
+        assertThat(m.size(), is(THREADS * keysPerThread));
+        IntStream.range(0, THREADS * keysPerThread)
+                .forEach(i -> assertThat(m.get(i), is(String.valueOf(i))));
+    }
+
+    @Test
+    public void testThatConcurrentReplacesAreNotLost() throws Exception {
+        ConcurrentMap<Integer, Integer> m = new CustomConcurrentHashMap<>(4);
+        int keys = 10;
+        int incrementsPerThread = 1000;
+
+        IntStream.range(0, keys).forEach(i -> m.put(i, 0));
+
+        runConcurrently(thread -> IntStream.range(0, incrementsPerThread)
+                .forEach(i -> {
+                    int key = i % keys;
+                    Integer value;
+                    do {
+                        value = m.get(key);
+                    } while (!m.replace(key, value, value + 1));
+                }));
+
+        int sum = m.values().stream().mapToInt(Integer::intValue).sum();
+        assertThat(sum, is(THREADS * incrementsPerThread));
+    }
+
+    @Test
+    public void testThatReadersSeeEitherNothingOrWholeValueWhileWritersPutAndRemove() throws Exception {
+        ConcurrentMap<Integer, String> m = new CustomConcurrentHashMap<>();
+        int keys = 1000;
+
+        runConcurrently(thread -> {
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < keys; i++) {
+                    if (thread % 2 == 0) {
+                        m.put(thread * keys + i, String.valueOf(i));
+                        m.remove(thread * keys + i);
+                    } else {
+                        String value = m.get((thread - 1) * keys + i);
+                        if (value != null && !value.equals(String.valueOf(i))) {
+                            throw new AssertionError("Unexpected value " + value);
+                        }
+                    }
+                }
+            }
+        });
+
+        assertThat(m.size(), is(0));
+        assertNull(m.get(0));
+    }
+
+    @Test
+    public void testThatNullValuesAreRejected() {
+        ConcurrentMap<Integer, String> m = new CustomConcurrentHashMap<>();
+        m.put(1, "one");
+
+        assertRejected(() -> m.put(2, null));
+        assertRejected(() -> m.putIfAbsent(2, null));
+        assertRejected(() -> m.replace(1, null));
+        assertRejected(() -> m.replace(1, "one", null));
+        assertRejected(() -> m.entrySet().iterator().next().setValue(null));
+
+        assertThat(m.size(), is(1));
+        assertThat(m.get(1), is("one"));
+        assertNull(m.get(2));
+    }
+
+    private void runConcurrently(ThreadBody body) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(thread);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    private static void assertRejected(Runnable action) {
+        try {
+            action.run();
+        } catch (NullPointerException e) {
+            return;
+        }
+        throw new AssertionError("null value is accepted");
+    }
+
+    private interface ThreadBody {
+        void run(int thread) throws Exception;
+    }
+}
@@ -2,10 +2,15 @@ package ru.epam.training;
 
 import org.junit.Test;
 
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.stream.IntStream;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 public class CustomHashMapTest {
@@ -53,6 +58,217 @@ public class CustomHashMapTest {
                 ));
     }
 
+    @Test
+    public void testThatMapCanContainsKeysWithNegativeHashCodes() {
+        Map<Integer, String> m = new CustomHashMap<>();
+
+        IntStream.range(-100, 0)
+                .forEach((i) -> m.put(i, String.valueOf(i)));
+
+        IntStream.range(-100, 0)
+                .forEach((i) -> assertThat(m.get(i), is(String.valueOf(i))));
+    }
+
+    @Test
+    public void testThatPutReturnsNullForNewKeyWithSameHashCode() {
+        Map<ClassWithConstHashCode, String> m = new CustomHashMap<>();
+
+        m.put(new ClassWithConstHashCode(5), "aaa");
+
+        assertThat(m.put(new ClassWithConstHashCode(10), "bbb"), is(nullValue()));
+    }
+
+    @Test
+    public void testThatAllKeysAreAvailableWhileMapIsResizing() {
+        Map<Integer, String> m = new CustomHashMap<>();
+
+        IntStream.range(0, 10000)
+                .forEach((i) -> {
+                    m.put(i, String.valueOf(i));
+                    assertThat(m.get(i / 2), is(String.valueOf(i / 2)));
+                    assertThat(m.containsValue(String.valueOf(i / 3)), is(true));
+                });
+
+        IntStream.range(0, 10000)
+                .filter((i) -> i % 2 == 0)
+                .forEach((i) -> assertThat(m.remove(i), is(String.valueOf(i))));
+
+        assertThat(m.size(), is(5000));
+        IntStream.range(0, 10000)
+                .forEach((i) -> assertThat(m.containsKey(i), is(i % 2 != 0)));
+    }
+
+    @Test
+    public void testThatMapCanContainsManyKeysWithSameHashCode() {
+        Map<ClassWithConstHashCode, String> m = new CustomHashMap<>();
+
+        IntStream.range(0, 100)
+                .forEach((i) -> m.put(new ClassWithConstHashCode(i), String.valueOf(i)));
+
+        IntStream.range(0, 100)
+                .filter((i) -> i % 2 == 0)
+                .forEach((i) -> assertThat(m.remove(new ClassWithConstHashCode(i)), is(String.valueOf(i))));
+
+        assertThat(m.size(), is(50));
+        IntStream.range(0, 100)
+                .forEach((i) -> assertThat(m.get(new ClassWithConstHashCode(i)), is(i % 2 == 0 ? null : String.valueOf(i))));
+    }
+
+    @Test
+    public void testThatMapCanContainsManyComparableKeysWithSameHashCode() {
+        Map<ComparableClassWithConstHashCode, String> m = new CustomHashMap<>();
+
+        IntStream.range(0, 10000)
+                .forEach((i) -> m.put(new ComparableClassWithConstHashCode(i), String.valueOf(i)));
+
+        IntStream.range(0, 10000)
+                .forEach((i) -> assertThat(m.get(new ComparableClassWithConstHashCode(i)), is(String.valueOf(i))));
+
+        IntStream.range(0, 10000)
+                .forEach((i) -> assertThat(m.remove(new ComparableClassWithConstHashCode(i)), is(String.valueOf(i))));
+
+        assertThat(m.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testThatKeySetContainsAllKeysWhileMapIsResizing() {
+        Map<Integer, String> m = new CustomHashMap<>();
+
+        IntStream.range(0, 1000)
+                .forEach((i) -> {
+                    m.put(i, String.valueOf(i));
+                    assertThat(m.keySet().size(), is(i + 1));
+                    assertThat(new HashSet<>(m.keySet()).size(), is(i + 1));
+                });
+
+        IntStream.range(0, 1000)
+                .forEach((i) -> assertThat(m.keySet().contains(i), is(true)));
+        assertThat(m.values().contains("999"), is(true));
+    }
+
+    @Test
+    public void testThatIteratorRemovesEntries() {
+        Map<ComparableClassWithConstHashCode, String> m = new CustomHashMap<>();
+
+        IntStream.range(0, 100)
+                .forEach((i) -> m.put(new ComparableClassWithConstHashCode(i), String.valueOf(i)));
+
+        Iterator<ComparableClassWithConstHashCode> iterator = m.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().field % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(m.size(), is(50));
+        IntStream.range(0, 100)
+                .forEach((i) -> assertThat(m.containsKey(new ComparableClassWithConstHashCode(i)), is(i % 2 != 0)));
+    }
+
+    @Test
+    public void testThatEntrySetValueChangesMap() {
+        Map<Integer, String> m = new CustomHashMap<>();
+
+        IntStream.range(0, 100)
+                .forEach((i) -> m.put(i, String.valueOf(i)));
+
+        for (Map.Entry<Integer, String> entry : m.entrySet()) {
+            entry.setValue(entry.getValue() + "!");
+        }
+
+        IntStream.range(0, 100)
+                .forEach((i) -> assertThat(m.get(i), is(i + "!")));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testThatIteratorFailsAfterMapModification() {
+        Map<Integer, String> m = new CustomHashMap<>();
+
+        IntStream.range(0, 100)
+                .forEach((i) -> m.put(i, String.valueOf(i)));
+
+        for (Integer key : m.keySet()) {
+            m.remove(key);
+        }
+    }
+
+    @Test
+    public void testThatPutAllCopiesAllEntries() {
+        Map<Integer, String> source = new HashMap<>();
+        IntStream.range(0, 10_000).forEach((i) -> source.put(i, String.valueOf(i)));
+
+        Map<Integer, String> m = new CustomHashMap<>();
+        IntStream.range(0, 100).forEach((i) -> m.put(i, "old"));
+        m.putAll(source);
+
+        assertThat(m.size(), is(10_000));
+        IntStream.range(0, 10_000).forEach((i) -> assertThat(m.get(i), is(String.valueOf(i))));
+    }
+
+    @Test
+    public void testThatPutAllKeepsKeysWithSameHashCode() {
+        Map<ClassWithConstHashCode, Integer> m = new CustomHashMap<>();
+        IntStream.range(0, 20).forEach((i) -> m.put(new ClassWithConstHashCode(i), i));
+
+        Map<Integer, Integer> other = new HashMap<>();
+        IntStream.range(0, 1000).forEach((i) -> other.put(i, i));
+        Map<Object, Integer> combined = new CustomHashMap<>();
+        combined.putAll(m);
+        combined.putAll(other);
+
+        assertThat(combined.size(), is(1020));
+        IntStream.range(0, 20).forEach((i) -> assertThat(combined.get(new ClassWithConstHashCode(i)), is(i)));
+        IntStream.range(0, 1000).forEach((i) -> assertThat(combined.get(i), is(i)));
+    }
+
+    @Test
+    public void testThatBucketOfKeysWithSameHashCodeIsConvertedToTreeAndBack() {
+        CustomHashMap<ComparableClassWithConstHashCode, Integer> m = new CustomHashMap<>();
+        ComparableClassWithConstHashCode key = new ComparableClassWithConstHashCode(0);
+
+        IntStream.range(0, 7).forEach((i) -> m.put(new ComparableClassWithConstHashCode(i), i));
+        assertThat(m.isTreeBucket(key), is(false));
+
+        m.put(new ComparableClassWithConstHashCode(7), 7);
+        assertThat(m.isTreeBucket(key), is(true));
+
+        IntStream.range(8, 1000).forEach((i) -> m.put(new ComparableClassWithConstHashCode(i), i));
+        assertThat(m.isTreeBucket(key), is(true));
+        IntStream.range(0, 1000).forEach((i) -> assertThat(m.get(new ComparableClassWithConstHashCode(i)), is(i)));
+        assertThat(m.get(new ComparableClassWithConstHashCode(1000)), is(nullValue()));
+
+        IntStream.range(7, 1000).forEach((i) -> assertThat(m.remove(new ComparableClassWithConstHashCode(i)), is(i)));
+        assertThat(m.isTreeBucket(key), is(true));
+
+        m.remove(new ComparableClassWithConstHashCode(6));
+        assertThat(m.isTreeBucket(key), is(false));
+        assertThat(m.size(), is(6));
+        IntStream.range(0, 8).forEach((i) -> assertThat(m.containsKey(new ComparableClassWithConstHashCode(i)), is(i < 6)));
+    }
+
+    @Test
+    public void testThatMapEqualsToMapOfSameEntries() {
+        Map<Object, Integer> m = new CustomHashMap<>();
+        Map<Object, Integer> expected = new HashMap<>();
+        IntStream.range(0, 100).forEach((i) -> expected.put(i, i % 2 == 0 ? i : null));
+        IntStream.range(0, 20).forEach((i) -> expected.put(new ComparableClassWithConstHashCode(i), i));
+
+        m.putAll(expected);
+
+        assertThat(m.equals(expected), is(true));
+        assertThat(expected.equals(m), is(true));
+        assertThat(m.hashCode(), is(expected.hashCode()));
+
+        m.put(1, 1);
+        assertThat(m.equals(expected), is(false));
+        assertThat(expected.equals(m), is(false));
+
+        m.remove(1);
+        m.put(-1, null);
+        expected.put(-2, null);
+        assertThat(m.equals(expected), is(false));
+    }
+
     private class ClassWithConstHashCode {
 
         private final Integer field;
@@ -76,4 +292,20 @@ public class CustomHashMapTest {
             return field != null ? field.equals(that.field) : that.field == null;
         }
     }
+
+    private class ComparableClassWithConstHashCode extends ClassWithConstHashCode
+            implements Comparable<ComparableClassWithConstHashCode> {
+
+        private final Integer field;
+
+        public ComparableClassWithConstHashCode(Integer field) {
+            super(field);
+            this.field = field;
+        }
+
+        @Override
+        public int compareTo(ComparableClassWithConstHashCode o) {
+            return field.compareTo(o.field);
+        }
+    }
 }
@@ -0,0 +1,168 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CustomLinkedListTest {
+
+    @Test
+    public void testThatListCanBeUsedAsQueue() {
+        Deque<Integer> queue = new CustomLinkedList<>();
+
+        IntStream.range(0, 100).forEach(queue::offer);
+
+        IntStream.range(0, 100).forEach((i) -> assertThat(queue.poll(), is(i)));
+        assertThat(queue.poll(), is(nullValue()));
+    }
+
+    @Test
+    public void testThatListCanBeUsedAsStack() {
+        Deque<Integer> stack = new CustomLinkedList<>();
+
+        IntStream.range(0, 100).forEach(stack::push);
+
+        IntStream.range(0, 100).forEach((i) -> assertThat(stack.pop(), is(99 - i)));
+        assertThat(stack.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testThatBothEndsAreAvailable() {
+        CustomLinkedList<Integer> list = new CustomLinkedList<>();
+
+        list.addLast(2);
+        list.addFirst(1);
+        list.addLast(3);
+
+        assertThat(list.getFirst(), is(1));
+        assertThat(list.getLast(), is(3));
+        assertThat(list.removeLast(), is(3));
+        assertThat(list.removeFirst(), is(1));
+        assertThat(list.size(), is(1));
+        assertThat(list.get(0), is(2));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testThatRemoveLastThrowsExceptionOnEmptyList() {
+        new CustomLinkedList<Integer>().removeLast();
+    }
+
+    @Test
+    public void testThatElementsAreAvailableByIndexFromBothEnds() {
+        CustomLinkedList<Integer> list = new CustomLinkedList<>();
+        IntStream.range(0, 101).forEach(list::add);
+
+        IntStream.range(0, 101).forEach((i) -> assertThat(list.get(i), is(i)));
+        assertThat(list.remove(0), is(0));
+        assertThat(list.remove(99), is(100));
+        assertThat(list.remove(49), is(50));
+        assertThat(list.size(), is(98));
+    }
+
+    @Test
+    public void testThatDescendingIteratorRemovesElements() {
+        CustomLinkedList<Integer> list = new CustomLinkedList<>();
+        IntStream.range(0, 10).forEach(list::add);
+
+        Iterator<Integer> iterator = list.descendingIterator();
+        int expected = 9;
+        while (iterator.hasNext()) {
+            int value = iterator.next();
+            assertThat(value, is(expected--));
+            if (value % 2 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(list.size(), is(5));
+        IntStream.range(0, 5).forEach((i) -> assertThat(list.get(i), is(2 * i + 1)));
+    }
+
+    @Test
+    public void testThatListIteratorAddsAndSetsElements() {
+        CustomLinkedList<Integer> list = new CustomLinkedList<>();
+        IntStream.range(0, 10).forEach(list::add);
+
+        ListIterator<Integer> iterator = list.listIterator();
+        while (iterator.hasNext()) {
+            int value = iterator.next();
+            iterator.set(value * 2);
+            iterator.add(value * 2 + 1);
+        }
+
+        assertThat(list.size(), is(20));
+        IntStream.range(0, 20).forEach((i) -> assertThat(list.get(i), is(i)));
+        assertThat(list.lastIndexOf(19), is(19));
+    }
+
+    @Test
+    public void testThatAddAllAppendsAndInsertsElements() {
+        List<Integer> list = new CustomLinkedList<>();
+        list.addAll(Arrays.asList(0, 1, 5, 6));
+        list.addAll(2, Arrays.asList(2, 3, 4));
+
+        assertThat(list.size(), is(7));
+        assertThat(new ArrayList<>(list), is(Arrays.asList(0, 1, 2, 3, 4, 5, 6)));
+        assertThat(list.addAll(Collections.emptyList()), is(false));
+    }
+
+    @Test
+    public void testThatAddAllOfBigCollectionKeepsOrder() {
+        List<Integer> list = new CustomLinkedList<>();
+        list.add(-1);
+        list.addAll(IntStream.range(0, 10_000).boxed().collect(Collectors.toList()));
+        list.addAll(list);
+
+        assertThat(list.size(), is(20_002));
+        assertThat(list.get(1), is(0));
+        assertThat(list.get(10_000), is(9_999));
+        assertThat(list.get(10_001), is(-1));
+    }
+
+    @Test
+    public void testThatRemoveAllAndRetainAllFilterElements() {
+        List<Integer> list = new CustomLinkedList<>();
+        IntStream.range(0, 100).forEach(list::add);
+
+        List<Integer> multiplesOfThree = IntStream.range(0, 100).filter((i) -> i % 3 == 0).boxed()
+                .collect(Collectors.toList());
+        assertThat(list.removeAll(multiplesOfThree), is(true));
+        assertThat(list.size(), is(66));
+        assertThat(list.retainAll(Arrays.asList(1, 2, 3, 4)), is(true));
+
+        assertThat(new ArrayList<>(list), is(Arrays.asList(1, 2, 4)));
+        assertThat(list.removeAll(Arrays.asList(100, 200)), is(false));
+    }
+
+    @Test
+    public void testThatContainsAllChecksEveryElement() {
+        List<Integer> list = new CustomLinkedList<>();
+        IntStream.range(0, 100).forEach(list::add);
+
+        assertThat(list.containsAll(Arrays.asList(1, 50, 99)), is(true));
+        assertThat(list.containsAll(IntStream.range(0, 100).boxed().collect(Collectors.toList())), is(true));
+        assertThat(list.containsAll(IntStream.range(0, 101).boxed().collect(Collectors.toList())), is(false));
+    }
+
+    @Test
+    public void testThatToArrayCopiesElements() {
+        List<String> list = new CustomLinkedList<>();
+        list.addAll(Arrays.asList("a", "b", "c"));
+
+        assertThat(list.toArray(), is(new Object[]{"a", "b", "c"}));
+        assertThat(list.toArray(new String[0]), is(new String[]{"a", "b", "c"}));
+    }
+}
@@ -31,7 +31,9 @@ public class CustomListsTest {
     public static Collection<Object> data() {
         return Arrays.asList(new Object[][] {
                 {new CustomArrayList(), "ArrayList"},
-                {new CustomLinkedList(), "LinkedList"}
+                {new CustomCircularArrayList(), "CircularArrayList"},
+                {new CustomLinkedList(), "LinkedList"},
+                {new CustomUnrolledLinkedList(), "UnrolledLinkedList"}
         });
     }
 
@@ -0,0 +1,86 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CustomLongTreeMapTest {
+
+    @Test
+    public void testThatMapContainsPutKeys() {
+        CustomLongTreeMap<String> m = new CustomLongTreeMap<>();
+
+        LongStream.range(-1000, 1000)
+                .forEach((i) -> m.put(i * 1_000_000_007L, String.valueOf(i)));
+
+        assertThat(m.size(), is(2000));
+        LongStream.range(-1000, 1000)
+                .forEach((i) -> assertThat(m.get(i * 1_000_000_007L), is(String.valueOf(i))));
+        assertThat(m.get(1), is(nullValue()));
+    }
+
+    @Test
+    public void testThatRemovedKeysAreNotAvailable() {
+        CustomLongTreeMap<String> m = new CustomLongTreeMap<>();
+        LongStream.range(0, 1000).forEach((i) -> m.put(i, String.valueOf(i)));
+
+        LongStream.range(0, 1000)
+                .filter((i) -> i % 2 == 0)
+                .forEach((i) -> assertThat(m.remove(i), is(String.valueOf(i))));
+
+        assertThat(m.size(), is(500));
+        LongStream.range(0, 1000)
+                .forEach((i) -> assertThat(m.containsKey(i), is(i % 2 != 0)));
+    }
+
+    @Test
+    public void testThatNavigationMethodsFindNearestKeys() {
+        CustomLongTreeMap<String> m = new CustomLongTreeMap<>();
+        LongStream.range(0, 100).forEach((i) -> m.put(10 * i, String.valueOf(i)));
+
+        assertThat(m.firstKey(), is(0L));
+        assertThat(m.lastKey(), is(990L));
+        assertThat(m.floorKey(15), is(10L));
+        assertThat(m.lowerKey(10), is(0L));
+        assertThat(m.ceilingKey(15), is(20L));
+        assertThat(m.higherKey(20), is(30L));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testThatFloorKeyThrowsExceptionIfThereIsNoSuchKey() {
+        CustomLongTreeMap<String> m = new CustomLongTreeMap<>();
+        m.put(10, "10");
+
+        m.floorKey(9);
+    }
+
+    @Test
+    public void testThatForEachInRangeVisitsKeysInOrder() {
+        CustomLongTreeMap<String> m = new CustomLongTreeMap<>();
+        LongStream.range(0, 100).map((i) -> i * 37 % 100).forEach((i) -> m.put(i, String.valueOf(i)));
+
+        List<Long> keys = new ArrayList<>();
+        m.forEachInRange(42, 47, (key, value) -> keys.add(key));
+
+        assertThat(keys, is(Arrays.asList(42L, 43L, 44L, 45L, 46L)));
+    }
+
+    @Test
+    public void testThatMapViewIteratesInOrder() {
+        CustomLongTreeMap<String> m = new CustomLongTreeMap<>();
+        m.asMap().put(3L, "3");
+        m.asMap().put(1L, "1");
+        m.asMap().put(2L, "2");
+
+        assertThat(new ArrayList<>(m.asMap().keySet()), is(Arrays.asList(1L, 2L, 3L)));
+        assertThat(m.asMap().get(2L), is("2"));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -16,6 +17,7 @@ import static org.hamcrest.core.IsNull.notNullValue;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
 
 @RunWith(Parameterized.class)
 public class CustomMapsTest {
@@ -30,7 +32,12 @@ public class CustomMapsTest {
     public static Collection<Object[]> data() {
         return Arrays.asList(new Object[][]{
                 {new CustomTreeMap(), "TreeMap"},
-                {new CustomHashMap(), "HashMap"}
+                {new CustomBTreeMap(), "BTreeMap"},
+                {new CustomBTreeMap(4), "BTreeMapOfFanout4"},
+                {new CustomHashMap(), "HashMap"},
+                {new CustomOpenHashMap(), "OpenHashMap"},
+                {new IntObjectHashMap().asMap(), "IntObjectHashMap"},
+                {new CustomConcurrentHashMap(), "ConcurrentHashMap"}
             });
     }
 
@@ -67,6 +74,8 @@ public class CustomMapsTest {
 
     @Test
     public void testThatWeCanPutNullValue() {
+        assumeFalse(m instanceof ConcurrentMap);
+
         m.put(1, null);
         assertThat(m.containsKey(1), is(true));
     }
@@ -129,6 +138,8 @@ public class CustomMapsTest {
 
     @Test
     public void testContainsValueMethodWorksProperlyOnNullValue() {
+        assumeFalse(m instanceof ConcurrentMap);
+
         m.put(5, null);
 
         assertTrue(m.containsValue(null));
@@ -249,6 +260,39 @@ public class CustomMapsTest {
                 });
     }
 
+    @Test
+    public void testThatOtherKeysAreAvailableAfterRemovingHalfOfKeys() {
+        fillMapToSize(1000);
+
+        getShuffledList(1000).stream()
+                .filter(i -> i % 2 == 0)
+                .forEach(i -> assertThat(m.remove(i), is(String.valueOf(i))));
+
+        assertThat(m.size(), is(500));
+        IntStream.range(0, 1000)
+                .forEach(i -> assertThat(m.get(i), is(i % 2 == 0 ? null : String.valueOf(i))));
+    }
+
+    @Test
+    public void testThatPutAllCopiesSortedAndUnsortedMaps() {
+        Map<Integer, String> sorted = new TreeMap<>();
+        fillMapToSize(sorted, 1000);
+        Map<Integer, String> unsorted = new HashMap<>();
+        IntStream.range(500, 1500).forEach((i) -> unsorted.put(i, "new" + i));
+
+        m.putAll(sorted);
+        assertThat(m.size(), is(1000));
+        IntStream.range(0, 1000).forEach(i -> assertThat(m.get(i), is(String.valueOf(i))));
+
+        m.putAll(unsorted);
+        assertThat(m.size(), is(1500));
+        IntStream.range(0, 1500).forEach(i -> assertThat(m.get(i), is(i < 500 ? String.valueOf(i) : "new" + i)));
+
+        IntStream.range(0, 1500).filter(i -> i % 3 == 0).forEach(m::remove);
+        assertThat(m.size(), is(1000));
+        IntStream.range(0, 1500).forEach(i -> assertThat(m.containsKey(i), is(i % 3 != 0)));
+    }
+
     private void fillMapToSize(Map<Integer, String> map, int size) {
         getShuffledList(size)
                 .forEach((i) -> map.put(i, String.valueOf(i)));
@@ -0,0 +1,93 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class CustomOpenHashMapTest {
+
+    @Test
+    public void testThatViewsContainAllEntries() {
+        Map<Integer, Integer> m = new CustomOpenHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        IntStream.range(0, 1000).forEach((i) -> {
+            m.put(i * 7, -i);
+            expected.put(i * 7, -i);
+        });
+
+        assertThat(new HashSet<>(m.entrySet()), is(expected.entrySet()));
+        assertThat(new HashSet<>(m.keySet()), is(expected.keySet()));
+        assertThat(new HashSet<>(m.values()), is(new HashSet<>(expected.values())));
+        assertTrue(m.entrySet().contains(new HashMap.SimpleEntry<>(7, -1)));
+    }
+
+    @Test
+    public void testThatIteratorRemovalReturnsEveryKeyOnce() {
+        for (int n = 1; n < 200; n++) {
+            Map<Integer, Integer> m = new CustomOpenHashMap<>();
+            IntStream.range(0, n).forEach((i) -> m.put(i, i));
+
+            Set<Integer> seen = new HashSet<>();
+            Iterator<Integer> iterator = m.keySet().iterator();
+            while (iterator.hasNext()) {
+                int key = iterator.next();
+                assertTrue(seen.add(key));
+                if (key % 3 != 0) {
+                    iterator.remove();
+                }
+            }
+
+            assertThat(seen.size(), is(n));
+            assertThat(m.size(), is((n + 2) / 3));
+            IntStream.range(0, n).forEach((i) -> assertThat(m.containsKey(i), is(i % 3 == 0)));
+        }
+    }
+
+    @Test
+    public void testThatEntrySetValueWritesThrough() {
+        Map<Integer, Integer> m = new CustomOpenHashMap<>();
+        IntStream.range(0, 100).forEach((i) -> m.put(i, i));
+
+        m.entrySet().forEach((entry) -> entry.setValue(entry.getValue() * 2));
+
+        IntStream.range(0, 100).forEach((i) -> assertThat(m.get(i), is(i * 2)));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testThatIteratorFailsAfterMapModification() {
+        Map<Integer, Integer> m = new CustomOpenHashMap<>();
+        IntStream.range(0, 10).forEach((i) -> m.put(i, i));
+
+        Iterator<Integer> iterator = m.keySet().iterator();
+        iterator.next();
+        m.put(100, 100);
+
+        iterator.next();
+    }
+
+    @Test
+    public void testThatMapEqualsToMapOfSameEntries() {
+        Map<Integer, Integer> m = new CustomOpenHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        IntStream.range(0, 100).forEach((i) -> expected.put(i, i % 2 == 0 ? i : null));
+
+        m.putAll(expected);
+
+        assertThat(m.equals(expected), is(true));
+        assertThat(expected.equals(m), is(true));
+        assertThat(m.hashCode(), is(expected.hashCode()));
+
+        m.put(1, 1);
+        assertThat(m.equals(expected), is(false));
+    }
+}
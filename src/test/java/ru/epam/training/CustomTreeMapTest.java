@@ -0,0 +1,340 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class CustomTreeMapTest {
+
+    @Test
+    public void testThatKeysAreIteratedInOrder() {
+        NavigableMap<Integer, String> m = new CustomTreeMap<>();
+
+        IntStream.range(0, 100)
+                .map((i) -> i * 37 % 100)
+                .forEach((i) -> m.put(i, String.valueOf(i)));
+
+        int expected = 0;
+        for (Map.Entry<Integer, String> entry : m.entrySet()) {
+            assertThat(entry.getKey(), is(expected));
+            assertThat(entry.getValue(), is(String.valueOf(expected)));
+            expected++;
+        }
+        assertThat(expected, is(100));
+    }
+
+    @Test
+    public void testThatNavigationMethodsFindNearestKeys() {
+        NavigableMap<Integer, String> m = evenKeysMap(100);
+
+        assertThat(m.firstKey(), is(0));
+        assertThat(m.lastKey(), is(198));
+        assertThat(m.floorKey(51), is(50));
+        assertThat(m.floorKey(50), is(50));
+        assertThat(m.lowerKey(50), is(48));
+        assertThat(m.ceilingKey(51), is(52));
+        assertThat(m.higherKey(52), is(54));
+        assertThat(m.lowerKey(0), is(nullValue()));
+        assertThat(m.higherKey(198), is(nullValue()));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testThatFirstKeyThrowsExceptionOnEmptyMap() {
+        new CustomTreeMap<Integer, String>().firstKey();
+    }
+
+    @Test
+    public void testThatSubMapContainsOnlyKeysOfRange() {
+        NavigableMap<Integer, String> m = evenKeysMap(100);
+
+        NavigableMap<Integer, String> subMap = m.subMap(10, true, 20, false);
+
+        assertThat(keys(subMap), is(Arrays.asList(10, 12, 14, 16, 18)));
+        assertThat(subMap.size(), is(5));
+        assertThat(subMap.get(20), is(nullValue()));
+        assertThat(subMap.firstKey(), is(10));
+        assertThat(subMap.lastKey(), is(18));
+    }
+
+    @Test
+    public void testThatDescendingMapIteratesInReversedOrder() {
+        NavigableMap<Integer, String> m = evenKeysMap(10);
+
+        assertThat(keys(m.descendingMap()), is(Arrays.asList(18, 16, 14, 12, 10, 8, 6, 4, 2, 0)));
+        assertThat(keys(m.descendingMap().headMap(10, false)), is(Arrays.asList(18, 16, 14, 12)));
+        assertThat(m.descendingMap().ceilingKey(11), is(10));
+    }
+
+    @Test
+    public void testThatChangesOfViewAreReflectedInMap() {
+        NavigableMap<Integer, String> m = evenKeysMap(100);
+
+        m.headMap(100).clear();
+        m.tailMap(150, true).put(151, "151");
+
+        assertThat(m.size(), is(51));
+        assertThat(m.firstKey(), is(100));
+        assertThat(m.get(151), is("151"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatViewDoesNotAcceptKeyOutOfRange() {
+        NavigableMap<Integer, String> m = evenKeysMap(100);
+
+        m.headMap(100).put(100, "100");
+    }
+
+    @Test
+    public void testThatIteratorRemovesEntries() {
+        NavigableMap<Integer, String> m = evenKeysMap(1000);
+
+        Iterator<Integer> iterator = m.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 4 == 0) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(m.size(), is(500));
+        IntStream.range(0, 2000)
+                .forEach((i) -> assertThat(m.containsKey(i), is(i % 4 == 2)));
+    }
+
+    @Test
+    public void testThatPollFirstEntryRemovesIt() {
+        NavigableMap<Integer, String> m = evenKeysMap(3);
+
+        assertThat(m.pollFirstEntry().getKey(), is(0));
+        assertThat(m.pollLastEntry().getKey(), is(4));
+        assertThat(keys(m), is(Arrays.asList(2)));
+    }
+
+    @Test
+    public void testThatTreeStaysBalancedAfterChurn() {
+        CustomTreeMap<Integer, String> m = new CustomTreeMap<>();
+        Random random = new Random(42);
+
+        IntStream.range(0, 10000).forEach((i) -> m.put(i, String.valueOf(i)));
+        for (int i = 10000; i < 100000; i++) {
+            m.remove(random.nextInt(i));
+            m.put(i, String.valueOf(i));
+        }
+
+        assertThat(m.isValidRedBlackTree(), is(true));
+        assertTrue(m.height() <= 2 * log2(m.size()));
+    }
+
+    @Test
+    public void testThatTreeStaysBalancedAfterRemovingAscendingKeys() {
+        CustomTreeMap<Integer, String> m = new CustomTreeMap<>();
+
+        IntStream.range(0, 100000).forEach((i) -> m.put(i, String.valueOf(i)));
+        IntStream.range(0, 99000).forEach((i) -> {
+            assertThat(m.remove(i), is(String.valueOf(i)));
+        });
+
+        assertThat(m.isValidRedBlackTree(), is(true));
+        assertTrue(m.height() <= 2 * log2(m.size()));
+        assertThat(m.firstKey(), is(99000));
+    }
+
+    @Test
+    public void testThatMapIsSortedByComparator() {
+        NavigableMap<String, Integer> m = new CustomTreeMap<>(Comparator.comparing(String::length)
+                .thenComparing(Comparator.reverseOrder()));
+
+        Arrays.asList("bb", "a", "ccc", "c", "aa").forEach((key) -> m.put(key, key.length()));
+
+        assertThat(new ArrayList<>(m.keySet()), is(Arrays.asList("c", "a", "bb", "aa", "ccc")));
+        assertThat(m.get("aa"), is(2));
+        assertThat(m.ceilingKey("b"), is("a"));
+        assertThat(m.remove("bb"), is(2));
+        assertThat(new ArrayList<>(m.descendingMap().keySet()), is(Arrays.asList("ccc", "aa", "a", "c")));
+    }
+
+    @Test
+    public void testThatMapAcceptsKeysWhichAreNotComparableWithComparator() {
+        NavigableMap<Object, String> m = new CustomTreeMap<>(Comparator.comparing(Object::hashCode));
+
+        Object first = new Object();
+        Object second = new Object();
+        m.put(first, "first");
+        m.put(second, "second");
+
+        assertThat(m.get(first), is("first"));
+        assertThat(m.get(second), is("second"));
+    }
+
+    private static int log2(int n) {
+        return 32 - Integer.numberOfLeadingZeros(n);
+    }
+
+    private NavigableMap<Integer, String> evenKeysMap(int size) {
+        NavigableMap<Integer, String> m = new CustomTreeMap<>();
+        IntStream.range(0, size)
+                .forEach((i) -> m.put(2 * i, String.valueOf(2 * i)));
+        return m;
+    }
+
+    private List<Integer> keys(NavigableMap<Integer, String> m) {
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : m.keySet()) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    @Test
+    public void testThatPutAllCopiesAllEntries() {
+        Map<Integer, String> source = new HashMap<>();
+        IntStream.range(0, 1000).forEach((i) -> source.put(i, String.valueOf(i)));
+
+        CustomTreeMap<Integer, String> m = new CustomTreeMap<>();
+        m.put(-1, "-1");
+        m.putAll(source);
+
+        assertThat(m.size(), is(1001));
+        assertThat(m.firstKey(), is(-1));
+        assertThat(m.lastKey(), is(999));
+        assertTrue(m.isValidRedBlackTree());
+    }
+
+    @Test
+    public void testThatBuilderBuildsValidTreeOfAnySize() {
+        for (int size = 0; size < 500; size++) {
+            CustomTreeMap.Builder<Integer, String> builder = CustomTreeMap.builder();
+            IntStream.range(0, size).forEach((i) -> builder.put(2 * i, String.valueOf(2 * i)));
+            CustomTreeMap<Integer, String> m = builder.build();
+
+            assertThat(m.size(), is(size));
+            assertTrue(m.isValidRedBlackTree());
+            assertThat(keys(m), is(keys(evenKeysMap(size))));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatBuilderRejectsUnsortedKeys() {
+        CustomTreeMap.<Integer, String>builder(Comparator.reverseOrder())
+                .put(2, "2")
+                .put(1, "1")
+                .put(1, "1");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThatBuilderCantBeUsedAfterBuild() {
+        CustomTreeMap.Builder<Integer, String> builder = CustomTreeMap.builder();
+        builder.put(1, "1").build();
+
+        builder.put(2, "2");
+    }
+
+    @Test
+    public void testThatFromSortedMapIsMutable() {
+        CustomTreeMap<Integer, String> m = CustomTreeMap.fromSorted(null, evenKeysMap(1000).entrySet());
+        IntStream.range(0, 1000).forEach((i) -> m.remove(2 * i));
+        IntStream.range(0, 100).forEach((i) -> m.put(i, String.valueOf(i)));
+
+        assertThat(m.size(), is(100));
+        assertTrue(m.isValidRedBlackTree());
+    }
+
+    @Test
+    public void testThatMergeAppliesFunctionToCommonKeys() {
+        CustomTreeMap<Integer, Integer> first = new CustomTreeMap<>();
+        CustomTreeMap<Integer, Integer> second = new CustomTreeMap<>();
+        IntStream.range(0, 1000).forEach((i) -> first.put(2 * i, 1));
+        IntStream.range(0, 1000).forEach((i) -> second.put(3 * i, 2));
+
+        CustomTreeMap<Integer, Integer> m = CustomTreeMap.merge(first, second, Integer::sum);
+
+        Map<Integer, Integer> expected = new HashMap<>(first);
+        second.forEach((key, value) -> expected.merge(key, value, Integer::sum));
+        assertThat(m.size(), is(expected.size()));
+        expected.forEach((key, value) -> assertThat(m.get(key), is(value)));
+        assertTrue(m.isValidRedBlackTree());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatMapsOfDifferentOrderingCantBeMerged() {
+        CustomTreeMap.merge(new CustomTreeMap<Integer, Integer>(),
+                new CustomTreeMap<Integer, Integer>(Comparator.reverseOrder()), Integer::sum);
+    }
+
+    @Test
+    public void testThatPutAllOfSortedMapBuildsValidTree() {
+        CustomTreeMap<Integer, String> m = new CustomTreeMap<>();
+        m.putAll(evenKeysMap(1000));
+
+        assertThat(keys(m), is(keys(evenKeysMap(1000))));
+        assertTrue(m.isValidRedBlackTree());
+    }
+
+    @Test
+    public void testThatRankAndSelectAreInverse() {
+        CustomTreeMap<Integer, String> m = (CustomTreeMap<Integer, String>) evenKeysMap(1000);
+        IntStream.range(0, 500).forEach((i) -> m.remove(4 * i));
+
+        IntStream.range(0, 500).forEach((i) -> {
+            assertThat(m.select(i), is(4 * i + 2));
+            assertThat(m.rank(4 * i + 2), is(i));
+            assertThat(m.rank(4 * i + 3), is(i + 1));
+        });
+        assertTrue(m.isValidRedBlackTree());
+    }
+
+    @Test
+    public void testThatCountInRangeIsSizeOfSubMap() {
+        CustomTreeMap<Integer, String> m = (CustomTreeMap<Integer, String>) evenKeysMap(1000);
+
+        assertThat(m.countInRange(10, 20), is(5));
+        assertThat(m.countInRange(10, false, 20, true), is(5));
+        assertThat(m.countInRange(11, 11), is(0));
+        assertThat(m.countInRange(-5, 5000), is(1000));
+        assertThat(m.subMap(10, true, 20, true).size(), is(6));
+        assertThat(m.headMap(100, false).descendingMap().size(), is(50));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testThatSelectOutOfBoundsThrowsException() {
+        CustomTreeMap<Integer, String> m = (CustomTreeMap<Integer, String>) evenKeysMap(10);
+
+        m.select(10);
+    }
+
+    @Test
+    public void testThatRemoveComparesKeyOncePerLevel() {
+        AtomicInteger comparisons = new AtomicInteger();
+        CustomTreeMap<Integer, Integer> m = new CustomTreeMap<>((a, b) -> {
+            comparisons.incrementAndGet();
+            return Integer.compare(a, b);
+        });
+        IntStream.range(0, 1000).forEach((i) -> m.put(i, i));
+
+        for (int i = 0; i < 1000; i += 7) {
+            int height = m.height();
+            comparisons.set(0);
+            assertThat(m.remove(i), is(i));
+            assertTrue(comparisons.get() <= height);
+        }
+        comparisons.set(0);
+        assertThat(m.remove(0), is(nullValue()));
+        assertTrue(comparisons.get() <= m.height());
+        assertTrue(m.isValidRedBlackTree());
+    }
+}
@@ -0,0 +1,168 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class CustomUnrolledLinkedListTest {
+
+    @Test
+    public void testThatElementsAreInOrderAfterInsertsInTheMiddle() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+
+        IntStream.range(0, 1000)
+                .forEach((i) -> list.add(i / 2, i));
+
+        Iterator<Integer> iterator = list.iterator();
+        IntStream.range(0, 1000)
+                .forEach((i) -> {
+                    int expected = i < 500 ? 2 * i + 1 : 2 * (999 - i);
+                    assertThat(list.get(i), is(expected));
+                    assertThat(iterator.next(), is(expected));
+                });
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    public void testThatElementsAreAvailableAfterRemovingMostOfThem() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+        IntStream.range(0, 1000).forEach(list::add);
+
+        for (int i = 999; i >= 0; i--) {
+            if (i % 10 != 0) {
+                assertThat(list.remove(i), is(i));
+            }
+        }
+
+        assertThat(list.size(), is(100));
+        IntStream.range(0, 100).forEach((i) -> assertThat(list.get(i), is(10 * i)));
+        assertThat(list.lastIndexOf(990), is(99));
+    }
+
+    @Test
+    public void testThatIteratorRemovesElements() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+        IntStream.range(0, 1000).forEach(list::add);
+
+        Iterator<Integer> iterator = list.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() % 3 != 0) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(list.size(), is(334));
+        IntStream.range(0, 334).forEach((i) -> assertThat(list.get(i), is(3 * i)));
+    }
+
+    @Test
+    public void testThatListIsCopiedToArray() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+        IntStream.range(0, 1000).forEach((i) -> list.add(i / 2, i));
+        List<Integer> expected = new ArrayList<>();
+        IntStream.range(0, 1000).forEach((i) -> expected.add(i / 2, i));
+
+        assertThat(Arrays.asList(list.toArray()), is(Arrays.asList(expected.toArray())));
+        assertThat(Arrays.asList(list.toArray(new Integer[0])), is(expected));
+        assertThat(new ArrayList<>(list), is(expected));
+
+        Integer[] bigger = new Integer[1001];
+        bigger[1000] = -1;
+        assertThat(list.toArray(bigger)[1000] == null, is(true));
+    }
+
+    @Test
+    public void testThatAddAllInsertsElementsInOrder() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+        List<Integer> expected = new ArrayList<>();
+        List<Integer> chunk = IntStream.range(0, 150).boxed().collect(Collectors.toList());
+
+        assertThat(list.addAll(chunk), is(true));
+        expected.addAll(chunk);
+        for (int index : new int[]{0, 75, 64, 150, 299, 450}) {
+            list.addAll(index, chunk);
+            expected.addAll(index, chunk);
+        }
+        assertThat(list.addAll(10, new ArrayList<>()), is(false));
+
+        assertThat(list.size(), is(expected.size()));
+        assertThat(new ArrayList<>(list), is(expected));
+    }
+
+    @Test
+    public void testThatRemoveAllAndRetainAllCompactNodes() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+        IntStream.range(0, 1000).forEach(list::add);
+
+        assertThat(list.removeAll(IntStream.range(0, 1000).filter((i) -> i % 3 != 0).boxed()
+                .collect(Collectors.toList())), is(true));
+        assertThat(list.retainAll(Arrays.asList(0, 3, 6, 999, 5000)), is(true));
+        assertThat(list.removeAll(Arrays.asList(1, 2)), is(false));
+
+        assertThat(new ArrayList<>(list), is(Arrays.asList(0, 3, 6, 999)));
+        assertTrue(list.containsAll(Arrays.asList(999, 0)));
+        assertThat(list.containsAll(Arrays.asList(0, 1)), is(false));
+    }
+
+    @Test
+    public void testThatRemoveIfKeepsListConsistentWhenFilterThrows() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+        IntStream.range(0, 200).forEach(list::add);
+
+        try {
+            list.removeIf((i) -> {
+                if (i == 100) {
+                    throw new IllegalStateException();
+                }
+                return i % 2 == 0;
+            });
+        } catch (IllegalStateException e) {
+            List<Integer> expected = IntStream.range(0, 200).filter((i) -> i >= 100 || i % 2 != 0).boxed()
+                    .collect(Collectors.toList());
+            assertThat(new ArrayList<>(list), is(expected));
+            assertThat(list.size(), is(expected.size()));
+            return;
+        }
+        throw new AssertionError("Exception of the filter isn't thrown");
+    }
+
+    @Test
+    public void testThatSubListIsViewOfRange() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+        IntStream.range(0, 200).forEach(list::add);
+
+        List<Integer> subList = list.subList(50, 150);
+        assertThat(subList.size(), is(100));
+        assertThat(subList.get(0), is(50));
+        subList.set(1, -1);
+        subList.remove(0);
+        subList.add(-2);
+        subList.subList(0, 10).clear();
+
+        assertThat(list.size(), is(190));
+        assertThat(list.get(50), is(61));
+        assertThat(list.get(139), is(-2));
+        assertThat(subList.stream().mapToInt(Integer::intValue).sum(),
+                is(IntStream.range(61, 150).sum() - 2));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testThatSubListFailsAfterListModification() {
+        List<Integer> list = new CustomUnrolledLinkedList<>();
+        IntStream.range(0, 10).forEach(list::add);
+
+        List<Integer> subList = list.subList(2, 5);
+        list.add(10);
+        subList.get(0);
+    }
+}
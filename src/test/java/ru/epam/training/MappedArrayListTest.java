@@ -0,0 +1,128 @@
+package ru.epam.training;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MappedArrayListTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testThatReopenedFileContainsAddedElements() throws IOException {
+        Path file = listFile();
+        try (MappedArrayList<Long> list = MappedArrayList.open(file, Serializer.LONG)) {
+            IntStream.range(0, 5000).forEach((i) -> list.add(i * 7L));
+        }
+
+        try (MappedArrayList<Long> list = MappedArrayList.open(file, Serializer.LONG)) {
+            assertThat(list.size(), is(5000));
+            IntStream.range(0, 5000).forEach((i) -> assertThat(list.get(i), is(i * 7L)));
+
+            list.add(-1L);
+            assertThat(list.get(5000), is(-1L));
+        }
+    }
+
+    @Test
+    public void testThatAddedElementsSurviveNotClosedList() throws IOException {
+        Path file = listFile();
+        MappedArrayList<Integer> crashed = MappedArrayList.open(file, Serializer.INTEGER);
+        try {
+            IntStream.range(0, 3000).forEach(crashed::add);
+
+            try (MappedArrayList<Integer> list = MappedArrayList.open(file, Serializer.INTEGER)) {
+                assertThat(list.size(), is(3000));
+                assertThat(list.get(2999), is(2999));
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    public void testThatListBehavesAsArrayList() throws IOException {
+        Path file = listFile();
+        List<Integer> expected = new ArrayList<>();
+        try (MappedArrayList<Integer> list = MappedArrayList.open(file, Serializer.INTEGER)) {
+            IntStream.range(0, 2000).forEach((i) -> {
+                list.add(i);
+                expected.add(i);
+            });
+            list.add(1000, -1);
+            expected.add(1000, -1);
+            assertThat(list.remove(5), is(expected.remove(5)));
+            assertThat(list.set(1500, 42), is(expected.set(1500, 42)));
+
+            assertThat(list, is(expected));
+        }
+    }
+
+    @Test
+    public void testThatBatchAddedElementsSurviveNotClosedList() throws IOException {
+        Path file = listFile();
+        MappedArrayList<Integer> crashed = MappedArrayList.open(file, Serializer.INTEGER);
+        try {
+            crashed.add(-1);
+            List<Integer> elements = new ArrayList<>();
+            IntStream.range(0, 5000).forEach(elements::add);
+            crashed.addAll(elements);
+
+            try (MappedArrayList<Integer> list = MappedArrayList.open(file, Serializer.INTEGER)) {
+                assertThat(list.size(), is(5001));
+                assertThat(list.get(0), is(-1));
+                IntStream.range(0, 5000).forEach((i) -> assertThat(list.get(i + 1), is(i)));
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    public void testThatBatchWithNullElementIsNotCommitted() throws IOException {
+        Path file = listFile();
+        try (MappedArrayList<Integer> list = MappedArrayList.open(file, Serializer.INTEGER)) {
+            list.add(1);
+            try {
+                list.addAll(Arrays.asList(2, 3, null, 4));
+            } catch (NullPointerException e) {
+                // expected
+            }
+
+            assertThat(list.size(), is(1));
+            assertThat(list.get(0), is(1));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testThatGetOutOfBoundsThrowsException() throws IOException {
+        Path file = listFile();
+        try (MappedArrayList<Integer> list = MappedArrayList.open(file, Serializer.INTEGER)) {
+            list.add(1);
+            list.get(1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatFileOfOtherRecordsIsRejected() throws IOException {
+        Path file = listFile();
+        MappedArrayList.open(file, Serializer.INTEGER).close();
+
+        MappedArrayList.open(file, Serializer.LONG);
+    }
+
+    private Path listFile() {
+        return folder.getRoot().toPath().resolve("list");
+    }
+}
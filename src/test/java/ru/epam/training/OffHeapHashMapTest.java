@@ -0,0 +1,150 @@
+package ru.epam.training;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class OffHeapHashMapTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testThatMapContainsPutEntries() {
+        try (OffHeapHashMap<Long, Integer> m = new OffHeapHashMap<>(Serializer.LONG, Serializer.INTEGER)) {
+            IntStream.range(0, 10_000).forEach((i) -> m.put(i * 31L, i));
+
+            assertThat(m.size(), is(10_000));
+            IntStream.range(0, 10_000).forEach((i) -> assertThat(m.get(i * 31L), is(i)));
+            assertThat(m.get(1L), is(nullValue()));
+            assertThat(m.containsValue(9_999), is(true));
+            assertThat(m.containsValue(10_000), is(false));
+        }
+    }
+
+    @Test
+    public void testThatPutReplacesValueAndRemoveShiftsSlots() {
+        try (OffHeapHashMap<Integer, Integer> m = new OffHeapHashMap<>(Serializer.INTEGER, Serializer.INTEGER)) {
+            IntStream.range(0, 1000).forEach((i) -> m.put(i, i));
+
+            assertThat(m.put(5, 50), is(5));
+            IntStream.range(0, 1000)
+                    .filter((i) -> i % 2 == 0)
+                    .forEach((i) -> assertThat(m.remove(i), is(i)));
+
+            assertThat(m.size(), is(500));
+            assertThat(m.get(5), is(50));
+            IntStream.range(0, 1000)
+                    .filter((i) -> i != 5)
+                    .forEach((i) -> assertThat(m.get(i), is(i % 2 != 0 ? i : null)));
+        }
+    }
+
+    @Test
+    public void testThatByteArrayKeysAreComparedByContent() {
+        try (OffHeapHashMap<byte[], byte[]> m = new OffHeapHashMap<>(Serializer.bytes(16), Serializer.bytes(4))) {
+            byte[] key = new byte[16];
+            key[15] = 1;
+            m.put(key, new byte[]{1, 2, 3, 4});
+
+            byte[] sameKey = new byte[16];
+            sameKey[15] = 1;
+            assertThat(Arrays.equals(m.get(sameKey), new byte[]{1, 2, 3, 4}), is(true));
+            assertThat(m.containsKey(new byte[16]), is(false));
+        }
+    }
+
+    @Test
+    public void testThatViewsContainAllEntries() {
+        try (OffHeapHashMap<Integer, Integer> m = new OffHeapHashMap<>(Serializer.INTEGER, Serializer.INTEGER, 100)) {
+            Map<Integer, Integer> expected = new HashMap<>();
+            IntStream.range(0, 100).forEach((i) -> {
+                m.put(i, -i);
+                expected.put(i, -i);
+            });
+
+            assertThat(new HashSet<>(m.entrySet()), is(expected.entrySet()));
+            assertThat(new HashSet<>(m.keySet()), is(expected.keySet()));
+            assertThat(new HashSet<>(m.values()), is(new HashSet<>(expected.values())));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThatClosedMapCantBeUsed() {
+        OffHeapHashMap<Integer, Integer> m = new OffHeapHashMap<>(Serializer.INTEGER, Serializer.INTEGER);
+        m.put(1, 1);
+        m.close();
+
+        m.get(1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testThatNullValueIsRejected() {
+        try (OffHeapHashMap<Integer, Integer> m = new OffHeapHashMap<>(Serializer.INTEGER, Serializer.INTEGER)) {
+            m.put(1, null);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatKeyOfWrongLengthIsRejected() {
+        try (OffHeapHashMap<byte[], Integer> m = new OffHeapHashMap<>(Serializer.bytes(8), Serializer.INTEGER)) {
+            m.put(new byte[4], 1);
+        }
+    }
+
+    @Test
+    public void testThatReopenedFileContainsEntries() throws IOException {
+        Path file = mapFile();
+        try (OffHeapHashMap<Long, Integer> m = OffHeapHashMap.open(file, Serializer.LONG, Serializer.INTEGER)) {
+            IntStream.range(0, 10_000).forEach((i) -> m.put(i * 31L, i));
+            IntStream.range(0, 100).forEach((i) -> m.remove(i * 31L));
+        }
+
+        try (OffHeapHashMap<Long, Integer> m = OffHeapHashMap.open(file, Serializer.LONG, Serializer.INTEGER)) {
+            assertThat(m.size(), is(9_900));
+            IntStream.range(0, 10_000).forEach((i) -> assertThat(m.get(i * 31L), is(i < 100 ? null : i)));
+        }
+    }
+
+    @Test
+    public void testThatFileOfNotClosedMapIsRecovered() throws IOException {
+        Path file = mapFile();
+        OffHeapHashMap<Integer, Integer> crashed = OffHeapHashMap.open(file, Serializer.INTEGER, Serializer.INTEGER);
+        try {
+            IntStream.range(0, 1000).forEach((i) -> crashed.put(i, i));
+            crashed.force();
+            IntStream.range(1000, 2000).forEach((i) -> crashed.put(i, i));
+
+            try (OffHeapHashMap<Integer, Integer> m = OffHeapHashMap.open(file, Serializer.INTEGER, Serializer.INTEGER)) {
+                assertThat(m.size(), is(2000));
+                IntStream.range(0, 2000).forEach((i) -> assertThat(m.get(i), is(i)));
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatFileOfOtherSerializersIsRejected() throws IOException {
+        Path file = mapFile();
+        OffHeapHashMap.open(file, Serializer.INTEGER, Serializer.INTEGER).close();
+
+        OffHeapHashMap.open(file, Serializer.LONG, Serializer.INTEGER);
+    }
+
+    private Path mapFile() {
+        return folder.getRoot().toPath().resolve("map");
+    }
+}
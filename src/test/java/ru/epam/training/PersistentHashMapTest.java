@@ -0,0 +1,112 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PersistentHashMapTest {
+
+    @Test
+    public void testThatPlusDoesNotChangeOldVersion() {
+        PersistentHashMap<Integer, String> v1 = PersistentHashMap.<Integer, String>empty().plus(1, "a").plus(2, "b");
+        PersistentHashMap<Integer, String> v2 = v1.plus(2, "c").plus(3, "d");
+
+        assertThat(v1.size(), is(2));
+        assertThat(v1.get(2), is("b"));
+        assertThat(v1.containsKey(3), is(false));
+        assertThat(v2.size(), is(3));
+        assertThat(v2.get(2), is("c"));
+        assertThat(v2.get(3), is("d"));
+    }
+
+    @Test
+    public void testThatMinusDoesNotChangeOldVersion() {
+        PersistentMap.Builder<Integer, String> builder = PersistentHashMap.<Integer, String>empty().toBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.put(i, String.valueOf(i));
+        }
+        PersistentMap<Integer, String> v1 = builder.build();
+
+        PersistentMap<Integer, String> v2 = v1;
+        for (int i = 0; i < 10_000; i += 2) {
+            v2 = v2.minus(i);
+        }
+
+        assertThat(v1.size(), is(10_000));
+        assertThat(v2.size(), is(5_000));
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(v1.get(i), is(String.valueOf(i)));
+            assertThat(v2.containsKey(i), is(i % 2 != 0));
+        }
+    }
+
+    @Test
+    public void testThatMinusOfAbsentKeyReturnsSameMap() {
+        PersistentHashMap<Integer, String> m = PersistentHashMap.<Integer, String>empty().plus(1, "a");
+
+        assertThat(m.minus(2), is(sameInstance(m)));
+    }
+
+    @Test
+    public void testThatKeysWithEqualHashesAreKept() {
+        PersistentHashMap<CollidingKey, String> m = PersistentHashMap.empty();
+        for (int i = 0; i < 10; i++) {
+            m = m.plus(new CollidingKey(i), String.valueOf(i));
+        }
+        PersistentHashMap<CollidingKey, String> removed = m.minus(new CollidingKey(3));
+
+        assertThat(m.size(), is(10));
+        assertThat(m.get(new CollidingKey(3)), is("3"));
+        assertThat(removed.size(), is(9));
+        assertThat(removed.get(new CollidingKey(3)), is(nullValue()));
+        assertThat(removed.get(new CollidingKey(4)), is("4"));
+    }
+
+    @Test
+    public void testThatMapIsEqualToHashMapWithSameEntries() {
+        Map<Integer, String> expected = new HashMap<>();
+        PersistentHashMap<Integer, String> m = PersistentHashMap.empty();
+        for (int i = 0; i < 1000; i++) {
+            expected.put(i * 31, String.valueOf(i));
+            m = m.plus(i * 31, String.valueOf(i));
+        }
+
+        assertThat(m, is(expected));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThatBuilderCantBeUsedAfterBuild() {
+        PersistentMap.Builder<Integer, String> builder = PersistentHashMap.<Integer, String>empty().toBuilder();
+        builder.build();
+        builder.put(1, "a");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testThatMapCantBeChangedInPlace() {
+        PersistentHashMap.<Integer, String>empty().put(1, "a");
+    }
+
+    private static class CollidingKey {
+        private final int value;
+
+        CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentTreeMapTest {
+
+    @Test
+    public void testThatPlusDoesNotChangeOldVersion() {
+        PersistentTreeMap<Integer, String> v1 = PersistentTreeMap.<Integer, String>empty().plus(1, "a").plus(2, "b");
+        PersistentTreeMap<Integer, String> v2 = v1.plus(2, "c").plus(3, "d");
+
+        assertThat(v1.size(), is(2));
+        assertThat(v1.get(2), is("b"));
+        assertThat(v1.containsKey(3), is(false));
+        assertThat(v2.size(), is(3));
+        assertThat(v2.get(2), is("c"));
+        assertThat(v2.get(3), is("d"));
+    }
+
+    @Test
+    public void testThatMinusDoesNotChangeOldVersion() {
+        PersistentTreeMap<Integer, String> v1 = PersistentTreeMap.empty();
+        for (int i = 0; i < 100; i++) {
+            v1 = v1.plus(i, String.valueOf(i));
+        }
+
+        PersistentTreeMap<Integer, String> v2 = v1;
+        for (int i = 0; i < 100; i += 2) {
+            v2 = v2.minus(i);
+        }
+
+        assertThat(v1.size(), is(100));
+        assertThat(v2.size(), is(50));
+        for (int i = 0; i < 100; i++) {
+            assertThat(v1.get(i), is(String.valueOf(i)));
+            assertThat(v2.containsKey(i), is(i % 2 != 0));
+        }
+    }
+
+    @Test
+    public void testThatMinusOfAbsentKeyReturnsSameMap() {
+        PersistentTreeMap<Integer, String> m = PersistentTreeMap.<Integer, String>empty().plus(1, "a");
+
+        assertThat(m.minus(2), is(sameInstance(m)));
+    }
+
+    @Test
+    public void testThatKeysAreIteratedInOrder() {
+        List<Integer> keys = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        Collections.shuffle(keys, new Random(42));
+
+        PersistentMap.Builder<Integer, String> builder = PersistentTreeMap.<Integer, String>empty().toBuilder();
+        keys.forEach((key) -> builder.put(key, String.valueOf(key)));
+        PersistentMap<Integer, String> m = builder.build();
+
+        assertThat(new ArrayList<>(m.keySet()), is(IntStream.range(0, 1000).boxed().collect(Collectors.toList())));
+    }
+
+    @Test
+    public void testThatTreeStaysBalanced() {
+        PersistentTreeMap<Integer, String> m = PersistentTreeMap.empty();
+        for (int i = 0; i < 10_000; i++) {
+            m = m.plus(i, String.valueOf(i));
+        }
+        for (int i = 0; i < 10_000; i += 3) {
+            m = m.minus(i);
+        }
+
+        assertTrue(m.height() <= 2 * (32 - Integer.numberOfLeadingZeros(m.size())));
+    }
+
+    @Test
+    public void testThatMapUsesComparator() {
+        PersistentTreeMap<Integer, String> m = PersistentTreeMap.<Integer, String>empty(Comparator.reverseOrder())
+                .plus(1, "a").plus(3, "c").plus(2, "b");
+
+        assertThat(new ArrayList<>(m.keySet()), is(Arrays.asList(3, 2, 1)));
+    }
+
+    @Test
+    public void testThatBuilderDoesNotChangeSourceMap() {
+        PersistentTreeMap<Integer, String> m = PersistentTreeMap.<Integer, String>empty().plus(1, "a");
+
+        PersistentMap<Integer, String> built = m.toBuilder().put(2, "b").remove(1).build();
+
+        assertThat(m.get(1), is("a"));
+        assertThat(m.get(2), is(nullValue()));
+        assertThat(built.get(1), is(nullValue()));
+        assertThat(built.get(2), is("b"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThatBuilderCantBeUsedAfterBuild() {
+        PersistentMap.Builder<Integer, String> builder = PersistentTreeMap.<Integer, String>empty().toBuilder();
+        builder.build();
+        builder.put(1, "a");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testThatMapCantBeChangedInPlace() {
+        PersistentTreeMap.<Integer, String>empty().put(1, "a");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testThatNullKeyIsRejected() {
+        PersistentTreeMap.<Integer, String>empty().plus(null, "a");
+    }
+}
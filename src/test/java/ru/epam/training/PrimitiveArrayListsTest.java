@@ -0,0 +1,104 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveArrayListsTest {
+
+    @Test
+    public void testThatIntListsSizeIsDynamic() {
+        IntArrayList list = new IntArrayList();
+
+        IntStream.range(0, 100).forEach(list::add);
+
+        assertThat(list.size(), is(100));
+        IntStream.range(0, 100).forEach(i -> assertThat(list.get(i), is(i)));
+    }
+
+    @Test
+    public void testThatAddByIndexAndRemoveByIndexShiftIntList() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(1, 3, 4);
+
+        list.add(1, 2);
+        list.add(0, 0);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, list.toArray());
+        assertThat(list.remove(2), is(2));
+        assertArrayEquals(new int[]{0, 1, 3, 4}, list.toArray());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testThatWeCantGetIntByIndexEqualsSize() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(1, 2, 3);
+
+        list.get(3);
+    }
+
+    @Test
+    public void testThatRemoveValueRemovesFirstOccurrence() {
+        IntArrayList list = new IntArrayList();
+        list.addAll(5, 7, 5);
+
+        assertTrue(list.removeValue(5));
+        assertFalse(list.removeValue(8));
+        assertArrayEquals(new int[]{7, 5}, list.toArray());
+    }
+
+    @Test
+    public void testThatAddAllGrowsListAtOnce() {
+        IntArrayList list = new IntArrayList();
+        list.add(-1);
+
+        list.addAll(IntStream.range(0, 1000).toArray());
+
+        assertThat(list.size(), is(1001));
+        assertThat(list.get(1000), is(999));
+    }
+
+    @Test
+    public void testThatViewReflectsChangesOfIntList() {
+        IntArrayList list = new IntArrayList();
+        List<Integer> view = list.asList();
+
+        list.addAll(1, 2, 3);
+        view.add(4);
+        view.remove(0);
+
+        assertThat(view, is(Arrays.asList(2, 3, 4)));
+        assertArrayEquals(new int[]{2, 3, 4}, list.toArray());
+        assertTrue(view.contains(3));
+    }
+
+    @Test
+    public void testThatLongListKeepsLargeValues() {
+        LongArrayList list = new LongArrayList();
+
+        list.addAll(Long.MAX_VALUE, Long.MIN_VALUE);
+        list.add(1, 0L);
+
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 0L, Long.MIN_VALUE}, list.toArray());
+        assertThat(list.indexOf(Long.MIN_VALUE), is(2));
+    }
+
+    @Test
+    public void testThatDoubleListComparesValuesAsDoubleEquals() {
+        DoubleArrayList list = new DoubleArrayList();
+
+        list.addAll(Double.NaN, 0.0);
+
+        assertTrue(list.contains(Double.NaN));
+        assertFalse(list.contains(-0.0));
+        assertThat(list.asList(), is(Arrays.asList(Double.NaN, 0.0)));
+    }
+}
@@ -0,0 +1,153 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveHashMapsTest {
+
+    @Test
+    public void testThatIntObjectMapCanContainZeroKey() {
+        IntObjectHashMap<String> m = new IntObjectHashMap<>();
+
+        m.put(0, "zero");
+
+        assertTrue(m.containsKey(0));
+        assertThat(m.get(0), is("zero"));
+        assertThat(m.size(), is(1));
+        assertThat(m.remove(0), is("zero"));
+        assertFalse(m.containsKey(0));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    public void testThatIntObjectMapWorksProperlyOnManyKeys() {
+        IntObjectHashMap<String> m = new IntObjectHashMap<>();
+
+        IntStream.range(-5000, 5000)
+                .forEach(i -> m.put(i * 1024, String.valueOf(i)));
+
+        IntStream.range(-5000, 5000)
+                .filter(i -> i % 3 == 0)
+                .forEach(i -> assertThat(m.remove(i * 1024), is(String.valueOf(i))));
+
+        IntStream.range(-5000, 5000)
+                .forEach(i -> assertThat(m.get(i * 1024), is(i % 3 == 0 ? null : String.valueOf(i))));
+    }
+
+    @Test
+    public void testThatIntObjectMapViewContainsAllEntries() {
+        IntObjectHashMap<String> m = new IntObjectHashMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+
+        IntStream.range(0, 100)
+                .forEach(i -> {
+                    m.put(i, String.valueOf(i));
+                    expected.put(i, String.valueOf(i));
+                });
+
+        assertThat(m.asMap(), is(expected));
+    }
+
+    @Test
+    public void testThatLongObjectMapWorksProperlyOnLargeKeys() {
+        LongObjectHashMap<String> m = new LongObjectHashMap<>();
+
+        IntStream.range(0, 1000)
+                .forEach(i -> m.put(Long.MAX_VALUE - i, String.valueOf(i)));
+        m.put(0L, "zero");
+
+        assertThat(m.size(), is(1001));
+        assertThat(m.get(0L), is("zero"));
+        IntStream.range(0, 1000)
+                .forEach(i -> assertThat(m.get(Long.MAX_VALUE - i), is(String.valueOf(i))));
+        assertNull(m.get(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testThatIntIntMapReturnsZeroForMissingKey() {
+        IntIntHashMap m = new IntIntHashMap();
+
+        assertThat(m.get(5), is(0));
+        assertThat(m.getOrDefault(5, -1), is(-1));
+        assertNull(m.asMap().get(5));
+    }
+
+    @Test
+    public void testThatIntIntMapWorksProperlyOnManyKeys() {
+        IntIntHashMap m = new IntIntHashMap();
+
+        IntStream.range(-5000, 5000)
+                .forEach(i -> m.put(i, i * 2));
+
+        assertThat(m.size(), is(10000));
+        assertThat(m.put(7, 0), is(14));
+        assertThat(m.remove(7), is(0));
+        assertFalse(m.containsKey(7));
+        IntStream.range(-5000, 5000)
+                .filter(i -> i != 7)
+                .forEach(i -> assertThat(m.get(i), is(i * 2)));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testThatViewIteratorFailsAfterMapModification() {
+        IntObjectHashMap<String> m = new IntObjectHashMap<>();
+        IntStream.range(0, 10).forEach(i -> m.put(i, String.valueOf(i)));
+
+        Iterator<Integer> iterator = m.asMap().keySet().iterator();
+        iterator.next();
+        IntStream.range(1, 10).forEach(m::remove);
+
+        iterator.next();
+    }
+
+    @Test
+    public void testThatViewIteratorRemovalReturnsEveryKeyOnce() {
+        for (int n = 1; n < 200; n++) {
+            LongObjectHashMap<Integer> m = new LongObjectHashMap<>();
+            IntStream.range(0, n).forEach(i -> m.put(i, i));
+
+            Set<Long> seen = new HashSet<>();
+            Iterator<Long> iterator = m.asMap().keySet().iterator();
+            while (iterator.hasNext()) {
+                long key = iterator.next();
+                assertTrue(seen.add(key));
+                if (key % 3 != 0) {
+                    iterator.remove();
+                }
+            }
+
+            assertThat(seen.size(), is(n));
+            assertThat(m.size(), is((n + 2) / 3));
+            IntStream.range(0, n).forEach(i -> assertThat(m.containsKey(i), is(i % 3 == 0)));
+        }
+    }
+
+    @Test
+    public void testThatViewCollectionsRemoveEntries() {
+        IntIntHashMap m = new IntIntHashMap();
+        IntStream.range(0, 100).forEach(i -> m.put(i, i * 2));
+        Map<Integer, Integer> view = m.asMap();
+
+        assertTrue(view.keySet().remove(0));
+        assertTrue(view.values().remove(2));
+        assertTrue(view.entrySet().removeIf(entry -> entry.getKey() >= 50));
+        assertTrue(view.keySet().retainAll(Arrays.asList(2, 3, 4, 100)));
+
+        assertThat(m.size(), is(3));
+        IntStream.range(0, 100).forEach(i -> assertThat(m.containsKey(i), is(i >= 2 && i <= 4)));
+    }
+}
@@ -0,0 +1,114 @@
+package ru.epam.training;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SnapshotsTest {
+
+    @Test
+    public void testThatListsAreReadAsWritten() throws IOException {
+        CustomArrayList<Long> list = new CustomArrayList<>();
+        IntStream.range(0, 100_000).forEach((i) -> list.add(i * 3L));
+
+        byte[] snapshot = writeList(list);
+        assertThat(snapshot.length, is(20 + 100_000 * Long.BYTES));
+
+        List<Long> expected = new ArrayList<>(list);
+        assertThat(new ArrayList<>(Snapshots.readArrayList(channel(snapshot), Serializer.LONG)), is(expected));
+        assertThat(new ArrayList<>(Snapshots.readLinkedList(channel(snapshot), Serializer.LONG)), is(expected));
+    }
+
+    @Test
+    public void testThatHashMapIsReadAsWritten() throws IOException {
+        CustomHashMap<Integer, Long> map = new CustomHashMap<>();
+        Map<Integer, Long> expected = new HashMap<>();
+        IntStream.range(0, 100_000).forEach((i) -> {
+            map.put(i * 7, (long) -i);
+            expected.put(i * 7, (long) -i);
+        });
+
+        CustomHashMap<Integer, Long> read = Snapshots.readHashMap(
+                channel(writeMap(map, Serializer.LONG)), Serializer.INTEGER, Serializer.LONG);
+
+        assertThat(read.size(), is(expected.size()));
+        expected.forEach((key, value) -> assertThat(read.get(key), is(value)));
+    }
+
+    @Test
+    public void testThatTreeMapIsRebuiltAsValidTree() throws IOException {
+        for (int size = 0; size < 300; size++) {
+            CustomTreeMap<Integer, Integer> map = new CustomTreeMap<>(Comparator.reverseOrder());
+            IntStream.range(0, size).forEach((i) -> map.put(i, -i));
+
+            CustomTreeMap<Integer, Integer> read = Snapshots.readTreeMap(
+                    channel(writeMap(map, Serializer.INTEGER)), Serializer.INTEGER, Serializer.INTEGER,
+                    Comparator.reverseOrder());
+
+            assertThat(read.size(), is(size));
+            assertTrue(read.isValidRedBlackTree());
+            assertThat(read.entrySet().stream().map(Map.Entry::getKey).collect(Collectors.toList()),
+                    is(map.entrySet().stream().map(Map.Entry::getKey).collect(Collectors.toList())));
+            assertThat(read.get(size / 2), is(size == 0 ? null : -(size / 2)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatUnsortedSnapshotIsRejectedByTreeMap() throws IOException {
+        CustomHashMap<Integer, Integer> map = new CustomHashMap<>();
+        IntStream.range(0, 1000).forEach((i) -> map.put(i * 1_000_003, i));
+
+        Snapshots.readTreeMap(channel(writeMap(map, Serializer.INTEGER)), Serializer.INTEGER, Serializer.INTEGER,
+                Comparator.reverseOrder());
+    }
+
+    @Test(expected = EOFException.class)
+    public void testThatTruncatedSnapshotThrowsException() throws IOException {
+        CustomArrayList<Long> list = new CustomArrayList<>();
+        IntStream.range(0, 100).forEach((i) -> list.add((long) i));
+        byte[] snapshot = writeList(list);
+
+        Snapshots.readArrayList(channel(Arrays.copyOf(snapshot, snapshot.length - 1)), Serializer.LONG);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThatSnapshotOfOtherRecordsIsRejected() throws IOException {
+        CustomArrayList<Long> list = new CustomArrayList<>();
+        list.add(1L);
+
+        Snapshots.readArrayList(channel(writeList(list)), Serializer.INTEGER);
+    }
+
+    private static byte[] writeList(List<Long> list) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Snapshots.writeList(list, Serializer.LONG, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static <V> byte[] writeMap(Map<Integer, V> map, Serializer<V> valueSerializer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Snapshots.writeMap(map, Serializer.INTEGER, valueSerializer, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static ReadableByteChannel channel(byte[] snapshot) {
+        return Channels.newChannel(new ByteArrayInputStream(snapshot));
+    }
+}